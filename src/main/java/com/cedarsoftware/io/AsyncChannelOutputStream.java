@@ -0,0 +1,325 @@
+package com.cedarsoftware.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * OutputStream that hands its bytes to a WritableByteChannel or AsynchronousFileChannel without making the writing
+ * thread wait for the I/O.  Bytes are collected into a small ring of direct ByteBuffers.  When a buffer fills, it
+ * is handed off to be written, and filling continues in the next free buffer.  The writing thread only waits when
+ * every buffer in the ring is still being written, which bounds memory use on a slow channel.
+ * <br><br>
+ * Writes to a WritableByteChannel are performed one at a time, in order, on the supplied Executor.  The channel
+ * must be in blocking mode.  Writes to an AsynchronousFileChannel are issued directly, each at its own position.
+ * Call close() when done, then use completion() to find out when (and whether) all of the bytes were written.
+ * The ByteBuffers are returned to a shared pool (holding at most one ring of buffers) once all writes have finished.
+ *
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License");
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+final class AsyncChannelOutputStream extends OutputStream {
+    static final int BUFFER_SIZE = 64 * 1024;
+    private static final int RING_SIZE = 4;
+    // At most one ring's worth of direct memory is kept between writes.
+    private static final int MAX_POOLED_BUFFERS = RING_SIZE;
+    private static final Queue<ByteBuffer> pool = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger pooled = new AtomicInteger();
+    private final WritableByteChannel channel;
+    private final Executor executor;
+    private final AsynchronousFileChannel fileChannel;
+    private final boolean closeChannel;
+    private final List<ByteBuffer> ring = new ArrayList<>(RING_SIZE);
+    private final BlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(RING_SIZE);
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+    private ByteBuffer current;
+    private long position;
+    private volatile Throwable failure;
+    private boolean closed;
+
+    /**
+     * @param channel WritableByteChannel (in blocking mode) to write to.
+     * @param executor Executor on which the channel writes are performed.
+     * @param closeChannel boolean true to close the channel once everything has been written.
+     */
+    AsyncChannelOutputStream(WritableByteChannel channel, Executor executor, boolean closeChannel) {
+        this(channel, executor, null, 0, closeChannel);
+    }
+
+    /**
+     * @param fileChannel AsynchronousFileChannel to write to.
+     * @param position long file position at which to write the first byte.
+     * @param closeChannel boolean true to close the channel once everything has been written.
+     */
+    AsyncChannelOutputStream(AsynchronousFileChannel fileChannel, long position, boolean closeChannel) {
+        this(null, null, fileChannel, position, closeChannel);
+    }
+
+    private AsyncChannelOutputStream(WritableByteChannel channel, Executor executor, AsynchronousFileChannel fileChannel, long position, boolean closeChannel) {
+        this.channel = channel;
+        this.executor = executor;
+        this.fileChannel = fileChannel;
+        this.position = position;
+        this.closeChannel = closeChannel;
+        for (int i = 0; i < RING_SIZE; i++) {
+            ByteBuffer buffer = pool.poll();
+            if (buffer == null) {
+                buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            } else {
+                pooled.decrementAndGet();
+            }
+            ring.add(buffer);
+            free.add(buffer);
+        }
+        current = free.poll();
+    }
+
+    /**
+     * @return CompletableFuture that completes when close() has been called and all bytes have been written (and
+     * the channel closed, if requested).  It completes exceptionally with a JsonIoException if a write failed, or
+     * if abort() was called.
+     */
+    CompletableFuture<Void> completion() {
+        return done;
+    }
+
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (!current.hasRemaining()) {
+            next();
+        }
+        current.put((byte) b);
+    }
+
+    public void write(byte[] bytes, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            if (!current.hasRemaining()) {
+                next();
+            }
+            int count = Math.min(len, current.remaining());
+            current.put(bytes, off, count);
+            off += count;
+            len -= count;
+        }
+    }
+
+    /**
+     * Hand off the bytes collected so far to be written.  This does not wait for them to be written.
+     */
+    public void flush() throws IOException {
+        ensureOpen();
+        if (current.position() > 0) {
+            next();
+        }
+    }
+
+    /**
+     * Hand off the remaining bytes.  This does not wait for them to be written; use completion() for that.
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (current.position() > 0) {
+            dispatch(current);
+        }
+        current = null;
+        tail.whenComplete((v, e) -> finish(e));
+    }
+
+    /**
+     * Stop writing because the JSON could not be produced.  Bytes already handed off are still written, then
+     * completion() completes exceptionally with the passed in exception (unless a write failed first).
+     * @param e Throwable describing why writing stopped.
+     */
+    void abort(Throwable e) {
+        if (failure == null) {
+            failure = e;
+        }
+        if (closed) {
+            return;
+        }
+        closed = true;
+        current = null;     // Discard the bytes not yet handed off
+        tail.whenComplete((v, x) -> finish(x));
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        Throwable error = failure;
+        if (error != null) {
+            throw new IOException("Unable to write JSON to channel", error);
+        }
+    }
+
+    private void next() throws IOException {
+        dispatch(current);
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            BufferWait wait = new BufferWait();
+            try {
+                ForkJoinPool.managedBlock(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for a free buffer");
+            }
+            buffer = wait.buffer;
+        }
+        current = buffer;
+        ensureOpen();
+    }
+
+    /**
+     * Waits for a buffer to be freed.  As a ManagedBlocker, a ForkJoinPool worker waiting here lets the pool add
+     * a thread, so the channel writes queued on that same pool can still run.
+     */
+    private final class BufferWait implements ForkJoinPool.ManagedBlocker {
+        private ByteBuffer buffer;
+
+        public boolean block() throws InterruptedException {
+            if (buffer == null) {
+                buffer = free.take();
+            }
+            return true;
+        }
+
+        public boolean isReleasable() {
+            return buffer != null || (buffer = free.poll()) != null;
+        }
+    }
+
+    private void dispatch(ByteBuffer buffer) {
+        buffer.flip();
+        if (fileChannel != null) {
+            FileWrite write = new FileWrite(buffer, position);
+            position += buffer.remaining();
+            try {
+                fileChannel.write(buffer, write.start, null, write);
+            } catch (RuntimeException e) {
+                write.failed(e, null);
+            }
+            tail = CompletableFuture.allOf(tail, write.future);
+        } else {
+            // Each write starts after the prior one finishes, and always frees its buffer (even when skipped
+            // because an earlier write failed) before it completes.
+            tail = tail.handleAsync((v, e) -> {
+                try {
+                    if (e != null) {
+                        throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+                    }
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    return null;
+                } catch (IOException ioe) {
+                    failure = ioe;
+                    throw new CompletionException(ioe);
+                } finally {
+                    release(buffer);
+                }
+            }, executor);
+        }
+    }
+
+    private void release(ByteBuffer buffer) {
+        buffer.clear();
+        free.offer(buffer);
+    }
+
+    private void finish(Throwable e) {
+        Throwable error = failure;
+        if (error == null && e != null) {
+            error = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        }
+        if (closeChannel) {
+            try {
+                if (fileChannel != null) {
+                    fileChannel.close();
+                } else {
+                    channel.close();
+                }
+            } catch (IOException ioe) {
+                if (error == null) {
+                    error = ioe;
+                }
+            }
+        }
+        for (ByteBuffer buffer : ring) {
+            if (pooled.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+                buffer.clear();
+                pool.offer(buffer);
+            } else {
+                pooled.decrementAndGet();
+            }
+        }
+        if (error == null) {
+            done.complete(null);
+        } else if (error instanceof JsonIoException) {
+            done.completeExceptionally(error);
+        } else {
+            done.completeExceptionally(new JsonIoException("Unable to write JSON to channel", error));
+        }
+    }
+
+    /**
+     * Writes one buffer to the AsynchronousFileChannel, continuing after partial writes, then frees the buffer.
+     */
+    private final class FileWrite implements CompletionHandler<Integer, Void> {
+        private final ByteBuffer buffer;
+        private final long start;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private FileWrite(ByteBuffer buffer, long start) {
+            this.buffer = buffer;
+            this.start = start;
+        }
+
+        public void completed(Integer count, Void attachment) {
+            if (buffer.hasRemaining()) {
+                fileChannel.write(buffer, start + buffer.position(), null, this);
+                return;
+            }
+            release(buffer);
+            future.complete(null);
+        }
+
+        public void failed(Throwable e, Void attachment) {
+            failure = e;
+            release(buffer);
+            future.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.cedarsoftware.io;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * Class-keyed cache backed by java.lang.ClassValue.  Lookups are lock-free (the value hangs off the Class itself),
+ * there is no LRU bookkeeping on each get(), and entries are released when their Class is unloaded instead of
+ * being evicted by size.  Used for the per-class metadata caches in ReadOptions and WriteOptions when
+ * classValueCache(true) is set on the builder.
+ * <br><br>
+ * ClassValue cannot enumerate its entries, so the cached Classes are also tracked in a weak key set (taking a lock
+ * only when an entry is stored or removed, never on get()).  entrySet() iterates a snapshot of the entries present
+ * when it was called, which is what size(), iteration, equals(), and copying out via putAll() use.  clear() drops
+ * all entries by replacing the underlying ClassValue.
+ *
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License");
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+final class ClassValueCache<V> extends AbstractMap<Class<?>, V> {
+    private volatile ClassValue<Holder<V>> holders = newHolders();
+    private final Set<Class<?>> keys = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private static final class Holder<V> {
+        private volatile V value;
+    }
+
+    private static <V> ClassValue<Holder<V>> newHolders() {
+        return new ClassValue<Holder<V>>() {
+            protected Holder<V> computeValue(Class<?> type) {
+                return new Holder<>();
+            }
+        };
+    }
+
+    public V get(Object key) {
+        if (!(key instanceof Class)) {
+            return null;
+        }
+        return holders.get((Class<?>) key).value;
+    }
+
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    public V put(Class<?> key, V value) {
+        Holder<V> holder = holders.get(key);
+        V prior = holder.value;
+        holder.value = value;
+        if (value == null) {
+            keys.remove(key);
+        } else {
+            keys.add(key);
+        }
+        return prior;
+    }
+
+    public V remove(Object key) {
+        if (!(key instanceof Class)) {
+            return null;
+        }
+        return put((Class<?>) key, null);
+    }
+
+    /**
+     * Compute the value for the Class if it is not already cached.  Like LRUCache, two threads racing on the
+     * same Class may both compute a value; the last one stored wins, and both are equivalent.
+     */
+    public V computeIfAbsent(Class<?> key, Function<? super Class<?>, ? extends V> mappingFunction) {
+        Holder<V> holder = holders.get(key);
+        V value = holder.value;
+        if (value == null) {
+            value = mappingFunction.apply(key);
+            if (value != null) {
+                holder.value = value;
+                keys.add(key);
+            }
+        }
+        return value;
+    }
+
+    public void putAll(Map<? extends Class<?>, ? extends V> m) {
+        for (Map.Entry<? extends Class<?>, ? extends V> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public void clear() {
+        holders = newHolders();
+        keys.clear();
+    }
+
+    public Set<Map.Entry<Class<?>, V>> entrySet() {
+        return new AbstractSet<Map.Entry<Class<?>, V>>() {
+            public Iterator<Map.Entry<Class<?>, V>> iterator() {
+                final Iterator<Map.Entry<Class<?>, V>> entries = snapshot().iterator();
+                return new Iterator<Map.Entry<Class<?>, V>>() {
+                    private Map.Entry<Class<?>, V> current;
+
+                    public boolean hasNext() {
+                        return entries.hasNext();
+                    }
+
+                    public Map.Entry<Class<?>, V> next() {
+                        current = entries.next();
+                        return current;
+                    }
+
+                    public void remove() {
+                        if (current == null) {
+                            throw new IllegalStateException();
+                        }
+                        ClassValueCache.this.remove(current.getKey());
+                        current = null;
+                    }
+                };
+            }
+
+            public int size() {
+                return snapshot().size();
+            }
+        };
+    }
+
+    private List<Map.Entry<Class<?>, V>> snapshot() {
+        Class<?>[] classes = keys.toArray(new Class<?>[0]);
+        ClassValue<Holder<V>> current = holders;
+        List<Map.Entry<Class<?>, V>> entries = new ArrayList<>(classes.length);
+        for (Class<?> c : classes) {
+            V value = current.get(c).value;
+            if (value != null) {
+                entries.add(new AbstractMap.SimpleImmutableEntry<>(c, value));
+            }
+        }
+        return entries;
+    }
+}
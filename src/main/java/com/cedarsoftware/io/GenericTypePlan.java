@@ -0,0 +1,166 @@
+package com.cedarsoftware.io;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.cedarsoftware.io.reflect.Injector;
+
+/**
+ * Records, for a generic field type such as Map&lt;String, List&lt;Order&gt;&gt;, which Class each position of the
+ * JSON value should be read as: the Map keys and values, the Collection elements, or the fields of a generic
+ * object that take its first type argument.  JSON written without @type (e.g. by JSON.stringify()) relies on this
+ * to read the nested objects as the right classes.
+ * <br><br>
+ * A plan is built once per generic Type (and ReadOptions) and then applied one level at a time while the JSON is
+ * traversed: bind() stamps the Class on a JsonObject that has none and attaches the plan to it, and when that
+ * JsonObject is itself traversed, its Map entries, Collection elements, or fields are bound to the nested plans.
+ *
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License");
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+final class GenericTypePlan {
+    private enum Kind { NONE, LEAF, MAP, COLLECTION, OBJECT }
+
+    static final GenericTypePlan NONE = new GenericTypePlan(Kind.NONE, null);
+    private final Kind kind;
+    private final Class<?> rawType;
+    private GenericTypePlan keys = NONE;
+    private GenericTypePlan values = NONE;
+    private GenericTypePlan elements = NONE;
+    private Map<String, GenericTypePlan> fields = Collections.emptyMap();
+
+    private GenericTypePlan(Kind kind, Class<?> rawType) {
+        this.kind = kind;
+        this.rawType = rawType;
+    }
+
+    /**
+     * Build the plan for the passed in Type.
+     * @param type Type of a field (or of a position within a generic field type).
+     * @param readOptions ReadOptions supplying the Injectors of generic object types.
+     * @return GenericTypePlan for the Type.  NONE when there is nothing to bind (a type variable, wildcard, or
+     * a parameterized type without type arguments).
+     */
+    static GenericTypePlan build(Type type, ReadOptions readOptions) {
+        if (type instanceof Class) {
+            return new GenericTypePlan(Kind.LEAF, (Class<?>) type);
+        }
+        if (!(type instanceof ParameterizedType)) {
+            return NONE;
+        }
+        ParameterizedType pType = (ParameterizedType) type;
+        Type[] typeArgs = pType.getActualTypeArguments();
+        if (!(pType.getRawType() instanceof Class) || typeArgs == null || typeArgs.length < 1) {
+            return NONE;
+        }
+        Class<?> raw = (Class<?>) pType.getRawType();
+
+        if (Map.class.isAssignableFrom(raw)) {
+            GenericTypePlan plan = new GenericTypePlan(Kind.MAP, raw);
+            if (typeArgs.length > 1) {
+                plan.keys = build(typeArgs[0], readOptions);
+                plan.values = build(typeArgs[1], readOptions);
+            }
+            return plan;
+        }
+        if (Collection.class.isAssignableFrom(raw)) {
+            GenericTypePlan plan = new GenericTypePlan(Kind.COLLECTION, raw);
+            plan.elements = build(typeArgs[0], readOptions);
+            return plan;
+        }
+
+        // Fields declared with a type variable (T) or a generic type (List<T>) take the first type argument.
+        GenericTypePlan plan = new GenericTypePlan(Kind.OBJECT, raw);
+        GenericTypePlan typeArgPlan = build(typeArgs[0], readOptions);
+        Map<String, GenericTypePlan> fields = new HashMap<>();
+        for (Map.Entry<String, Injector> entry : readOptions.getDeepInjectorMap(raw).entrySet()) {
+            Injector injector = entry.getValue();
+            if (!entry.getKey().startsWith("this$") && (injector.getType().getTypeParameters().length > 0 || injector.getGenericType() instanceof TypeVariable)) {
+                fields.put(entry.getKey(), typeArgPlan);
+            }
+        }
+        if (!fields.isEmpty()) {
+            plan.fields = fields;
+        }
+        return plan;
+    }
+
+    /**
+     * Apply this plan to a JSON value at its position.  A JsonObject without a type is stamped with this plan's
+     * Class, and keeps the plan so that its contents are bound when it is traversed.  A JSON array at a
+     * Collection position is wrapped in a JsonObject of the Collection type (holding the plan).
+     * @param value JSON value (JsonObject, Object[], or primitive) at this plan's position.
+     * @return the value to store at the position: the passed in value, or the JsonObject wrapping it.
+     */
+    Object bind(Object value) {
+        if (kind == Kind.NONE) {
+            return value;
+        }
+        if (value instanceof JsonObject) {
+            JsonObject jObj = (JsonObject) value;
+            if (jObj.getJavaType() == null && jObj.getTarget() == null) {
+                jObj.setJavaType(rawType);
+            }
+            if (kind != Kind.LEAF && jObj.typePlan == null) {
+                jObj.typePlan = this;
+            }
+        } else if (value instanceof Object[] && kind == Kind.COLLECTION) {
+            JsonObject collection = new JsonObject();
+            collection.setJavaType(rawType);
+            collection.setJsonArray((Object[]) value);
+            collection.typePlan = this;
+            return collection;
+        }
+        return value;
+    }
+
+    /**
+     * Bind the Map keys and values (in the @keys / @items form) to the key and value plans.
+     */
+    void bindEntries(Object[] keyArray, Object[] valueArray) {
+        if (keys.kind != Kind.NONE) {
+            for (int i = 0; i < keyArray.length; i++) {
+                keyArray[i] = keys.bind(keyArray[i]);
+            }
+        }
+        if (values.kind != Kind.NONE) {
+            for (int i = 0; i < valueArray.length; i++) {
+                valueArray[i] = values.bind(valueArray[i]);
+            }
+        }
+    }
+
+    /**
+     * @return GenericTypePlan for the elements of a Collection plan, NONE otherwise.
+     */
+    GenericTypePlan getElements() {
+        return elements;
+    }
+
+    /**
+     * @param fieldName String name of a field of a generic object.
+     * @return GenericTypePlan the field's JSON value is bound to (the object's first type argument), or null if
+     * the field does not take a type argument.
+     */
+    GenericTypePlan getField(String fieldName) {
+        return fields.get(fieldName);
+    }
+}
@@ -0,0 +1,331 @@
+package com.cedarsoftware.io;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URL;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.MonthDay;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.Period;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.cedarsoftware.io.reflect.Accessor;
+import com.cedarsoftware.io.reflect.Injector;
+import com.cedarsoftware.util.convert.Converter;
+
+/**
+ * Copies an object graph directly, in memory, for JsonIo.deepCopy().  The result matches what writing the graph
+ * to JSON and reading it back would produce, without producing or parsing any JSON text:
+ * <ul>
+ *     <li>Fields are read with the WriteOptions Accessors (so the same fields are excluded as when writing) and
+ *     set with the ReadOptions Injectors (so fields not imported are left at their initial values).</li>
+ *     <li>Objects are instantiated the same way the reader instantiates them, including coerced classes.</li>
+ *     <li>Every object is copied once, so shared references and cycles are preserved.</li>
+ *     <li>Immutable values (String, primitive wrappers, enums, java.time types, ...) are shared, not copied.</li>
+ * </ul>
+ * Objects that are written by a custom writer, or read by a ClassFactory or custom reader, cannot be copied
+ * this way.  When one is found, copy() throws Unsupported, and the caller falls back to the JSON round trip.
+ * <br><br>
+ * Sets, Maps, and other non-List Collections are filled after every other object has been copied (innermost
+ * first), so that the hashCode() / compareTo() of their elements sees fully copied objects.
+ *
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License");
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+@SuppressWarnings("unchecked")
+final class GraphCopier {
+    private static final Set<Class<?>> IMMUTABLES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, BigInteger.class, BigDecimal.class, Class.class, UUID.class, Locale.class,
+            URI.class, URL.class, Duration.class, Instant.class, LocalDate.class, LocalDateTime.class,
+            LocalTime.class, MonthDay.class, OffsetDateTime.class, OffsetTime.class, Period.class, Year.class,
+            YearMonth.class, ZonedDateTime.class)));
+
+    private final ReadOptions readOptions;
+    private final WriteOptions writeOptions;
+    private final Map<Object, Object> copies = new IdentityHashMap<>();
+    private final Deque<Object> unfilled = new ArrayDeque<>();
+    // {Collection or Map copy, copied elements or keys, copied values}, filled last
+    private final List<Object[]> hashed = new ArrayList<>();
+    private Converter converter;
+
+    /**
+     * Thrown when the graph holds an object that cannot be copied directly.
+     */
+    static final class Unsupported extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final Unsupported UNSUPPORTED = new Unsupported();
+
+    private GraphCopier(ReadOptions readOptions, WriteOptions writeOptions) {
+        this.readOptions = readOptions;
+        this.writeOptions = writeOptions;
+    }
+
+    /**
+     * @param source Object root of the graph to copy.
+     * @param readOptions ReadOptions whose Injectors, coerced types, and readers apply.  Can be null.
+     * @param writeOptions WriteOptions whose Accessors and writers apply.  Can be null.
+     * @return the copy of source.
+     * @throws Unsupported if the graph cannot be copied directly.
+     */
+    static Object copy(Object source, ReadOptions readOptions, WriteOptions writeOptions) {
+        if (readOptions == null) {
+            readOptions = ReadOptionsBuilder.getDefaultReadOptions();
+        }
+        if (writeOptions == null) {
+            writeOptions = WriteOptionsBuilder.getDefaultWriteOptions();
+        }
+        if (!readOptions.isReturningJavaObjects() || readOptions.getMissingFieldHandler() != null) {
+            throw UNSUPPORTED;
+        }
+        return new GraphCopier(readOptions, writeOptions).copyGraph(source);
+    }
+
+    private Object copyGraph(Object source) {
+        Object root = copyOf(source);
+        while (!unfilled.isEmpty()) {
+            fill(unfilled.pop());
+        }
+        for (int i = hashed.size() - 1; i >= 0; i--) {
+            Object[] entry = hashed.get(i);
+            if (entry[0] instanceof Map) {
+                Map<Object, Object> map = (Map<Object, Object>) entry[0];
+                Object[] keys = (Object[]) entry[1];
+                Object[] values = (Object[]) entry[2];
+                for (int j = 0; j < keys.length; j++) {
+                    map.put(keys[j], values[j]);
+                }
+            } else {
+                ((Collection<Object>) entry[0]).addAll(Arrays.asList((Object[]) entry[1]));
+            }
+        }
+        return root;
+    }
+
+    /**
+     * @return the copy of the passed in object: the object itself if it is immutable, otherwise its (possibly
+     * not yet filled) copy, created on first use.
+     */
+    private Object copyOf(Object source) {
+        if (source == null) {
+            return null;
+        }
+        Object copy = copies.get(source);
+        if (copy != null) {
+            return copy;
+        }
+        Class<?> c = source.getClass();
+        if (isImmutable(c, source)) {
+            return source;
+        }
+        copy = copyValue(source, c);
+        if (copy == null) {
+            copy = instantiate(source, c);
+            unfilled.push(source);
+        }
+        copies.put(source, copy);
+        return copy;
+    }
+
+    private static boolean isImmutable(Class<?> c, Object source) {
+        return IMMUTABLES.contains(c) || source instanceof Enum || source instanceof ZoneId;
+    }
+
+    /**
+     * @return a complete copy of a mutable JDK value (Date, Calendar, primitive array, ...), or null if the
+     * object is not one of these.
+     */
+    private static Object copyValue(Object source, Class<?> c) {
+        if (c.isArray() && c.getComponentType().isPrimitive()) {
+            int length = Array.getLength(source);
+            Object copy = Array.newInstance(c.getComponentType(), length);
+            System.arraycopy(source, 0, copy, 0, length);
+            return copy;
+        }
+        if (c == Date.class) {
+            return new Date(((Date) source).getTime());
+        }
+        if (c == java.sql.Date.class) {
+            return new java.sql.Date(((Date) source).getTime());
+        }
+        if (c == Timestamp.class || c == GregorianCalendar.class) {
+            return c == Timestamp.class ? ((Timestamp) source).clone() : ((Calendar) source).clone();
+        }
+        if (source instanceof TimeZone) {
+            return ((TimeZone) source).clone();
+        }
+        if (source instanceof EnumSet) {
+            return ((EnumSet<?>) source).clone();
+        }
+        if (c == AtomicBoolean.class) {
+            return new AtomicBoolean(((AtomicBoolean) source).get());
+        }
+        if (c == AtomicInteger.class) {
+            return new AtomicInteger(((AtomicInteger) source).get());
+        }
+        if (c == AtomicLong.class) {
+            return new AtomicLong(((AtomicLong) source).get());
+        }
+        if (c == StringBuilder.class) {
+            return new StringBuilder((StringBuilder) source);
+        }
+        if (c == StringBuffer.class) {
+            return new StringBuffer((StringBuffer) source);
+        }
+        return null;
+    }
+
+    /**
+     * Create the empty copy of an array, Collection, Map, or object, the way the reader would.
+     */
+    private Object instantiate(Object source, Class<?> c) {
+        if (c.isArray()) {
+            return Array.newInstance(c.getComponentType(), Array.getLength(source));
+        }
+        if (source instanceof JsonValue || isRecord(c)) {
+            throw UNSUPPORTED;
+        }
+        if (!writeOptions.isNotCustomWrittenClass(c) && writeOptions.getCustomWriter(c) != null) {
+            throw UNSUPPORTED;
+        }
+        if ((source instanceof SortedSet && ((SortedSet<?>) source).comparator() != null) ||
+                (source instanceof SortedMap && ((SortedMap<?, ?>) source).comparator() != null)) {
+            throw UNSUPPORTED;  // The comparator is not written to JSON
+        }
+
+        Class<?> coerced = readOptions.getCoercedClass(c);
+        Class<?> type = coerced == null ? c : coerced;
+        if (readOptions.getClassFactory(type) != null) {
+            throw UNSUPPORTED;
+        }
+        if (!readOptions.isNotCustomReaderClass(type) && readOptions.getCustomReader(type) != null) {
+            throw UNSUPPORTED;
+        }
+        if (converter == null) {
+            converter = new Converter(readOptions.getConverterOptions());
+        }
+        try {
+            return MetaUtils.newInstance(converter, type, null);
+        } catch (Exception e) {
+            throw UNSUPPORTED;
+        }
+    }
+
+    private static boolean isRecord(Class<?> c) {
+        Class<?> superClass = c.getSuperclass();
+        return superClass != null && "java.lang.Record".equals(superClass.getName());
+    }
+
+    /**
+     * Copy the contents of source into its copy.  Referenced objects are copied (or found) but not filled here.
+     */
+    private void fill(Object source) {
+        Object copy = copies.get(source);
+        if (source instanceof Object[]) {
+            Object[] from = (Object[]) source;
+            Object[] to = (Object[]) copy;
+            for (int i = 0; i < from.length; i++) {
+                to[i] = copyOf(from[i]);
+            }
+        } else if (source instanceof Collection) {
+            Collection<?> from = (Collection<?>) source;
+            if (copy instanceof List) {
+                List<Object> to = (List<Object>) copy;
+                for (Object element : from) {
+                    to.add(copyOf(element));
+                }
+            } else {
+                hashed.add(new Object[]{copy, copyAll(from.toArray()), null});
+            }
+        } else if (source instanceof Map) {
+            Map<?, ?> from = (Map<?, ?>) source;
+            Object[] keys = new Object[from.size()];
+            Object[] values = new Object[keys.length];
+            int i = 0;
+            for (Map.Entry<?, ?> entry : from.entrySet()) {
+                keys[i] = copyOf(entry.getKey());
+                values[i++] = copyOf(entry.getValue());
+            }
+            hashed.add(new Object[]{copy, keys, values});
+        } else {
+            fillFields(source, copy);
+        }
+    }
+
+    private Object[] copyAll(Object[] elements) {
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = copyOf(elements[i]);
+        }
+        return elements;
+    }
+
+    private void fillFields(Object source, Object copy) {
+        Map<String, Injector> injectors = readOptions.getDeepInjectorMap(copy.getClass());
+        boolean skipNullFields = writeOptions.isSkipNullFields();
+
+        for (Accessor accessor : writeOptions.getAccessorsForClass(source.getClass())) {
+            Injector injector = injectors.get(accessor.getUniqueFieldName());
+            if (injector == null) {
+                continue;
+            }
+            Object value = accessor.retrieve(source);
+            if (value == null && skipNullFields) {
+                continue;
+            }
+            injector.inject(copy, accessor.getFieldType().isPrimitive() ? value : copyOf(value));
+        }
+    }
+}
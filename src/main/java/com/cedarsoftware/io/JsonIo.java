@@ -2,14 +2,23 @@ package com.cedarsoftware.io;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import com.cedarsoftware.util.ClassUtilities;
 import com.cedarsoftware.util.Convention;
@@ -71,6 +80,11 @@ import com.cedarsoftware.util.convert.DefaultConverterOptions;
  *         limitations under the License.
  */
 public class JsonIo {
+    // Pooled buffers that grew beyond this size are dropped after use rather than held by the thread.
+    private static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+    private static final ThreadLocal<PooledWriter> pooledWriter = new ThreadLocal<>();
+    private static final ThreadLocal<PooledReader> pooledReader = new ThreadLocal<>();
+    private static volatile boolean threadLocalPooling = false;
 
     /**
      * Statically accessed class.
@@ -78,6 +92,30 @@ public class JsonIo {
     private JsonIo() {
     }
 
+    /**
+     * Turn on/off per-thread reuse of JsonWriter and JsonReader instances (and their buffers, reference maps,
+     * Resolver, Converter, and parser caches) within toJson() and toObjects().  It is off by default.  A pooled
+     * instance is reused only when the same WriteOptions/ReadOptions instance is passed in again, so build your
+     * options once and share them.  Re-entrant calls (e.g. from a custom writer or ClassFactory) fall back to new
+     * instances.  With virtual threads, each virtual thread gets its own instance, so reuse is limited to the
+     * calls made by that virtual thread; nothing is held once it terminates.
+     * @param state boolean true = on, false = off.
+     */
+    public static void setThreadLocalPooling(boolean state) {
+        threadLocalPooling = state;
+        if (!state) {
+            pooledWriter.remove();
+            pooledReader.remove();
+        }
+    }
+
+    /**
+     * @return boolean true if JsonWriter and JsonReader instances are reused per-thread, false otherwise.
+     */
+    public static boolean isThreadLocalPooling() {
+        return threadLocalPooling;
+    }
+
     /**
      * Convert the passed in Java source object to JSON.
      * @param srcObject Java instance to convert to JSON format.  Can be a JsonObject that was loaded earlier
@@ -88,6 +126,12 @@ public class JsonIo {
      * @throws JsonIoException A runtime exception thrown if any errors happen during serialization
      */
     public static String toJson(Object srcObject, WriteOptions writeOptions) {
+        if (threadLocalPooling) {
+            PooledWriter pooled = acquireWriter(writeOptions);
+            if (pooled != null) {
+                return toJson(pooled, srcObject);
+            }
+        }
         FastByteArrayOutputStream out = new FastByteArrayOutputStream();
         try (JsonWriter writer = new JsonWriter(out, writeOptions)) {
             writer.write(srcObject);
@@ -99,6 +143,24 @@ public class JsonIo {
         }
     }
 
+    private static String toJson(PooledWriter pooled, Object srcObject) {
+        try {
+            pooled.writer.reset(pooled.out);
+            pooled.out.reset();
+            pooled.writer.write(srcObject);
+            return pooled.out.toString();
+        } catch (JsonIoException je) {
+            throw je;
+        } catch (Exception e) {
+            throw new JsonIoException("Unable to convert object to JSON", e);
+        } finally {
+            pooled.inUse = false;
+            if (pooled.out.size() > MAX_POOLED_BUFFER_SIZE) {
+                pooledWriter.remove();
+            }
+        }
+    }
+
     /**
      * Convert the passed in Java source object to JSON.  If you want a copy of the JSON that was written to the
      * OutputStream, you can wrap the output stream before calling this method, like this:<br/>
@@ -138,6 +200,125 @@ public class JsonIo {
         }
     }
 
+    /**
+     * Convert the passed in Java source object to JSON, written to the WritableByteChannel without waiting on the
+     * channel.  The JSON is produced on the calling thread into a small ring of pooled ByteBuffers.  Each full
+     * buffer is written to the channel (one at a time, in order) on the passed in Executor while the next one
+     * fills, so encoding and I/O overlap.  The calling thread only waits if the channel falls several buffers
+     * behind, and that wait is a ForkJoinPool.ManagedBlocker, so a caller running on a ForkJoinPool can pass that
+     * pool without starving it.  This method returns once the JSON has been produced; the returned
+     * CompletableFuture completes when the last byte is written.
+     * @param channel WritableByteChannel destination for the JSON output.  It must be in blocking mode.  The
+     *                channel will be closed by default (after the last write).  If you don't want this, set
+     *                writeOptions.closeStream(false).
+     * @param source Java instance to convert to JSON format.
+     * @param writeOptions Feature options settings to control the JSON output.  Can be null,
+     *                     in which case, default settings will be used.
+     * @param executor Executor on which to perform the (blocking) channel writes.  There is no default: blocking
+     *                 I/O does not belong on a shared pool the caller does not control.
+     * @return CompletableFuture that completes when all of the JSON has been written, or completes exceptionally
+     * with a JsonIoException if the JSON could not be produced or written.
+     */
+    public static CompletableFuture<Void> toJsonAsync(WritableByteChannel channel, Object source, WriteOptions writeOptions, Executor executor) {
+        Convention.throwIfNull(channel, "WritableByteChannel cannot be null");
+        Convention.throwIfNull(executor, "Executor cannot be null");
+        if (writeOptions == null) {
+            writeOptions = WriteOptionsBuilder.getDefaultWriteOptions();
+        }
+        return toJsonAsync(new AsyncChannelOutputStream(channel, executor, writeOptions.isCloseStream()), source, writeOptions);
+    }
+
+    /**
+     * Convert the passed in Java source object to JSON, written to the AsynchronousFileChannel starting at the
+     * given file position.  The JSON is produced on the calling thread into a small ring of pooled ByteBuffers, and
+     * each full buffer is handed to the channel as an asynchronous write, so encoding and I/O overlap.  This
+     * method returns once the JSON has been produced; the returned CompletableFuture completes when the last byte
+     * is written.
+     * @param channel AsynchronousFileChannel destination for the JSON output.  The channel will be closed by
+     *                default (after the last write).  If you don't want this, set writeOptions.closeStream(false).
+     * @param position long file position at which to write the JSON.
+     * @param source Java instance to convert to JSON format.
+     * @param writeOptions Feature options settings to control the JSON output.  Can be null,
+     *                     in which case, default settings will be used.
+     * @return CompletableFuture that completes when all of the JSON has been written, or completes exceptionally
+     * with a JsonIoException if the JSON could not be produced or written.
+     */
+    public static CompletableFuture<Void> toJsonAsync(AsynchronousFileChannel channel, long position, Object source, WriteOptions writeOptions) {
+        Convention.throwIfNull(channel, "AsynchronousFileChannel cannot be null");
+        if (position < 0) {
+            throw new JsonIoException("File position cannot be negative: " + position);
+        }
+        if (writeOptions == null) {
+            writeOptions = WriteOptionsBuilder.getDefaultWriteOptions();
+        }
+        return toJsonAsync(new AsyncChannelOutputStream(channel, position, writeOptions.isCloseStream()), source, writeOptions);
+    }
+
+    private static CompletableFuture<Void> toJsonAsync(AsyncChannelOutputStream out, Object source, WriteOptions writeOptions) {
+        try {
+            JsonWriter writer = new JsonWriter(out, writeOptions);
+            writer.write(source);
+            writer.close();
+            out.close();
+        } catch (Exception e) {
+            out.abort(new JsonIoException("Unable to convert object and send in JSON format to channel.", e));
+        }
+        return out.completion();
+    }
+
+    /**
+     * Write the elements supplied by the Iterator to the OutputStream as a JSON array [...], one element at a time,
+     * without first collecting them into a Collection.  Memory use is bounded by the largest element's object
+     * graph, as reference tracking (@id/@ref) is scoped to each element.  Useful for streaming a database cursor
+     * or other large result set straight to a socket.
+     * @param out OutputStream destination for the JSON output.  The OutputStream will be closed by default.  If
+     *            you don't want this, set writeOptions.closeStream(false).
+     * @param items Iterator supplying the elements to write.
+     * @param writeOptions Feature options settings to control the JSON output.  Can be null,
+     *                     in which case, default settings will be used.
+     * @throws JsonIoException A runtime exception thrown if any errors happen during serialization
+     */
+    public static void toJsonArray(OutputStream out, Iterator<?> items, WriteOptions writeOptions) {
+        Convention.throwIfNull(out, "OutputStream cannot be null");
+        Convention.throwIfNull(items, "Iterator cannot be null");
+        if (writeOptions == null) {
+            writeOptions = WriteOptionsBuilder.getDefaultWriteOptions();
+        }
+        JsonWriter writer = null;
+        try {
+            writer = new JsonWriter(out, writeOptions);
+            writer.writeIterator(items);
+        } catch (Exception e) {
+            throw new JsonIoException("Unable to convert objects and send in JSON format to OutputStream.", e);
+        }
+        finally {
+            if (writeOptions.isCloseStream()) {
+                if (writer != null) {
+                    writer.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the elements of the Stream to the OutputStream as a JSON array [...], one element at a time.  The
+     * Stream is consumed but not closed.
+     * @see #toJsonArray(OutputStream, Iterator, WriteOptions)
+     */
+    public static void toJsonArray(OutputStream out, Stream<?> items, WriteOptions writeOptions) {
+        Convention.throwIfNull(items, "Stream cannot be null");
+        toJsonArray(out, items.iterator(), writeOptions);
+    }
+
+    /**
+     * Write the elements of the Spliterator to the OutputStream as a JSON array [...], one element at a time.
+     * @see #toJsonArray(OutputStream, Iterator, WriteOptions)
+     */
+    public static void toJsonArray(OutputStream out, Spliterator<?> items, WriteOptions writeOptions) {
+        Convention.throwIfNull(items, "Spliterator cannot be null");
+        toJsonArray(out, Spliterators.iterator(items), writeOptions);
+    }
+
     /**
      * Convert the passed in JSON to Java Objects.
      * @param json String containing JSON content.
@@ -175,16 +356,54 @@ public class JsonIo {
      * @throws JsonIoException A runtime exception thrown if any errors happen during serialization
      */
     public static <T> T toObjects(InputStream in, ReadOptions readOptions, Class<T> rootType) {
+        return read(in, readOptions, jr -> jr.readObject(rootType));
+    }
+
+    /**
+     * Read the passed in JSON into an existing instance, instead of creating a new one.
+     * @see #readInto(InputStream, ReadOptions, Object)
+     */
+    public static <T> T readInto(String json, ReadOptions readOptions, T target) {
+        if (json == null) {
+            json = "";
+        }
+        return readInto(new FastByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), readOptions, target);
+    }
+
+    /**
+     * Read the JSON into an existing instance, instead of creating a new one.  The JSON object's fields are
+     * assigned to the instance's fields, and a Collection or Map instance is cleared and refilled.  For a hot loop
+     * that reads the same kind of message over and over, pass the same instance each time, and set
+     * readOptions.reuseExistingObjects(true) to also refill the objects, Collections, and Maps held by its fields.
+     * @param in InputStream bringing JSON content.  By default, it will be closed.  If you don't want
+     *           it closed after reading, set readOptions.closeStream(false).
+     * @param readOptions Feature options settings to control the JSON processing.  Can be null,
+     *                     in which case, default settings will be used.
+     * @param target Object instance to read into.  Its class must match the JSON @type, if the JSON has one.
+     * @return the passed in target, or null if the JSON is null.
+     * @throws JsonIoException A runtime exception thrown if the JSON cannot be read into the target.
+     * @see JsonReader#readInto(Object)
+     */
+    public static <T> T readInto(InputStream in, ReadOptions readOptions, T target) {
+        return read(in, readOptions, jr -> jr.readInto(target));
+    }
+
+    private static <T> T read(InputStream in, ReadOptions readOptions, Function<JsonReader, T> action) {
         Convention.throwIfNull(in, "InputStream cannot be null");
         if (readOptions == null) {
             readOptions = ReadOptionsBuilder.getDefaultReadOptions();
         }
 
+        PooledReader pooled = threadLocalPooling ? acquireReader(readOptions) : null;
         JsonReader jr = null;
         try  {
-            jr = new JsonReader(in, readOptions);
-            T root = jr.readObject(rootType);
-            return root;
+            if (pooled == null) {
+                jr = new JsonReader(in, readOptions);
+            } else {
+                jr = pooled.reader;
+                jr.reset(in);
+            }
+            return action.apply(jr);
         } catch (JsonIoException je) {
             throw je;
         } catch (Exception e) {
@@ -196,6 +415,67 @@ public class JsonIo {
                     jr.close();
                 }
             }
+            if (pooled != null) {
+                pooled.inUse = false;
+            }
+        }
+    }
+
+    /**
+     * @return the calling thread's PooledWriter for the passed in WriteOptions, marked in-use, or null if the
+     * thread's PooledWriter is already in use (re-entrant call).
+     */
+    private static PooledWriter acquireWriter(WriteOptions writeOptions) {
+        if (writeOptions == null) {
+            writeOptions = WriteOptionsBuilder.getDefaultWriteOptions();
+        }
+        PooledWriter pooled = pooledWriter.get();
+        if (pooled != null && pooled.inUse) {
+            return null;
+        }
+        if (pooled == null || pooled.writer.getWriteOptions() != writeOptions) {
+            pooled = new PooledWriter(writeOptions);
+            pooledWriter.set(pooled);
+        }
+        pooled.inUse = true;
+        return pooled;
+    }
+
+    /**
+     * @return the calling thread's PooledReader for the passed in ReadOptions, marked in-use, or null if the
+     * thread's PooledReader is already in use (re-entrant call).
+     */
+    private static PooledReader acquireReader(ReadOptions readOptions) {
+        PooledReader pooled = pooledReader.get();
+        if (pooled != null && pooled.inUse) {
+            return null;
+        }
+        if (pooled == null || pooled.readOptions != readOptions) {
+            pooled = new PooledReader(readOptions);
+            pooledReader.set(pooled);
+        }
+        pooled.inUse = true;
+        return pooled;
+    }
+
+    private static final class PooledWriter {
+        private final FastByteArrayOutputStream out = new FastByteArrayOutputStream();
+        private final JsonWriter writer;
+        private boolean inUse = false;
+
+        private PooledWriter(WriteOptions writeOptions) {
+            writer = new JsonWriter(out, writeOptions);
+        }
+    }
+
+    private static final class PooledReader {
+        private final ReadOptions readOptions;
+        private final JsonReader reader;
+        private boolean inUse = false;
+
+        private PooledReader(ReadOptions readOptions) {
+            this.readOptions = readOptions;
+            reader = new JsonReader(new FastByteArrayInputStream(new byte[]{}), readOptions);
         }
     }
 
@@ -254,7 +534,10 @@ public class JsonIo {
     }
 
     /**
-     * Copy an object graph using JSON.
+     * Copy an object graph, producing the same result as writing it to JSON and reading it back.  The graph is
+     * copied directly in memory, using the WriteOptions accessors and the ReadOptions injectors, with shared
+     * references and cycles preserved.  If the graph holds an object that is written by a custom writer, or read
+     * by a ClassFactory or custom reader, the copy is made by the JSON round trip instead.
      * @param source Object root object to copy
      * @param readOptions ReadOptions feature settings. Can be null for default ReadOptions.
      * @param writeOptions WriteOptions feature settings. Can be null for default WriteOptions.
@@ -267,6 +550,12 @@ public class JsonIo {
             return null;
         }
 
+        try {
+            return (T) GraphCopier.copy(source, readOptions, writeOptions);
+        } catch (GraphCopier.Unsupported ignored) {
+            // Copy through JSON below
+        }
+
         writeOptions = new WriteOptionsBuilder(writeOptions).showTypeInfoMinimal().shortMetaKeys(true).build();
         if (readOptions == null) {
             readOptions = ReadOptionsBuilder.getDefaultReadOptions();
@@ -35,6 +35,8 @@ public class JsonObject extends JsonValue implements Map<Object, Object> {
     private final Map<Object, Object> jsonStore = new LinkedHashMap<>();
     private boolean isMap = false;
     private Integer hash = null;
+    // Generic type plan whose nested positions this object's contents are bound to when it is traversed
+    GenericTypePlan typePlan;
     
     public String toString() {
         String jType = javaType == null ? "not set" : javaType.getName();
@@ -213,6 +215,14 @@ public class JsonObject extends JsonValue implements Map<Object, Object> {
         hash = null;
     }
 
+    /**
+     * Drop the JSON fields held by this object, keeping its type, id, and target.
+     */
+    void releaseFields() {
+        jsonStore.clear();
+        hash = null;
+    }
+
     public Set<Object> keySet() {
         return jsonStore.keySet();
     }
@@ -69,7 +69,7 @@ class JsonParser {
         }
     };
     private final Map<String, String> substitutes = new LinkedHashMap<>();
-    private final FastReader input;
+    private FastReader input;
     private final StringBuilder strBuf = new StringBuilder(256);
     private final StringBuilder hexBuf = new StringBuilder();
     private final StringBuilder numBuf = new StringBuilder();
@@ -145,6 +145,18 @@ class JsonParser {
         allowNanAndInfinity = readOptions.isAllowNanAndInfinity();
     }
 
+    /**
+     * Point this parser at new input, keeping its string and number caches for reuse.
+     * @param reader FastReader supplying the next JSON content.
+     */
+    void reset(FastReader reader) {
+        input = reader;
+        curParseDepth = 0;
+        strBuf.setLength(0);
+        hexBuf.setLength(0);
+        numBuf.setLength(0);
+    }
+
     /**
      * Read a JSON value (see json.org).  A value can be a JSON object, array, string, number, ("true", "false"), or "null".
      * @param suggestedClass JsonValue Owning entity.
@@ -576,7 +588,7 @@ class JsonParser {
         if (!(value instanceof Long)) {
             error("Expected a number for " + ID + ", instead got: " + value);
         }
-        Long id = (Long) value;
+        long id = (Long) value;
         references.put(id, jObj);
         jObj.setId(id);
     }
@@ -6,7 +6,7 @@ import java.io.InputStreamReader;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -61,8 +61,9 @@ import com.cedarsoftware.util.convert.Converter;
  */
 public class JsonReader implements Closeable
 {
-    private final FastReader input;
+    private FastReader input;
     private final Resolver resolver;
+    private final ReferenceTracker references;
     private final ReadOptions readOptions;
     private final JsonParser parser;
 
@@ -101,6 +102,15 @@ public class JsonReader implements Closeable
             return false;
         }
 
+        /**
+         * @return true if newInstance() can be called from several threads at once.  Only consulted when
+         * ReadOptions.isParallelResolution() is on: calls to factories that return false are made one at a time.
+         * json-io's own factories are always treated as thread-safe.
+         */
+        default boolean isThreadSafe() {
+            return false;
+        }
+
         default void gatherRemainingValues(Resolver resolver, JsonObject jObj, List<Object> arguments, Set<String> excludedFields) {
             Convention.throwIfNull(jObj, "JsonObject cannot be null");
 
@@ -158,6 +168,15 @@ public class JsonReader implements Closeable
         default Object read(Object jsonObj, Resolver resolver) {
             throw new UnsupportedOperationException("You must implement this method and read the JSON content from jsonObj and copy the values from jsonObj to the target class, jsonObj.getTarget()");
         }
+
+        /**
+         * @return true if read() can be called from several threads at once.  Only consulted when
+         * ReadOptions.isParallelResolution() is on: calls to readers that return false are made one at a time.
+         * json-io's own readers are always treated as thread-safe.
+         */
+        default boolean isThreadSafe() {
+            return false;
+        }
     }
 
     /**
@@ -184,6 +203,7 @@ public class JsonReader implements Closeable
         this.readOptions = readOptions == null ? ReadOptionsBuilder.getDefaultReadOptions() : readOptions;
         Converter converter = new Converter(this.readOptions.getConverterOptions());
         this.input = getReader(inputStream);
+        this.references = references;
 
         this.resolver = this.readOptions.isReturningJsonObjects() ?
                 new MapResolver(this.readOptions, references, converter) :
@@ -204,6 +224,18 @@ public class JsonReader implements Closeable
         this(new FastByteArrayInputStream(new byte[]{}), readOptions);
     }
 
+    /**
+     * Point this JsonReader at a new InputStream so that it can be reused for another readObject() with the same
+     * ReadOptions.  The Resolver, Converter, and parser (including its string and number caches) are kept, and all
+     * per-read state (references, unresolved references, etc.) is cleared.  The prior InputStream is not closed.
+     * @param inputStream InputStream that will be offering the next JSON content.
+     */
+    public void reset(InputStream inputStream) {
+        input = getReader(inputStream);
+        resolver.reset(readOptions, references);
+        parser.reset(input);
+    }
+
     public <T> T readObject(Class<T> rootType) {
         T returnValue;
         try {
@@ -221,6 +253,7 @@ public class JsonReader implements Closeable
 
         // JSON {} at root
         if (returnValue instanceof JsonObject) {
+            resolver.ownsTree = true;   // parsed here, so nothing outside this read holds the tree
             return determineReturnValueWhenJsonObjectRoot(rootType, returnValue);
         }
 
@@ -229,6 +262,7 @@ public class JsonReader implements Closeable
             JsonObject rootObj = new JsonObject();
             rootObj.setTarget(returnValue);
             rootObj.setJsonArray((Object[])returnValue);
+            resolver.ownsTree = true;
             T graph = toJavaObjects(rootObj, rootType);
             return asMaps ? returnValue : graph;
         }
@@ -246,6 +280,53 @@ public class JsonReader implements Closeable
         return returnValue;
     }
 
+    /**
+     * Read the JSON into the passed in instance, instead of creating a new root instance.  The JSON object's
+     * fields are assigned to the instance's fields (fields not in the JSON keep their values).  A Collection or
+     * Map instance is cleared and refilled from the JSON.  If the ReadOptions have reuseExistingObjects(true),
+     * the objects, Collections, and Maps held by the instance's fields are refilled in the same way, which
+     * avoids most allocation when the same kind of message is read over and over.
+     * @param target Object instance to read into.  Its class must match the JSON @type, if the JSON has one.
+     * @return the passed in target, or null if the JSON is null.
+     * @throws JsonIoException if the JSON is not an object (or, for a Collection, an array), or cannot be read
+     * into the passed in instance.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T readInto(T target) {
+        Convention.throwIfNull(target, "target cannot be null");
+        if (readOptions.isReturningJsonObjects()) {
+            throw new JsonIoException("readInto() requires ReadOptions that return Java objects");
+        }
+        Class<T> rootType = (Class<T>) target.getClass();
+        Object value;
+        try {
+            value = parser.readValue(rootType);
+            if (value == null) {
+                return null;
+            }
+        } catch (JsonIoException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new JsonIoException(getErrorMessage("error parsing JSON value"), e);
+        }
+
+        JsonObject rootObj;
+        if (value instanceof JsonObject) {
+            rootObj = (JsonObject) value;
+        } else if (value instanceof Object[]) {
+            rootObj = new JsonObject();
+            rootObj.setJsonArray((Object[]) value);
+        } else {
+            throw new JsonIoException(getErrorMessage("Unable to read JSON primitive into: " + rootType.getName()));
+        }
+        if (!resolver.reuseInstance(rootObj, target)) {
+            throw new JsonIoException(getErrorMessage("Unable to read JSON into an instance of: " + rootType.getName()));
+        }
+        resolver.reusingInstances = readOptions.isReuseExistingObjects();
+        resolver.ownsTree = true;
+        return toJavaObjects(rootObj, rootType);
+    }
+
     private <T> T determineReturnValueWhenJsonObjectRoot(Class<T> rootType, T returnValue) {
         boolean asMaps = readOptions.isReturningJsonObjects();
         T graph = toJavaObjects((JsonObject) returnValue, rootType);
@@ -302,6 +383,8 @@ public class JsonReader implements Closeable
             if (root == null) {
                 root = rootObj.getJavaType() == null ? (Class<T>)Object.class : (Class<T>)rootObj.getJavaType();
             }
+            // Without @id's, no object is reachable from two places, so sub-graphs can be resolved independently.
+            resolver.parallel = readOptions.isParallelResolution() && resolver.getReferences().size() == 0;
             return resolver.toJavaObjects(rootObj, root);
         } catch (Exception e) {
             if (readOptions.isCloseStream()) {
@@ -352,22 +435,64 @@ public class JsonReader implements Closeable
     }
 
     /**
-     * Implementation of ReferenceTracker
+     * Implementation of ReferenceTracker keyed by primitive long.  Ids from 0 up to a limit that grows with the
+     * ids seen are held in an array indexed by id, which covers the small, sequential ids JsonWriter assigns.
+     * Any other id (negative, or far beyond the ids seen so far) is held in an open-addressing hash table of
+     * long keys.  Neither structure boxes the id.
      */
     static class DefaultReferenceTracker implements ReferenceTracker {
-
-        final Map<Long, JsonObject> references = new HashMap<>();
+        private static final int INITIAL_DENSE = 64;
+        private static final int MAX_DENSE = 1 << 24;
+        private JsonObject[] dense = new JsonObject[INITIAL_DENSE];
+        private int maxDenseId = -1;
+        private long[] sparseKeys;
+        private JsonObject[] sparseValues;
+        private int sparseSize;
+        private int size;
 
         public JsonObject put(Long l, JsonObject o) {
-            return this.references.put(l, o);
+            return put(l.longValue(), o);
+        }
+
+        public JsonObject put(long id, JsonObject o) {
+            if (id >= 0 && (id < dense.length || (id < MAX_DENSE && id < 2L * dense.length))) {
+                int index = (int) id;
+                if (index >= dense.length) {
+                    dense = Arrays.copyOf(dense, Math.min(MAX_DENSE, Math.max(index + 1, dense.length * 2)));
+                }
+                JsonObject prior = dense[index];
+                if (prior == null && sparseSize > 0) {
+                    prior = sparseGet(id);    // The array entry now shadows the hashed one
+                }
+                dense[index] = o;
+                maxDenseId = Math.max(maxDenseId, index);
+                if (prior == null) {
+                    size++;
+                }
+                return prior;
+            }
+            JsonObject prior = sparsePut(id, o);
+            if (prior == null) {
+                size++;
+            }
+            return prior;
         }
 
         public void clear() {
-            this.references.clear();
+            if (dense.length > INITIAL_DENSE * 16) {
+                dense = new JsonObject[INITIAL_DENSE];
+            } else {
+                Arrays.fill(dense, 0, maxDenseId + 1, null);
+            }
+            maxDenseId = -1;
+            sparseKeys = null;
+            sparseValues = null;
+            sparseSize = 0;
+            size = 0;
         }
 
         public int size() {
-            return this.references.size();
+            return size;
         }
 
         public JsonObject get(JsonObject jObj) {
@@ -375,18 +500,22 @@ public class JsonReader implements Closeable
                 return jObj;
             }
 
-            return get(jObj.getReferenceId());
+            return get(jObj.getReferenceId().longValue());
         }
 
         public JsonObject get(Long id) {
-            JsonObject target = references.get(id);
+            return get(id.longValue());
+        }
+
+        public JsonObject get(long id) {
+            JsonObject target = lookup(id);
             if (target == null) {
                 throw new JsonIoException("Forward reference @ref: " + id + ", but no object defined (@id) with that value");
             }
 
             while (target.isReference()) {
                 id = target.getReferenceId();
-                target = references.get(id);
+                target = lookup(id);
                 if (target == null) {
                     throw new JsonIoException("Forward reference @ref: " + id + ", but no object defined (@id) with that value");
                 }
@@ -394,5 +523,62 @@ public class JsonReader implements Closeable
 
             return target;
         }
+
+        private JsonObject lookup(long id) {
+            if (id >= 0 && id < dense.length) {
+                JsonObject target = dense[(int) id];
+                if (target != null || sparseSize == 0) {
+                    return target;
+                }
+            }
+            return sparseSize == 0 ? null : sparseGet(id);
+        }
+
+        private static int slot(long id, int mask) {
+            long h = id * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+
+        private JsonObject sparseGet(long id) {
+            int mask = sparseKeys.length - 1;
+            for (int i = slot(id, mask); sparseValues[i] != null; i = (i + 1) & mask) {
+                if (sparseKeys[i] == id) {
+                    return sparseValues[i];
+                }
+            }
+            return null;
+        }
+
+        private JsonObject sparsePut(long id, JsonObject o) {
+            if (sparseKeys == null) {
+                sparseKeys = new long[16];
+                sparseValues = new JsonObject[16];
+            } else if ((sparseSize + 1) * 2 > sparseKeys.length) {
+                long[] keys = sparseKeys;
+                JsonObject[] values = sparseValues;
+                sparseKeys = new long[keys.length * 2];
+                sparseValues = new JsonObject[keys.length * 2];
+                sparseSize = 0;
+                for (int i = 0; i < keys.length; i++) {
+                    if (values[i] != null) {
+                        sparsePut(keys[i], values[i]);
+                    }
+                }
+            }
+            int mask = sparseKeys.length - 1;
+            int i = slot(id, mask);
+            while (sparseValues[i] != null) {
+                if (sparseKeys[i] == id) {
+                    JsonObject prior = sparseValues[i];
+                    sparseValues[i] = o;
+                    return prior;
+                }
+                i = (i + 1) & mask;
+            }
+            sparseKeys[i] = id;
+            sparseValues[i] = o;
+            sparseSize++;
+            return null;
+        }
     }
 }
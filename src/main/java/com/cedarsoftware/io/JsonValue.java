@@ -38,6 +38,8 @@ public abstract class JsonValue {
     protected long id = -1L;
     protected Long refId = null;
     protected int line;
+    // Token of the Resolver pass that has visited this value (see Resolver.traverseJsonObject())
+    Object visitedBy;
 
     public int getLine() {
         return line;
@@ -1,10 +1,10 @@
 package com.cedarsoftware.io;
 
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.Flushable;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
@@ -12,18 +12,28 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.EnumSet;
+import java.util.ArrayList;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
 
 import com.cedarsoftware.io.reflect.Accessor;
+import com.cedarsoftware.io.reflect.factories.LambdaAccessorFactory;
 import com.cedarsoftware.util.FastWriter;
 
 import static com.cedarsoftware.io.JsonValue.ID;
@@ -77,8 +87,28 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
     private static final String NEW_LINE = System.lineSeparator();
     private static final Long ZERO = 0L;
     private final WriteOptions writeOptions;
+    // Fewest elements written by one task when a List or Object[] is written in parallel
+    private static final int MIN_PARALLEL_CHUNK = 256;
     private final Map<Object, Long> objVisited = new IdentityHashMap<>();
-    private final Map<Object, Long> objsReferenced = new IdentityHashMap<>();
+    private final Map<Object, Long> objsReferenced;
+    // Whether each Map seen by traceReferences() has only String keys, so writing it does not walk its keys again
+    private final Map<Object, Boolean> mapKeysAreStrings;
+    // Set only on the writers that write one chunk of a parallel write: the parent's visited objects (read-only
+    // while the chunks run), and the referenced objects visited by any chunk.
+    private final Map<Object, Long> parentVisited;
+    private final Set<ParallelReferenceTracer.IdentityKey> chunkVisited;
+    // Held by the chunks of a parallel write while calling a custom writer that is not thread-safe
+    private final Object writerLock;
+    // The lock-holding wrappers of those custom writers, built once per writer and shared by the chunks.  Created
+    // by the first parallel write, before its chunks are started.
+    private Map<JsonClassWriter, JsonClassWriter> guardedWriters;
+    // json-io's own custom writers (nested in Writers, or in the writers package), which keep no per-write state
+    private static final ClassValue<Boolean> builtInWriters = new ClassValue<Boolean>() {
+        protected Boolean computeValue(Class<?> c) {
+            return c.getEnclosingClass() == Writers.class || c.getName().startsWith("com.cedarsoftware.io.writers.");
+        }
+    };
+    private final Utf8Writer sink;
     private final Writer out;
     private long identity = 1;
     private int depth = 0;
@@ -129,6 +159,15 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
          */
         default void writePrimitiveForm(Object o, Writer output, WriterContext context) throws IOException {
         }
+
+        /**
+         * @return true if this writer can be called from several threads at once.  Only consulted when
+         * WriteOptions.getParallelWriteThreshold() is on: calls to writers that return false are made one at a
+         * time.  json-io's own writers are always treated as thread-safe.
+         */
+        default boolean isThreadSafe() {
+            return false;
+        }
     }
 
     /**
@@ -147,8 +186,48 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
      * @see WriteOptions Javadoc.
      */
     public JsonWriter(OutputStream out, WriteOptions writeOptions) {
-        this.out = new FastWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        this.sink = new Utf8Writer(out);
+        this.out = new FastWriter(sink);
         this.writeOptions = writeOptions == null ? WriteOptionsBuilder.getDefaultWriteOptions() : writeOptions;
+        this.objsReferenced = new IdentityHashMap<>();
+        this.mapKeysAreStrings = new IdentityHashMap<>();
+        this.parentVisited = null;
+        this.chunkVisited = null;
+        this.writerLock = this;
+    }
+
+    /**
+     * Create a JsonWriter that writes one chunk of a parallel write.  It shares the parent's (already traced)
+     * reference information and indentation depth.
+     */
+    private JsonWriter(JsonWriter parent, OutputStream out, Set<ParallelReferenceTracer.IdentityKey> chunkVisited) {
+        this.sink = new Utf8Writer(out);
+        this.out = new FastWriter(sink);
+        this.writeOptions = parent.writeOptions;
+        this.objsReferenced = parent.objsReferenced;
+        this.mapKeysAreStrings = parent.mapKeysAreStrings;
+        this.parentVisited = parent.objVisited;
+        this.chunkVisited = chunkVisited;
+        this.writerLock = parent.writerLock;
+        this.guardedWriters = parent.guardedWriters;
+        this.depth = parent.depth;
+    }
+
+    /**
+     * Point this JsonWriter at a new OutputStream so that it (and its buffers) can be reused for another write()
+     * with the same WriteOptions.  Any pending output is flushed to the prior OutputStream first, which is not
+     * closed.  Reference tracking state and @id numbering start over, so the output is identical to that of a
+     * newly constructed JsonWriter.  A JsonWriter that has been closed cannot be reset.
+     * @param out OutputStream to which the next JSON output will be written.
+     */
+    public void reset(OutputStream out) {
+        flush();
+        sink.setOutputStream(out);
+        objVisited.clear();
+        objsReferenced.clear();
+        mapKeysAreStrings.clear();
+        identity = 1;
+        depth = 0;
     }
 
     public WriteOptions getWriteOptions() {
@@ -284,10 +363,24 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
             return false;
         }
 
+        return writeCustom(o, closestWriter, showType, output);
+    }
+
+    /**
+     * Write the passed in object using the passed in (already resolved) custom writer.
+     * @param o Object instance to write
+     * @param closestWriter JsonClassWriter to use to write the object.
+     * @param showType boolean indicating whether @type should be output.
+     * @param output Writer to write the JSON to.
+     * @return true, always (the object has been written).
+     */
+    private boolean writeCustom(Object o, JsonClassWriter closestWriter, boolean showType, Writer output) throws IOException
+    {
         if (writeOptionalReference(o))
         {
             return true;
         }
+        closestWriter = guard(closestWriter);
 
         boolean referenced = objsReferenced.containsKey(o);
 
@@ -346,6 +439,84 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
         flush();
         objVisited.clear();
         objsReferenced.clear();
+        mapKeysAreStrings.clear();
+    }
+
+    /**
+     * Write the elements supplied by the Iterator as a JSON array [...], one element at a time, without first
+     * collecting them into a Collection.  Reference tracking (@id/@ref) is scoped to each element, so only the
+     * current element's object graph is held in memory.  Instances shared between two elements are written in
+     * full in each.  Output is pushed to the OutputStream as the internal buffer fills, and flushed at the end.
+     * @param items Iterator supplying the elements to write.
+     */
+    public void writeIterator(Iterator<?> items)
+    {
+        try
+        {
+            if (!items.hasNext())
+            {
+                out.write("[]");
+            }
+            else
+            {
+                out.write('[');
+                tabIn();
+                writeStreamElement(items.next());
+                while (items.hasNext())
+                {
+                    out.write(',');
+                    newLine();
+                    writeStreamElement(items.next());
+                }
+                tabOut();
+                out.write(']');
+            }
+        }
+        catch (JsonIoException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new JsonIoException("Error writing object to JSON:", e);
+        }
+        finally
+        {
+            objVisited.clear();
+            objsReferenced.clear();
+            mapKeysAreStrings.clear();
+        }
+        flush();
+    }
+
+    /**
+     * Write the elements of the Stream as a JSON array [...].  The Stream is consumed but not closed.
+     * @param items Stream supplying the elements to write.
+     * @see #writeIterator(Iterator)
+     */
+    public void writeStream(Stream<?> items)
+    {
+        writeIterator(items.iterator());
+    }
+
+    /**
+     * Write the elements of the Spliterator as a JSON array [...].
+     * @param items Spliterator supplying the elements to write.
+     * @see #writeIterator(Iterator)
+     */
+    public void writeSpliterator(Spliterator<?> items)
+    {
+        writeIterator(Spliterators.iterator(items));
+    }
+
+    private void writeStreamElement(Object item) throws IOException
+    {
+        objVisited.clear();
+        objsReferenced.clear();
+        mapKeysAreStrings.clear();
+        traceReferences(item);
+        objVisited.clear();
+        writeCollectionElement(item);
     }
 
     /**
@@ -360,6 +531,11 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
             return;
         }
 
+        if (writeOptions.isParallelReferenceTracing()) {
+            traceReferencesInParallel(root);
+            return;
+        }
+
         final Deque<Object> stack = new ArrayDeque<>();
         stack.addFirst(root);
         final Map<Object, Long> visited = objVisited;
@@ -412,11 +588,16 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
                 try
                 {
                     Map map = (Map) obj;
+                    boolean stringKeys = true;
                     for (final Object item : map.entrySet())
                     {
                         final Entry entry = (Entry) item;
                         Object key = entry.getKey();
                         Object value = entry.getValue();
+                        if (!(key instanceof String))
+                        {
+                            stringKeys = false;
+                        }
                         if (value != null && !writeOptions.isNonReferenceableClass(value.getClass()))
                         {
                             stack.addFirst(value);
@@ -426,6 +607,7 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
                             stack.addFirst(key);
                         }
                     }
+                    mapKeysAreStrings.put(map, stringKeys);
                 }
                 catch (UnsupportedOperationException e)
                 {
@@ -454,6 +636,21 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
         }
     }
 
+    /**
+     * Trace the object graph using all available cores (ForkJoin common pool).  The set of objects placed into
+     * objsReferenced is the same as the sequential trace produces, although the ids may be handed out in a
+     * different order.  Note that this path does not call traceFields(), so subclasses overriding it are not
+     * consulted when parallel tracing is enabled.
+     * @param root Object to be deeply traced.
+     */
+    private void traceReferencesInParallel(Object root) {
+        ParallelReferenceTracer tracer = new ParallelReferenceTracer(writeOptions);
+        for (Object obj : tracer.trace(root)) {
+            objsReferenced.put(obj, identity++);
+        }
+        tracer.collectMapKeyKinds(mapKeysAreStrings);
+    }
+
     /**
      * Reach-ability trace to visit all objects within the graph to be written.
      * This API will handle any object, using either reflection APIs or by
@@ -488,7 +685,7 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
         }
 
         final Writer output = this.out;
-        if (objVisited.containsKey(obj))
+        if (isVisited(obj))
         {    // Only write (define) an object once in the JSON stream, otherwise emit a @ref
             String id = getId(obj);
             if (id == null)
@@ -501,6 +698,28 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
             return true;
         }
 
+        return false;
+    }
+
+    /**
+     * @return true if the passed in object was already written, otherwise mark it as written and return false.
+     */
+    private boolean isVisited(Object obj)
+    {
+        if (chunkVisited != null)
+        {   // Writing one chunk of a parallel write.  Only instances reached more than once need tracking, and the
+            // first chunk to reach one defines it.
+            if (!objsReferenced.containsKey(obj) && !(obj instanceof JsonObject))
+            {
+                return false;
+            }
+            return parentVisited.containsKey(obj) || !chunkVisited.add(new ParallelReferenceTracer.IdentityKey(obj));
+        }
+
+        if (objVisited.containsKey(obj))
+        {
+            return true;
+        }
         // Mark the object as visited by putting it in the Map (this map is re-used / clear()'d after walk()).
         objVisited.put(obj, null);
         return false;
@@ -533,7 +752,18 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
             showType = false;
         }
 
-        if (writeUsingCustomWriter(obj, showType, out) || writeOptionalReference(obj)) {
+        if (writeUsingCustomWriter(obj, showType, out)) {
+            return;
+        }
+        writeWithoutCustomWriter(obj, showType);
+    }
+
+    /**
+     * The part of writeImpl() after the custom writer lookup, for callers that already know obj's Class has no
+     * custom writer.  obj must be non-null and not one of the classes writeImpl() writes as null.
+     */
+    private void writeWithoutCustomWriter(Object obj, boolean showType) throws IOException {
+        if (writeOptionalReference(obj)) {
             return;
         }
 
@@ -594,7 +824,7 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
                 out.write(',');
             }
 
-            JsonClassWriter writer = getWriteOptions().getCustomWriter(Long.class);
+            JsonClassWriter writer = guard(getWriteOptions().getCustomWriter(Long.class));
             writer.write(obj, showType, out, this);
 
             if (showType) {
@@ -707,23 +937,17 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
         else
         {
             final Class<?> componentClass = array.getClass().getComponentType();
-            for (int i = 0; i < len; i++)
+            if (!writeElementsInParallel(array, componentClass, len))
             {
-                final Object value = Array.get(array, i);
-
-                if (value == null) {
-                    output.write("null");
-                } else {
-                    final boolean forceType = isForceType(value.getClass(), componentClass);
-                    if (!writeArrayElementIfMatching(componentClass, value, forceType, output)) {
-                        writeImpl(value, forceType);
-                    }
-                }
+                for (int i = 0; i < len; i++)
+                {
+                    writeArrayElement(Array.get(array, i), componentClass);
 
-                if (i != lenMinus1)
-                {   // Make sure no bogus comma at the end of the array
-                    output.write(',');
-                    newLine();
+                    if (i != lenMinus1)
+                    {   // Make sure no bogus comma at the end of the array
+                        output.write(',');
+                        newLine();
+                    }
                 }
             }
         }
@@ -737,6 +961,209 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
         }
     }
 
+    private void writeArrayElement(Object value, Class<?> componentClass) throws IOException
+    {
+        if (value == null) {
+            out.write("null");
+        } else {
+            final boolean forceType = isForceType(value.getClass(), componentClass);
+            if (!writeArrayElementIfMatching(componentClass, value, forceType, out)) {
+                writeImpl(value, forceType);
+            }
+        }
+    }
+
+    /**
+     * Write the elements of a large List (RandomAccess) or Object[] in parallel, if enabled by
+     * WriteOptions.getParallelWriteThreshold().  The elements are split into contiguous ranges, and each range is
+     * written by its own JsonWriter into a separate byte buffer on the ForkJoin common pool.  The buffers are then
+     * spliced into the output in order.  The @id values were assigned by traceReferences(), so chunks only have to
+     * agree on which one defines an instance that several of them reach: whichever gets there first does, and the
+     * others write an @ref to it.  When no instance is shared between chunks, the JSON is the same as when written
+     * sequentially.  When one is, the chunk that carries its @id can vary between runs, and an @ref may come
+     * before its @id in the output (a forward reference, which JsonReader resolves).  Custom writers that are not
+     * thread-safe are called one at a time (see guard()).
+     * @param elements Object[] or RandomAccess List whose elements are to be written.
+     * @param componentClass Class of the array component type, or null when writing a List.
+     * @param len int number of elements.
+     * @return true if the elements were written, false if they should be written sequentially.
+     * @throws IOException if an error occurs writing to the output stream.
+     */
+    private boolean writeElementsInParallel(Object elements, Class<?> componentClass, int len) throws IOException
+    {
+        final int threshold = writeOptions.getParallelWriteThreshold();
+        if (threshold < 1 || len < threshold || chunkVisited != null || getClass() != JsonWriter.class)
+        {   // Disabled, too small, already inside a chunk (whose siblings keep the pool busy), or a subclass, whose
+            // overrides the plain JsonWriters that write the chunks would not call
+            return false;
+        }
+        final int chunks = Math.min(ForkJoinPool.getCommonPoolParallelism() * 4, len / MIN_PARALLEL_CHUNK);
+        if (chunks < 2)
+        {
+            return false;
+        }
+
+        if (guardedWriters == null)
+        {
+            guardedWriters = new ConcurrentHashMap<>();
+        }
+        final Set<ParallelReferenceTracer.IdentityKey> visited = ConcurrentHashMap.newKeySet();
+        final List<ChunkTask> tasks = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++)
+        {
+            ChunkTask task = new ChunkTask(elements, componentClass, (int) ((long) len * i / chunks), (int) ((long) len * (i + 1) / chunks), visited);
+            ForkJoinPool.commonPool().execute(task);
+            tasks.add(task);
+        }
+
+        out.flush();    // Everything written so far must reach the OutputStream ahead of the chunks
+        try
+        {
+            for (int i = 0; i < chunks; i++)
+            {
+                sink.writeEncoded(tasks.get(i).join());
+                tasks.set(i, null);     // Let the chunk's buffer be collected
+            }
+        }
+        finally
+        {
+            for (ChunkTask task : tasks)
+            {
+                if (task != null)
+                {
+                    task.cancel(false);
+                }
+            }
+        }
+
+        for (ParallelReferenceTracer.IdentityKey key : visited)
+        {   // Later writes must @ref the instances the chunks defined
+            objVisited.put(key.obj, null);
+        }
+        return true;
+    }
+
+    /**
+     * @param writer JsonClassWriter about to be called.
+     * @return the writer to call.  Within a chunk of a parallel write, a writer that is not thread-safe is wrapped
+     * so that its calls (from all chunks) are made one at a time.  The wrapper is built once per writer.
+     */
+    private JsonClassWriter guard(JsonClassWriter writer)
+    {
+        if (chunkVisited == null || writer == null || builtInWriters.get(writer.getClass()) || writer.isThreadSafe())
+        {
+            return writer;
+        }
+        JsonClassWriter guarded = guardedWriters.get(writer);
+        if (guarded == null)
+        {
+            guarded = new SerializedWriter(writer, writerLock);
+            JsonClassWriter prior = guardedWriters.putIfAbsent(writer, guarded);
+            if (prior != null)
+            {
+                guarded = prior;
+            }
+        }
+        return guarded;
+    }
+
+    /**
+     * Calls a custom writer that is not thread-safe while holding a lock shared by the chunks of a parallel write.
+     */
+    private static final class SerializedWriter implements JsonClassWriter
+    {
+        private final JsonClassWriter writer;
+        private final Object lock;
+
+        private SerializedWriter(JsonClassWriter writer, Object lock)
+        {
+            this.writer = writer;
+            this.lock = lock;
+        }
+
+        public void write(Object o, boolean showType, Writer output, WriterContext context) throws IOException
+        {
+            synchronized (lock)
+            {
+                writer.write(o, showType, output, context);
+            }
+        }
+
+        public boolean hasPrimitiveForm(WriterContext context)
+        {
+            synchronized (lock)
+            {
+                return writer.hasPrimitiveForm(context);
+            }
+        }
+
+        public void writePrimitiveForm(Object o, Writer output, WriterContext context) throws IOException
+        {
+            synchronized (lock)
+            {
+                writer.writePrimitiveForm(o, output, context);
+            }
+        }
+    }
+
+    /**
+     * Writes the elements [from, to) of a parallel write into its own buffer.  Each element after the first
+     * element of the whole List or array is preceded by its separator, so the buffers can be concatenated.
+     */
+    private final class ChunkTask extends RecursiveTask<ByteArrayOutputStream>
+    {
+        private static final long serialVersionUID = 1L;
+        private final Object elements;
+        private final Class<?> componentClass;
+        private final int from;
+        private final int to;
+        private final Set<ParallelReferenceTracer.IdentityKey> visited;
+
+        private ChunkTask(Object elements, Class<?> componentClass, int from, int to, Set<ParallelReferenceTracer.IdentityKey> visited)
+        {
+            this.elements = elements;
+            this.componentClass = componentClass;
+            this.from = from;
+            this.to = to;
+            this.visited = visited;
+        }
+
+        protected ByteArrayOutputStream compute()
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+            JsonWriter writer = new JsonWriter(JsonWriter.this, bytes, visited);
+            try
+            {
+                for (int i = from; i < to; i++)
+                {
+                    if (i > 0)
+                    {
+                        writer.out.write(',');
+                        writer.newLine();
+                    }
+                    if (componentClass == null)
+                    {
+                        writer.writeCollectionElement(((List<?>) elements).get(i));
+                    }
+                    else
+                    {
+                        writer.writeArrayElement(((Object[]) elements)[i], componentClass);
+                    }
+                }
+                writer.out.flush();
+            }
+            catch (JsonIoException e)
+            {
+                throw e;
+            }
+            catch (Exception e)
+            {
+                throw new JsonIoException("Error writing object to JSON:", e);
+            }
+            return bytes;
+        }
+    }
+
     private void writeBooleanArray(boolean[] booleans, int lenMinus1) throws IOException
     {
         final Writer output = this.out;
@@ -750,7 +1177,7 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
     private void writeDoubleArray(double[] doubles, int lenMinus1) throws IOException
     {
         final Writer output = this.out;
-        final JsonClassWriter writer = getWriteOptions().getCustomWriter(Double.class);
+        final JsonClassWriter writer = guard(getWriteOptions().getCustomWriter(Double.class));
         for (int i = 0; i < lenMinus1; i++)
         {
             writer.write(doubles[i], false, output, this);
@@ -762,7 +1189,7 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
     private void writeFloatArray(float[] floats, int lenMinus1) throws IOException
     {
         final Writer output = this.out;
-        final JsonClassWriter writer = getWriteOptions().getCustomWriter(Float.class);
+        final JsonClassWriter writer = guard(getWriteOptions().getCustomWriter(Float.class));
         for (int i = 0; i < lenMinus1; i++)
         {
             writer.write(floats[i], false, output, this);
@@ -776,7 +1203,7 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
     {
         final Writer output = this.out;
 
-        JsonClassWriter writer = getWriteOptions().getCustomWriter(long.class);
+        JsonClassWriter writer = guard(getWriteOptions().getCustomWriter(long.class));
         for (int i = 0; i < lenMinus1; i++) {
             writer.write(longs[i], false, output, this);
             output.write(',');
@@ -856,9 +1283,10 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
         }
 
         beginCollection(showType, referenced);
-        Iterator<?> i = col.iterator();
-
-        writeElements(output, i);
+        if (!(col instanceof List && col instanceof RandomAccess) || !writeElementsInParallel(col, null, col.size()))
+        {
+            writeElements(output, col.iterator());
+        }
 
         tabOut();
         output.write(']');
@@ -1109,7 +1537,7 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
             showType = false;
         }
 
-        if (writeOptions.isForceMapOutputAsTwoArrays() || !ensureJsonPrimitiveKeys(jObj))
+        if (writeOptions.isForceMapOutputAsTwoArrays() || !hasOnlyStringKeys(jObj))
         {
             return false;
         }
@@ -1353,7 +1781,7 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
         {
             showType = false;
         }
-        if (writeOptions.isForceMapOutputAsTwoArrays() || !ensureJsonPrimitiveKeys(map))
+        if (writeOptions.isForceMapOutputAsTwoArrays() || !hasOnlyStringKeys(map))
         {
             return false;
         }
@@ -1405,6 +1833,17 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
         return true;
     }
 
+    /**
+     * @param map Map about to be written.
+     * @return true if all keys of the Map are Strings.  Uses the answer recorded while tracing references (which
+     * already iterated the entries), so only Maps that were not traced are walked again.
+     */
+    private boolean hasOnlyStringKeys(Map map)
+    {
+        Boolean stringKeys = mapKeysAreStrings.get(map);
+        return stringKeys != null ? stringKeys : ensureJsonPrimitiveKeys(map);
+    }
+
     /**
      * Ensure that all keys within the Map are String instances
      * @param map Map to inspect that all keys are primitive.  This allows the output JSON
@@ -1584,11 +2023,20 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
             first = false;
         }
 
-        Collection<Accessor> accessors = writeOptions.getAccessorsForClass(obj.getClass());
+        final WritePlan plan = getWritePlan(obj.getClass());
+
+        if (plan == null) {
+            Collection<Accessor> accessors = writeOptions.getAccessorsForClass(obj.getClass());
 
-        for (final Accessor accessor : accessors) {
-            final String fieldName = accessor.getUniqueFieldName();
-            first = writeField(obj, first, fieldName, accessor);
+            for (final Accessor accessor : accessors) {
+                final String fieldName = accessor.getUniqueFieldName();
+                first = writeField(obj, first, fieldName, accessor);
+            }
+        } else {
+            final boolean skipNullFields = plan.isSkipNullFields();
+            for (final WritePlan.FieldWriter fieldWriter : plan.getFieldWriters()) {
+                first = writeField(obj, first, fieldWriter, skipNullFields);
+            }
         }
 
         if (!bodyOnly)
@@ -1649,7 +2097,138 @@ public class JsonWriter implements WriterContext, Closeable, Flushable
         return false;
     }
 
+    /**
+     * Fetch the compiled WritePlan for the passed in Class.
+     * @param c Class of the object being written.
+     * @return WritePlan for the class, or null if the WriteOptions in use do not support plans, or this is a
+     * subclass of JsonWriter.  A plan takes custom writers straight from its Bindings, which would bypass a
+     * subclass's overrides of writeImpl() or writeUsingCustomWriter().
+     */
+    private WritePlan getWritePlan(Class<?> c) {
+        if (getClass() != JsonWriter.class) {
+            return null;
+        }
+        if (writeOptions instanceof WriteOptionsBuilder.DefaultWriteOptions) {
+            return ((WriteOptionsBuilder.DefaultWriteOptions) writeOptions).getWritePlan(c);
+        }
+        return null;
+    }
+
+    /**
+     * Write a field using its pre-resolved FieldWriter.  When the FieldWriter has a Binding for the runtime class
+     * of the value, the @type decision and custom writer selection are taken from it.
+     */
+    private boolean writeField(Object obj, boolean first, WritePlan.FieldWriter fieldWriter, boolean skipNullFields) throws IOException
+    {
+        final LambdaAccessorFactory.LambdaAccessor unboxed = fieldWriter.getUnboxedAccessor();
+        if (unboxed != null)
+        {
+            final String value = readUnboxed(obj, fieldWriter.getDeclaredType(), unboxed);
+            if (value != null)
+            {
+                if (!first)
+                {
+                    out.write(',');
+                    newLine();
+                }
+                out.write(fieldWriter.getNameToken());
+                out.write(value);
+                return false;
+            }
+            // The getter threw - the general path below handles it the same way the Accessor does.
+        }
+
+        final Object o = fieldWriter.getAccessor().retrieve(obj);
+
+        if (o == null && skipNullFields)
+        {   // If skip null, skip field and return the same status on first field written indicator
+            return first;
+        }
+
+        if (!first)
+        {
+            out.write(',');
+            newLine();
+        }
+
+        out.write(fieldWriter.getNameToken());
+
+        if (o == null)
+        {    // don't quote null
+            out.write("null");
+            return false;
+        }
+
+        final Class<?> c = o.getClass();
+        final WritePlan.Binding binding = fieldWriter.bindingFor(writeOptions, c);
+        if (binding == null)
+        {
+            writeImpl(o, isForceType(c, fieldWriter.getDeclaredType()));
+            return false;
+        }
+
+        final JsonClassWriter boundWriter = binding.getWriter();
+        if (boundWriter == null)
+        {   // The Binding recorded that c has no custom writer, so skip looking for one again
+            writeWithoutCustomWriter(o, binding.isShowType());
+            return false;
+        }
+
+        try
+        {
+            writeCustom(o, boundWriter, binding.isShowType(), out);
+        }
+        catch (Exception e)
+        {
+            throw new JsonIoException("Unable to write custom formatted object:", e);
+        }
+        return false;
+    }
+
+    /**
+     * Read an int, long, or double field without boxing and format it the way the standard primitive writers do.
+     * @return String JSON form of the value, or null if the getter threw.
+     */
+    private String readUnboxed(Object obj, Class<?> type, LambdaAccessorFactory.LambdaAccessor accessor)
+    {
+        try
+        {
+            if (type == int.class)
+            {
+                return Integer.toString(accessor.retrieveInt(obj));
+            }
+            else if (type == long.class)
+            {
+                return Long.toString(accessor.retrieveLong(obj));
+            }
+            final double d = accessor.retrieveDouble(obj);
+            if (!writeOptions.isAllowNanAndInfinity() && (Double.isNaN(d) || Double.isInfinite(d)))
+            {
+                return "null";
+            }
+            return Double.toString(d);
+        }
+        catch (ThreadDeath td)
+        {
+            throw td;
+        }
+        catch (Throwable t)
+        {
+            return null;
+        }
+    }
+
     private boolean isForceType(Class<?> objectClass, Class<?> declaredType) {
+        return isForceType(writeOptions, objectClass, declaredType);
+    }
+
+    /**
+     * @param writeOptions WriteOptions in effect.
+     * @param objectClass Class of the value being written.
+     * @param declaredType Class the value was declared as (field type).
+     * @return boolean true if the @type must be written for a value of 'objectClass' held in a field of 'declaredType'.
+     */
+    static boolean isForceType(WriteOptions writeOptions, Class<?> objectClass, Class<?> declaredType) {
         // When no type is written we can check the Object itself not the declaration
         final boolean writeLongsAsStrings = writeOptions.isWriteLongsAsStrings();
         final boolean objectClassIsLongWrittenAsString = (objectClass == Long.class || objectClass == long.class) && writeLongsAsStrings;
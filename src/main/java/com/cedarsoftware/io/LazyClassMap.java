@@ -0,0 +1,278 @@
+package com.cedarsoftware.io;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.cedarsoftware.util.ClassUtilities;
+
+/**
+ * Class-keyed Map whose entries can be registered by class name, and are only resolved (Class.forName() on the
+ * key, and creation of the value) the first time that class is looked up.  Used for the registries loaded from
+ * the config/*.txt resources (class factories, custom readers and writers, coerced types, non-referenceable
+ * classes), so that only the classes an application actually reads or writes are loaded.
+ * <br><br>
+ * Entries are kept in insertion order, keyed by class name, and the Map is copy-on-write: lookups are lock-free,
+ * while put() and remove() swap in a new copy.  Each entry resolves itself once, under its own lock.  Copying one
+ * LazyClassMap into another (putAll()) shares the unresolved entries, so an entry is resolved at most once, no
+ * matter how many ReadOptions or WriteOptions were built from it.  Iterating (entrySet(), size()) resolves every entry.  Call
+ * seal() to make the Map read-only.
+ *
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License");
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+final class LazyClassMap<V> extends AbstractMap<Class<?>, V> {
+    // computeInheritanceDistance() treats a primitive and its wrapper as the same type, so a lookup for any of
+    // these must resolve all of them before searching for the closest match.
+    private static final Set<String> PRIMITIVES_AND_WRAPPERS = new HashSet<>(Arrays.asList(
+            "boolean", "byte", "char", "short", "int", "long", "float", "double",
+            "java.lang.Boolean", "java.lang.Byte", "java.lang.Character", "java.lang.Short",
+            "java.lang.Integer", "java.lang.Long", "java.lang.Float", "java.lang.Double"));
+    private volatile Map<String, Entry<V>> entries = new LinkedHashMap<>();
+    private volatile boolean sealed;
+
+    private static final class Entry<V> {
+        private final String className;
+        private ClassLoader classLoader;
+        private Function<Class<?>, V> valueFactory;
+        private volatile boolean resolved;
+        private Class<?> type;
+        private V value;
+
+        private Entry(Class<?> type, V value) {
+            this.className = type.getName();
+            this.type = type;
+            this.value = value;
+            resolved = true;
+        }
+
+        private Entry(String className, ClassLoader classLoader, Function<Class<?>, V> valueFactory) {
+            this.className = className;
+            this.classLoader = classLoader;
+            this.valueFactory = valueFactory;
+        }
+
+        private void resolve() {
+            if (resolved) {
+                return;
+            }
+            synchronized (this) {
+                if (!resolved) {
+                    type = ClassUtilities.forName(className, classLoader);
+                    if (type != null) {
+                        value = valueFactory.apply(type);
+                    }
+                    classLoader = null;
+                    valueFactory = null;
+                    resolved = true;
+                }
+            }
+        }
+
+        /**
+         * @return the value if this entry resolves to the passed in Class (not just a Class of the same name from
+         * another ClassLoader), null otherwise.
+         */
+        private V valueFor(Class<?> c) {
+            resolve();
+            return type == c ? value : null;
+        }
+
+        private boolean isPresent() {
+            resolve();
+            return type != null && value != null;
+        }
+    }
+
+    /**
+     * Register an entry by name, to be resolved on first lookup.
+     * @param className String name of the key class, as returned by Class.getName().
+     * @param classLoader ClassLoader used to load the key class.
+     * @param valueFactory Function that creates the value for the loaded key class.  It may return null, in which
+     *                     case the entry is treated as absent.  It is called at most once.
+     */
+    synchronized void putLazy(String className, ClassLoader classLoader, Function<Class<?>, V> valueFactory) {
+        Map<String, Entry<V>> copy = copyForWrite();
+        copy.put(className, new Entry<>(className, classLoader, valueFactory));
+        entries = copy;
+    }
+
+    /**
+     * Make this Map read-only.  Later attempts to modify it throw UnsupportedOperationException.
+     */
+    void seal() {
+        sealed = true;
+    }
+
+    /**
+     * Find the value associated to the passed in Class, or to its closest superclass or interface, with the
+     * same result (including tie-breaking by insertion order) as MetaUtils.findClosest().  Only entries naming
+     * the Class or one of its supertypes are resolved.
+     * @param c Class to find the closest value for.
+     * @param defaultValue value to return if no entry matches.
+     * @return the value of the closest matching entry, or defaultValue.
+     */
+    V findClosest(Class<?> c, V defaultValue) {
+        Map<String, Entry<V>> snapshot = entries;
+        Entry<V> exact = snapshot.get(c.getName());
+        if (exact != null && exact.valueFor(c) != null) {
+            return exact.value;
+        }
+
+        for (String name : supertypeNames(c)) {
+            Entry<V> entry = snapshot.get(name);
+            if (entry != null) {
+                entry.resolve();
+            }
+        }
+
+        V closest = defaultValue;
+        int minDistance = Integer.MAX_VALUE;
+        for (Entry<V> entry : snapshot.values()) {
+            if (!entry.resolved || entry.type == null || entry.value == null) {
+                continue;
+            }
+            int distance = ClassUtilities.computeInheritanceDistance(c, entry.type);
+            if (distance != -1 && distance < minDistance) {
+                minDistance = distance;
+                closest = entry.value;
+            }
+        }
+        return closest;
+    }
+
+    private static Set<String> supertypeNames(Class<?> c) {
+        Set<String> names = new LinkedHashSet<>();
+        if (PRIMITIVES_AND_WRAPPERS.contains(c.getName())) {
+            names.addAll(PRIMITIVES_AND_WRAPPERS);
+        }
+        Set<Class<?>> visited = new HashSet<>();
+        List<Class<?>> pending = new ArrayList<>();
+        pending.add(c);
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.remove(pending.size() - 1);
+            if (!visited.add(type)) {
+                continue;
+            }
+            names.add(type.getName());
+            if (type.getSuperclass() != null) {
+                pending.add(type.getSuperclass());
+            }
+            pending.addAll(Arrays.asList(type.getInterfaces()));
+        }
+        return names;
+    }
+
+    public V get(Object key) {
+        if (!(key instanceof Class)) {
+            return null;
+        }
+        Entry<V> entry = entries.get(((Class<?>) key).getName());
+        return entry == null ? null : entry.valueFor((Class<?>) key);
+    }
+
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @return the prior value for the Class if it was already resolved, otherwise null.  An unresolved entry is
+     * replaced without being resolved (its key class is not loaded and its value not created just to be dropped).
+     */
+    public synchronized V put(Class<?> key, V value) {
+        Map<String, Entry<V>> copy = copyForWrite();
+        Entry<V> prior = copy.put(key.getName(), new Entry<>(key, value));
+        entries = copy;
+        return prior == null || !prior.resolved || prior.type != key ? null : prior.value;
+    }
+
+    public synchronized void putAll(Map<? extends Class<?>, ? extends V> m) {
+        Map<String, Entry<V>> copy = copyForWrite();
+        if (m instanceof LazyClassMap) {
+            // Share the entries (resolved or not) rather than resolving them to copy them.  m only holds values of
+            // (a subtype of) V, and an entry is never changed once resolved, so its entries are safe to use as ours.
+            @SuppressWarnings("unchecked")
+            Map<String, Entry<V>> shared = (Map<String, Entry<V>>) (Map<String, ?>) ((LazyClassMap<?>) m).entries;
+            copy.putAll(shared);
+        } else {
+            for (Map.Entry<? extends Class<?>, ? extends V> entry : m.entrySet()) {
+                copy.put(entry.getKey().getName(), new Entry<>(entry.getKey(), entry.getValue()));
+            }
+        }
+        entries = copy;
+    }
+
+    public synchronized V remove(Object key) {
+        if (!(key instanceof Class)) {
+            return null;
+        }
+        V prior = get(key);
+        if (prior != null) {
+            Map<String, Entry<V>> copy = copyForWrite();
+            copy.remove(((Class<?>) key).getName());
+            entries = copy;
+        }
+        return prior;
+    }
+
+    public synchronized void clear() {
+        copyForWrite();
+        entries = new LinkedHashMap<>();
+    }
+
+    public Set<Map.Entry<Class<?>, V>> entrySet() {
+        final Collection<Entry<V>> snapshot = entries.values();
+        return new AbstractSet<Map.Entry<Class<?>, V>>() {
+            public Iterator<Map.Entry<Class<?>, V>> iterator() {
+                List<Map.Entry<Class<?>, V>> resolved = new ArrayList<>(snapshot.size());
+                for (Entry<V> entry : snapshot) {
+                    if (entry.isPresent()) {
+                        resolved.add(new AbstractMap.SimpleImmutableEntry<>(entry.type, entry.value));
+                    }
+                }
+                return Collections.unmodifiableList(resolved).iterator();
+            }
+
+            public int size() {
+                int size = 0;
+                for (Entry<V> entry : snapshot) {
+                    if (entry.isPresent()) {
+                        size++;
+                    }
+                }
+                return size;
+            }
+        };
+    }
+
+    private Map<String, Entry<V>> copyForWrite() {
+        if (sealed) {
+            throw new UnsupportedOperationException("This registry is read-only");
+        }
+        return new LinkedHashMap<>(entries);
+    }
+}
@@ -0,0 +1,79 @@
+package com.cedarsoftware.io;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Set of Classes backed by a LazyClassMap, so that classes registered by name (addLazy()) are only loaded the
+ * first time contains() is asked about them.  Copying one LazyClassSet into another (addAll()) shares the
+ * unresolved entries.  Iterating (and size()) loads every registered class.  Call seal() to make the Set
+ * read-only.
+ *
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License");
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+final class LazyClassSet extends AbstractSet<Class<?>> {
+    private final LazyClassMap<Boolean> map = new LazyClassMap<>();
+
+    /**
+     * Register a class by name, to be loaded on first lookup.
+     * @param className String name of the class, as returned by Class.getName().
+     * @param classLoader ClassLoader used to load the class.
+     */
+    void addLazy(String className, ClassLoader classLoader) {
+        map.putLazy(className, classLoader, c -> Boolean.TRUE);
+    }
+
+    /**
+     * Make this Set read-only.  Later attempts to modify it throw UnsupportedOperationException.
+     */
+    void seal() {
+        map.seal();
+    }
+
+    public boolean contains(Object o) {
+        return map.containsKey(o);
+    }
+
+    public boolean add(Class<?> c) {
+        return map.put(c, Boolean.TRUE) == null;
+    }
+
+    public boolean addAll(Collection<? extends Class<?>> c) {
+        if (c instanceof LazyClassSet) {
+            map.putAll(((LazyClassSet) c).map);
+            return true;
+        }
+        return super.addAll(c);
+    }
+
+    public boolean remove(Object o) {
+        return map.remove(o) != null;
+    }
+
+    public void clear() {
+        map.clear();
+    }
+
+    public Iterator<Class<?>> iterator() {
+        return map.keySet().iterator();
+    }
+
+    public int size() {
+        return map.size();
+    }
+}
@@ -1,8 +1,13 @@
 package com.cedarsoftware.io;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
@@ -12,6 +17,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.net.JarURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
@@ -26,7 +32,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Enumeration;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -51,11 +59,14 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import com.cedarsoftware.util.ClassUtilities;
+import com.cedarsoftware.util.Convention;
 import com.cedarsoftware.util.convert.Converter;
 
 import static java.lang.reflect.Modifier.isProtected;
@@ -86,7 +97,13 @@ public class MetaUtils {
 
     enum Dumpty {}
 
-    private static final ConcurrentMap<String, CachedConstructor> constructors = new ConcurrentHashMap<>();
+    // How each class is instantiated, settled on the first time newInstance() succeeds for it
+    private static final ClassValue<Instantiators> instantiators = new ClassValue<Instantiators>() {
+        protected Instantiators computeValue(Class<?> type) {
+            return new Instantiators();
+        }
+    };
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
     static final ThreadLocal<SimpleDateFormat> dateFormat = ThreadLocal.withInitial(() -> new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ"));
     private static boolean useUnsafe = false;
     private static Unsafe unsafe;
@@ -379,16 +396,172 @@ public class MetaUtils {
         return s.toString();
     }
 
-    private static class CachedConstructor {
-        private final Constructor<?> constructor;
-        private final boolean useNullSetting;
+    /**
+     * The instantiation strategies settled on for one class: the one used without argument values (the common
+     * case, looked up without building a key), and those used for each combination of argument types.
+     */
+    private static final class Instantiators {
+        private volatile CachedConstructor noArguments;
+        private final ConcurrentMap<String, CachedConstructor> byArguments = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * How newInstance() creates instances of a class: the constructor, and whether parameters not matched to
+     * argument values receive null or non-null defaults.  A no-arg constructor is bound once to a Supplier (a
+     * LambdaMetafactory generated call when the constructor is public, otherwise a MethodHandle), so creating an
+     * instance is a single direct call.  A null constructor means instances are allocated with Unsafe.  A
+     * provisional strategy was picked without calling the constructor (warm-up, or a MetadataSnapshot); if it
+     * fails, newInstance() searches the constructors as if nothing had been cached.
+     */
+    static class CachedConstructor {
+        final Constructor<?> constructor;
+        final boolean useNullSetting;
+        final boolean provisional;
+        private final Parameter[] parameters;
+        private final Supplier<Object> noArgFactory;
 
         CachedConstructor(Constructor<?> constructor, boolean useNullSetting) {
+            this(constructor, useNullSetting, false);
+        }
+
+        CachedConstructor(Constructor<?> constructor, boolean useNullSetting, boolean provisional) {
             this.constructor = constructor;
             this.useNullSetting = useNullSetting;
+            this.provisional = provisional;
+            this.parameters = constructor == null ? null : constructor.getParameters();
+            this.noArgFactory = constructor != null && parameters.length == 0 ? bindNoArgConstructor(constructor) : null;
+        }
+
+        Object newInstance(Converter converter, Class<?> c, Collection<?> argumentValues) throws Exception {
+            if (noArgFactory != null) {
+                return noArgFactory.get();
+            }
+            if (constructor == null) {
+                if (!useUnsafe) {
+                    throw new JsonIoException("Unsafe instantiation is turned off");
+                }
+                return unsafe.allocateInstance(c);
+            }
+            List<Object> arguments = matchArgumentsToParameters(converter, new ArrayList<>(argumentValues), parameters, useNullSetting);
+            return constructor.newInstance(arguments.toArray());
         }
     }
 
+    private static Supplier<Object> bindNoArgConstructor(Constructor<?> constructor) {
+        final Class<?> c = constructor.getDeclaringClass();
+        try {
+            // The generated class is linked from json-io's ClassLoader, so it can only call public constructors
+            // of public classes visible from there.
+            if (isPublic(constructor.getModifiers()) && isPublicNesting(c)) {
+                if (Class.forName(c.getName(), false, MetaUtils.class.getClassLoader()) == c) {
+                    MethodHandle target = LOOKUP.unreflectConstructor(constructor);
+                    return (Supplier<Object>) LambdaMetafactory.metafactory(LOOKUP,
+                            "get",
+                            MethodType.methodType(Supplier.class),
+                            MethodType.methodType(Object.class),
+                            target,
+                            MethodType.methodType(c)).getTarget().invoke();
+                }
+            }
+        } catch (Throwable ignored) {
+            // Not visible from json-io's ClassLoader; use a MethodHandle below
+        }
+
+        try {
+            trySetAccessible(constructor);
+            final MethodHandle handle = LOOKUP.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+            return () -> {
+                try {
+                    return handle.invokeExact();
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new JsonIoException("Unable to instantiate: " + c.getName(), e);
+                }
+            };
+        } catch (Exception e) {
+            return () -> {
+                try {
+                    return constructor.newInstance();
+                } catch (Exception ex) {
+                    throw new JsonIoException("Unable to instantiate: " + c.getName(), ex);
+                }
+            };
+        }
+    }
+
+    private static boolean isPublicNesting(Class<?> c) {
+        for (Class<?> outer = c; outer != null; outer = outer.getDeclaringClass()) {
+            if (!isPublic(outer.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param c Class to look up.
+     * @return the constructor (and argument strategy) newInstance() settled on, or will try first, for
+     * instantiating c without argument values, or null if none has been resolved yet, or c is allocated with Unsafe.
+     */
+    static CachedConstructor getCachedConstructor(Class<?> c) {
+        CachedConstructor cached = instantiators.get(c).noArguments;
+        return cached == null || cached.constructor == null ? null : cached;
+    }
+
+    /**
+     * Seed the constructor newInstance() will try first for c when called without argument values, skipping the
+     * search over c's constructors.  Used when loading a MetadataSnapshot.  Nothing is invoked here; if the
+     * constructor fails when first used, newInstance() searches c's constructors as usual.
+     * @param c Class the constructor belongs to.
+     * @param constructor Constructor to use.  It is made accessible if needed.
+     * @param useNullSetting true to pass null for parameters of common types, false to pass non-null defaults.
+     */
+    static void cacheConstructor(Class<?> c, Constructor<?> constructor, boolean useNullSetting) {
+        throwIfSecurityConcern(c);
+        trySetAccessible(constructor);
+        instantiators.get(c).noArguments = new CachedConstructor(constructor, useNullSetting, true);
+    }
+
+    /**
+     * Resolve, without invoking it, the constructor newInstance() would try first for c when called without
+     * argument values, and cache it (see cacheConstructor()).  Neither the constructor nor c's static
+     * initializer is run.  Classes json-io refuses to instantiate, and classes that already have a strategy,
+     * are left alone.
+     * @param converter Converter used to build default values for the constructor's parameters.
+     * @param c Concrete class to resolve.
+     */
+    static void resolveConstructor(Converter converter, Class<?> c) {
+        Instantiators classInstantiators = instantiators.get(c);
+        if (classInstantiators.noArguments != null || isSecurityConcern(c)) {
+            return;
+        }
+        Set<ConstructorWithValues> constructorOrder = orderConstructors(converter, c, new ArrayList<>());
+        if (constructorOrder.isEmpty()) {
+            return;
+        }
+        Constructor<?> constructor = constructorOrder.iterator().next().constructor;
+        trySetAccessible(constructor);
+        cache(classInstantiators, null, new CachedConstructor(constructor, true, true));
+    }
+
+    /**
+     * @return c's declared constructors in the order newInstance() tries them (see ConstructorWithValues), each
+     * with the passed in argument values matched to its parameters.
+     */
+    private static Set<ConstructorWithValues> orderConstructors(Converter converter, Class<?> c, List<Object> argValues) {
+        Set<ConstructorWithValues> constructorOrder = new TreeSet<>();
+        // Spin through all constructors, adding the constructor and the best match of arguments for it, as an
+        // Object to a Set.  The Set is ordered by ConstructorWithValues.compareTo().
+        for (Constructor<?> constructor : c.getDeclaredConstructors()) {
+            Parameter[] parameters = constructor.getParameters();
+            List<Object> argumentsNull = matchArgumentsToParameters(converter, argValues, parameters, true);
+            List<Object> argumentsNonNull = matchArgumentsToParameters(converter, argValues, parameters, false);
+            constructorOrder.add(new ConstructorWithValues(constructor, argumentsNull.toArray(), argumentsNonNull.toArray()));
+        }
+        return constructorOrder;
+    }
+
     /**
      * Create a new instance of the passed in class c.  You can optionally pass in argument values that will
      * be best-matched to a constructor on c.  You can pass in null or an empty list, in which case, other
@@ -412,40 +585,31 @@ public class MetaUtils {
      * make sure to return 'true' for isObjectFinal().
      */
     public static Object newInstance(Converter converter, Class<?> c, Collection<?> argumentValues) {
-        throwIfSecurityConcern(ProcessBuilder.class, c);
-        throwIfSecurityConcern(Process.class, c);
-        throwIfSecurityConcern(ClassLoader.class, c);
-        throwIfSecurityConcern(Constructor.class, c);
-        throwIfSecurityConcern(Method.class, c);
-        throwIfSecurityConcern(Field.class, c);
-        // JDK11+ remove the line below
-        if (c.getName().equals("java.lang.ProcessImpl")) {
-            throw new IllegalArgumentException("For security reasons, json-io does not allow instantiation of: java.lang.ProcessImpl");
-        }
-
         if (argumentValues == null) {
-            argumentValues = new ArrayList<>();
+            argumentValues = Collections.emptyList();
         }
 
-        final String cacheKey = createCacheKey(c, argumentValues);
-        CachedConstructor cachedConstructor = constructors.get(cacheKey);
+        // Strategies are only cached for classes that passed the security checks, so a hit skips them.
+        final Instantiators classInstantiators = instantiators.get(c);
+        final boolean noArguments = argumentValues.isEmpty();
+        final String cacheKey = noArguments ? null : createCacheKey(c, argumentValues);
+        CachedConstructor cachedConstructor = noArguments ? classInstantiators.noArguments : classInstantiators.byArguments.get(cacheKey);
+        if (cachedConstructor != null && cachedConstructor.provisional) {
+            // Picked without a trial call: use it while it works, otherwise search as if nothing was cached
+            try {
+                return cachedConstructor.newInstance(converter, c, argumentValues);
+            } catch (Exception ignored) {
+                cachedConstructor = null;
+            }
+        }
         if (cachedConstructor == null) {
+            throwIfSecurityConcern(c);
             if (c.isInterface()) {
                 throw new JsonIoException("Cannot instantiate unknown interface: " + c.getName());
             }
 
-            final Constructor<?>[] declaredConstructors = c.getDeclaredConstructors();
-            Set<ConstructorWithValues> constructorOrder = new TreeSet<>();
             List<Object> argValues = new ArrayList<>(argumentValues);   // Copy to allow destruction
-
-            // Spin through all constructors, adding the constructor and the best match of arguments for it, as an
-            // Object to a Set.  The Set is ordered by ConstructorWithValues.compareTo().
-            for (Constructor<?> constructor : declaredConstructors) {
-                Parameter[] parameters = constructor.getParameters();
-                List<Object> argumentsNull = matchArgumentsToParameters(converter, argValues, parameters, true);
-                List<Object> argumentsNonNull = matchArgumentsToParameters(converter, argValues, parameters, false);
-                constructorOrder.add(new ConstructorWithValues(constructor, argumentsNull.toArray(), argumentsNonNull.toArray()));
-            }
+            Set<ConstructorWithValues> constructorOrder = orderConstructors(converter, c, argValues);
 
             for (ConstructorWithValues constructorWithValues : constructorOrder) {
                 Constructor<?> constructor = constructorWithValues.constructor;
@@ -453,7 +617,7 @@ public class MetaUtils {
                     MetaUtils.trySetAccessible(constructor);
                     Object o = constructor.newInstance(constructorWithValues.argsNull);
                     // cache constructor search effort (null used for parameters of common types not matched to arguments)
-                    constructors.put(cacheKey, new CachedConstructor(constructor, true));
+                    cache(classInstantiators, cacheKey, new CachedConstructor(constructor, true));
                     return o;
                 } catch (Exception ignore) {
                     try {
@@ -461,7 +625,7 @@ public class MetaUtils {
                             // The no-arg constructor should only be tried one time.
                             Object o = constructor.newInstance(constructorWithValues.argsNonNull);
                             // cache constructor search effort (non-null used for parameters of common types not matched to arguments)
-                            constructors.put(cacheKey, new CachedConstructor(constructor, false));
+                            cache(classInstantiators, cacheKey, new CachedConstructor(constructor, false));
                             return o;
                         }
                     } catch (Exception ignored) {
@@ -471,17 +635,13 @@ public class MetaUtils {
 
             Object o = tryUnsafeInstantiation(c);
             if (o != null) {
+                // No constructor works, so go straight to Unsafe next time
+                cache(classInstantiators, cacheKey, new CachedConstructor(null, false));
                 return o;
             }
         } else {
-            List<Object> argValues = new ArrayList<>(argumentValues);   // Copy to allow destruction
-            Parameter[] parameters = cachedConstructor.constructor.getParameters();
-            List<Object> arguments = matchArgumentsToParameters(converter, argValues, parameters, cachedConstructor.useNullSetting);
-
             try {
-                // Be nice to person debugging
-                Object o = cachedConstructor.constructor.newInstance(arguments.toArray());
-                return o;
+                return cachedConstructor.newInstance(converter, c, argumentValues);
             } catch (Exception ignored) {
             }
 
@@ -494,6 +654,34 @@ public class MetaUtils {
         throw new JsonIoException("Unable to instantiate: " + c.getName());
     }
 
+    private static void cache(Instantiators classInstantiators, String cacheKey, CachedConstructor cachedConstructor) {
+        if (cacheKey == null) {
+            classInstantiators.noArguments = cachedConstructor;
+        } else {
+            classInstantiators.byArguments.put(cacheKey, cachedConstructor);
+        }
+    }
+
+    private static boolean isSecurityConcern(Class<?> c) {
+        return ProcessBuilder.class.isAssignableFrom(c) || Process.class.isAssignableFrom(c)
+                || ClassLoader.class.isAssignableFrom(c) || Constructor.class.isAssignableFrom(c)
+                || Method.class.isAssignableFrom(c) || Field.class.isAssignableFrom(c)
+                || c.getName().equals("java.lang.ProcessImpl");
+    }
+
+    private static void throwIfSecurityConcern(Class<?> c) {
+        throwIfSecurityConcern(ProcessBuilder.class, c);
+        throwIfSecurityConcern(Process.class, c);
+        throwIfSecurityConcern(ClassLoader.class, c);
+        throwIfSecurityConcern(Constructor.class, c);
+        throwIfSecurityConcern(Method.class, c);
+        throwIfSecurityConcern(Field.class, c);
+        // JDK11+ remove the line below
+        if (c.getName().equals("java.lang.ProcessImpl")) {
+            throw new IllegalArgumentException("For security reasons, json-io does not allow instantiation of: java.lang.ProcessImpl");
+        }
+    }
+
     // Try instantiation via unsafe (if turned on).  It is off by default.  Use
     // MetaUtils.setUseUnsafe(true) to enable it. This may result in heap-dumps
     // for e.g. ConcurrentHashMap or can cause problems when the class is not initialized,
@@ -561,6 +749,74 @@ public class MetaUtils {
         }
     }
 
+    /**
+     * Find the classes in the passed in package and its sub-packages, from both directories and jar files on the
+     * ClassLoader's classpath.  Classes are loaded without being initialized.  Classes that cannot be loaded
+     * (missing dependencies, etc.) are skipped, as are package-info and module-info.
+     * @param packageName String package name, e.g. "com.acme.dto"
+     * @param classLoader ClassLoader used to locate and load the classes.
+     * @return List of classes found, ordered by class name.
+     * @throws JsonIoException if the classpath resources for the package cannot be read.
+     */
+    public static List<Class<?>> findClassesInPackage(String packageName, ClassLoader classLoader) {
+        Convention.throwIfNull(packageName, "packageName cannot be null");
+        Convention.throwIfNull(classLoader, "classLoader cannot be null");
+        final String path = packageName.replace('.', '/');
+        final Set<String> classNames = new TreeSet<>();
+
+        try {
+            Enumeration<URL> resources = classLoader.getResources(path);
+            while (resources.hasMoreElements()) {
+                URL url = resources.nextElement();
+                if ("file".equals(url.getProtocol())) {
+                    collectClassNames(new File(url.toURI()), packageName, classNames);
+                } else if ("jar".equals(url.getProtocol())) {
+                    JarURLConnection connection = (JarURLConnection) url.openConnection();
+                    connection.setUseCaches(false);
+                    try (JarFile jar = connection.getJarFile()) {
+                        final String prefix = path + '/';
+                        Enumeration<JarEntry> entries = jar.entries();
+                        while (entries.hasMoreElements()) {
+                            String name = entries.nextElement().getName();
+                            if (name.startsWith(prefix) && name.endsWith(".class")) {
+                                classNames.add(name.substring(0, name.length() - 6).replace('/', '.'));
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            throw new JsonIoException("Unable to scan package: " + packageName, e);
+        }
+
+        List<Class<?>> classes = new ArrayList<>(classNames.size());
+        for (String className : classNames) {
+            if (className.endsWith("package-info") || className.endsWith("module-info")) {
+                continue;
+            }
+            try {
+                classes.add(Class.forName(className, false, classLoader));
+            } catch (Throwable ignore) {
+            }
+        }
+        return classes;
+    }
+
+    private static void collectClassNames(File dir, String packageName, Set<String> classNames) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isDirectory()) {
+                collectClassNames(file, packageName + '.' + name, classNames);
+            } else if (name.endsWith(".class")) {
+                classNames.add(packageName + '.' + name.substring(0, name.length() - 6));
+            }
+        }
+    }
+
     public static void trySetAccessible(AccessibleObject object) {
         safelyIgnoreException(() -> object.setAccessible(true));
     }
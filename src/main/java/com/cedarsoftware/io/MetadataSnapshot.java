@@ -0,0 +1,229 @@
+package com.cedarsoftware.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Constructor;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.cedarsoftware.util.ClassUtilities;
+import com.cedarsoftware.util.Convention;
+
+/**
+ * Compact, persistable cache of the constructor strategies json-io resolves at runtime, so that a service can
+ * derive them once (at build time, or on first run) and load them on later starts.  For each class, the snapshot
+ * records the class name and the constructor (and argument strategy) json-io uses to instantiate it without
+ * argument values, which otherwise is found by searching all declared constructors on first read.
+ * <br><br>
+ * That is all a snapshot holds.  Fields, Accessors, Injectors and MethodHandles are not serializable, and the
+ * config/*.txt settings and built-in reader/writer tables are still loaded as usual, so none of these are
+ * affected.  ReadOptionsBuilder.loadSnapshot() seeds the recorded constructors (without calling them) when the
+ * ReadOptions are built; if a recorded constructor fails on first use, json-io falls back to its usual search.
+ * Writing never instantiates classes, so there is nothing to load on the write side.
+ * <br><br>
+ * The format is plain UTF-8 text, one class per line, in the same "key = value" style as the config/*.txt files:
+ * <pre>
+ * com.acme.Order = null:java.lang.String,int
+ * com.acme.Line = nonNull:
+ * com.acme.Status =
+ * </pre>
+ * "null" or "nonNull" is the argument strategy, followed by the constructor parameter types.  An empty value
+ * means no constructor was recorded (e.g. the class has a custom reader or ClassFactory).  Classes or
+ * constructors that no longer exist when the snapshot is loaded are skipped, and json-io falls back to
+ * resolving them at runtime.
+ *
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License");
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+public final class MetadataSnapshot {
+    private static final String HEADER = "# json-io metadata snapshot";
+    private static final String USE_NULLS = "null";
+    private static final String USE_NON_NULLS = "nonNull";
+    // class name -> constructor strategy ("" when none was recorded)
+    private final Map<String, String> entries;
+
+    private MetadataSnapshot(Map<String, String> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Warm up the passed in ReadOptions for the passed in classes (see ReadOptions.warmUp()), and record the
+     * constructor strategy of each.
+     * @param readOptions ReadOptions used to resolve the classes.  Classes with a custom reader or ClassFactory
+     *                    in these options are recorded without a constructor.
+     * @param classes Classes to record.  Null and primitive entries are skipped.
+     * @return MetadataSnapshot of the passed in classes.
+     */
+    public static MetadataSnapshot capture(ReadOptions readOptions, Class<?>... classes) {
+        Convention.throwIfNull(readOptions, "readOptions cannot be null");
+        readOptions.warmUp(classes);
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (Class<?> c : classes) {
+            if (c == null || c.isPrimitive()) {
+                continue;
+            }
+            entries.put(c.getName(), describe(MetaUtils.getCachedConstructor(c)));
+        }
+        return new MetadataSnapshot(entries);
+    }
+
+    /**
+     * Record every class found in the passed in packages and their sub-packages (see capture()), located with
+     * the ReadOptions' ClassLoader.  Anonymous and synthetic classes are skipped.  Intended to be run as a build
+     * step, so that later starts load the snapshot rather than scanning the classpath.
+     * @param readOptions ReadOptions used to locate and resolve the classes.
+     * @param packageNames String package names, e.g. "com.acme.dto"
+     * @return MetadataSnapshot of the classes in the packages.
+     */
+    public static MetadataSnapshot capturePackages(ReadOptions readOptions, String... packageNames) {
+        Convention.throwIfNull(readOptions, "readOptions cannot be null");
+        List<Class<?>> classes = new ArrayList<>();
+        for (String packageName : packageNames) {
+            for (Class<?> c : MetaUtils.findClassesInPackage(packageName, readOptions.getClassLoader())) {
+                if (!c.isAnonymousClass() && !c.isSynthetic()) {
+                    classes.add(c);
+                }
+            }
+        }
+        return capture(readOptions, classes.toArray(new Class<?>[0]));
+    }
+
+    /**
+     * Write this snapshot to the passed in OutputStream as UTF-8 text.  The stream is flushed, not closed.
+     * @param out OutputStream to write to.
+     */
+    public void save(OutputStream out) {
+        Convention.throwIfNull(out, "OutputStream cannot be null");
+        try {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writer.write(HEADER);
+            writer.write('\n');
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                writer.write(entry.getKey());
+                writer.write(" = ");
+                writer.write(entry.getValue());
+                writer.write('\n');
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new JsonIoException("Unable to write metadata snapshot", e);
+        }
+    }
+
+    /**
+     * Read a snapshot written by save().  The stream is read to the end, not closed.  Class names are not
+     * resolved until the snapshot is loaded into an options builder.
+     * @param in InputStream to read from.
+     * @return MetadataSnapshot read from the stream.
+     * @throws JsonIoException if the stream cannot be read or a line is malformed.
+     */
+    public static MetadataSnapshot load(InputStream in) {
+        Convention.throwIfNull(in, "InputStream cannot be null");
+        Map<String, String> entries = new LinkedHashMap<>();
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int equals = line.indexOf('=');
+                if (equals < 1) {
+                    throw new JsonIoException("Malformed metadata snapshot line: " + line);
+                }
+                String value = line.substring(equals + 1).trim();
+                if (!value.isEmpty() && !value.startsWith(USE_NULLS + ":") && !value.startsWith(USE_NON_NULLS + ":")) {
+                    throw new JsonIoException("Malformed metadata snapshot line: " + line);
+                }
+                entries.put(line.substring(0, equals).trim(), value);
+            }
+        } catch (IOException e) {
+            throw new JsonIoException("Unable to read metadata snapshot", e);
+        }
+        return new MetadataSnapshot(entries);
+    }
+
+    /**
+     * @return Set of the class names recorded in this snapshot, in the order they were recorded.
+     */
+    public Set<String> getClassNames() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * Resolve (without initializing) the recorded classes with the passed in ClassLoader, and seed their recorded
+     * constructors.  Classes that cannot be resolved are skipped.
+     * @param classLoader ClassLoader used to resolve class names.
+     */
+    void apply(ClassLoader classLoader) {
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            String strategy = entry.getValue();
+            if (strategy.isEmpty()) {
+                continue;
+            }
+            Class<?> c = ClassUtilities.forName(entry.getKey(), classLoader);
+            if (c == null || MetaUtils.getCachedConstructor(c) != null) {
+                continue;
+            }
+            Constructor<?> constructor = findConstructor(c, strategy.substring(strategy.indexOf(':') + 1), classLoader);
+            if (constructor != null) {
+                MetaUtils.cacheConstructor(c, constructor, strategy.startsWith(USE_NULLS + ":"));
+            }
+        }
+    }
+
+    private static Constructor<?> findConstructor(Class<?> c, String paramTypeNames, ClassLoader classLoader) {
+        String[] names = paramTypeNames.isEmpty() ? new String[0] : paramTypeNames.split(",");
+        Class<?>[] paramTypes = new Class<?>[names.length];
+        for (int i = 0; i < names.length; i++) {
+            paramTypes[i] = ClassUtilities.forName(names[i].trim(), classLoader);
+            if (paramTypes[i] == null) {
+                return null;
+            }
+        }
+        try {
+            return c.getDeclaredConstructor(paramTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static String describe(MetaUtils.CachedConstructor cached) {
+        if (cached == null) {
+            return "";
+        }
+        StringBuilder s = new StringBuilder(cached.useNullSetting ? USE_NULLS : USE_NON_NULLS).append(':');
+        Class<?>[] paramTypes = cached.constructor.getParameterTypes();
+        for (int i = 0; i < paramTypes.length; i++) {
+            if (i > 0) {
+                s.append(',');
+            }
+            s.append(paramTypes[i].getName());
+        }
+        return s.toString();
+    }
+}
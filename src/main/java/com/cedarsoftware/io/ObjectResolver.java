@@ -3,11 +3,7 @@ package com.cedarsoftware.io;
 import java.lang.reflect.Array;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.lang.reflect.TypeVariable;
-import java.util.ArrayDeque;
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.Deque;
 import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
@@ -61,6 +57,8 @@ import com.cedarsoftware.util.convert.Converter;
 @SuppressWarnings({ "rawtypes", "unchecked", "Convert2Diamond" })
 public class ObjectResolver extends Resolver
 {
+    // Returned for a Collection element that is not to be added
+    private static final Object SKIP = new Object();
     private final ClassLoader classLoader;
     /**
      * Constructor
@@ -85,12 +83,23 @@ public class ObjectResolver extends Resolver
         final Class<?> cls = javaMate.getClass();
         ReadOptions readOptions = getReadOptions();
         final Map<String, Injector> injectorMap = readOptions.getDeepInjectorMap(cls);
+        final GenericTypePlan typePlan = jsonObj.typePlan;
 
         while (i.hasNext()) {
             Map.Entry<Object, Object> e = i.next();
             String key = (String) e.getKey();
             final Injector injector = injectorMap.get(key);
             Object rhs = e.getValue();
+            if (typePlan != null && rhs instanceof JsonObject) {
+                // Field of a generic object (declared as T or as a generic type) - bind to the type argument
+                GenericTypePlan fieldPlan = typePlan.getField(key);
+                if (fieldPlan != null) {
+                    if (((JsonObject) rhs).get("@enum") != null && injector != null) {
+                        fieldPlan = typePlan(injector.getGenericType());
+                    }
+                    fieldPlan.bind(rhs);
+                }
+            }
             if (injector != null) {
                 assignField(jsonObj, injector, rhs);
             } else if (readOptions.getMissingFieldHandler() != null) {
@@ -120,16 +129,19 @@ public class ObjectResolver extends Resolver
         }
 
         // If there is a "tree" of objects (e.g, Map<String, List<Person>>), the sub-objects may not have a
-        // @type on them, if the source of the JSON is from JSON.stringify().  Deep traverse the args and
-        // mark @type on the items within the Maps and Collections, based on the parameterized type (if it
-        // exists).
+        // @type on them, if the source of the JSON is from JSON.stringify().  Bind the JsonObject to the plan
+        // for the parameterized type (if it exists), which marks the type on the items within the Maps and
+        // Collections as they are traversed.
         if (rhs instanceof JsonObject) {
+            final JsonObject jObj = (JsonObject) rhs;
+            if (reusingInstances) {     // Read into the instance the field already holds
+                reuseInstance(jObj, injector.retrieve(target));
+            }
             if (injector.getGenericType() instanceof ParameterizedType) {   // Only JsonObject instances could contain unmarked objects.
-                markUntypedObjects(injector.getGenericType(), rhs, fieldType);
+                typePlan(injector.getGenericType()).bind(rhs);
             }
 
             // Ensure 'type' field set on JsonObject
-            final JsonObject jObj = (JsonObject) rhs;
             if (jObj.getJavaType() == null) {
                 jObj.setJavaType(fieldType);
             }
@@ -143,6 +155,9 @@ public class ObjectResolver extends Resolver
             JsonObject jsonArray = new JsonObject();
             jsonArray.setJsonArray(elements);
             jsonArray.setHintType(fieldType);
+            if (reusingInstances) {     // Refill the Collection the field already holds
+                reuseInstance(jsonArray, injector.retrieve(target));
+            }
             createInstance(jsonArray);
             injector.inject(target, jsonArray.getTarget());
             push(jsonArray);
@@ -156,7 +171,7 @@ public class ObjectResolver extends Resolver
                 if (refObject.getTarget() != null) {
                     injector.inject(target, refObject.getTarget());
                 } else {
-                    unresolvedRefs.add(new UnresolvedReference(jsonObj, injector.getName(), ref));
+                    unresolvedRefs.add(new UnresolvedReference(jsonObj, injector, ref));
                 }
             } else {    // Assign ObjectMap's to Object (or derived) fields
                 Object fieldObject = jsRhs.getTarget();
@@ -283,59 +298,82 @@ public class ObjectResolver extends Resolver
 
         final Collection col = (Collection) jsonObj.getTarget();
         final boolean isList = col instanceof List;
-        int idx = 0;
+        final GenericTypePlan elementPlan = jsonObj.typePlan == null ? GenericTypePlan.NONE : jsonObj.typePlan.getElements();
+        final Class enumClass = mayEnumClass;
 
         if (items != null) {
-            for (final Object element : items) {
-                Object special;
-                if (element == null) {
-                    col.add(null);
-                } else if ((special = readWithFactoryIfExists(element, null)) != null) {
-                    col.add(special);
-                } else if (element instanceof String || element instanceof Boolean || element instanceof Double || element instanceof Long) {    // Allow Strings, Booleans, Longs, and Doubles to be "inline" without Java object decoration (@id, @type, etc.)
-                    col.add(mayEnumClass == null ? element : Enum.valueOf(mayEnumClass, (String) element));
-                } else if (element.getClass().isArray()) {
-                    final JsonObject jObj = new JsonObject();
-                    jObj.setHintType(Object.class);
-                    jObj.setJsonArray((Object[]) element);
-                    createInstance(jObj);
-                    col.add(jObj.getTarget());
-                    push(jObj);
-                } else { // if (element instanceof JsonObject)
-                    final JsonObject jObj = (JsonObject) element;
-                    final Long ref = jObj.getReferenceId();
-
-                    if (ref != null) {
-                        JsonObject refObject = getReferences().get(ref);
-
-                        if (refObject.getTarget() != null) {
-                            col.add(refObject.getTarget());
-                        } else {
-                            unresolvedRefs.add(new UnresolvedReference(jsonObj, idx, ref));
-                            if (isList) {   // Index-able collection, so set 'null' as element for now - will be patched in later.
-                                col.add(null);
-                            }
-                        }
-                    } else {
-                        jObj.setHintType(Object.class);
-                        createInstance(jObj);
-                        boolean isNonRefClass = getReadOptions().isNonReferenceableClass(jObj.getJavaType());
-                        if (!isNonRefClass) {
-                            traverseSpecificType(jObj);
-                        }
-
-                        if (!(col instanceof EnumSet)) {   // EnumSet has already had it's items added to it.
-                            col.add(jObj.getTarget());
-                        }
+            if (isResolvingInParallel(items.length) && !(col instanceof EnumSet)) {
+                // Elements are read in parallel, then added in their JSON order.
+                final Object[] values = new Object[items.length];
+                resolveInParallel(items.length, (resolver, i) ->
+                        values[i] = ((ObjectResolver) resolver).readCollectionElement(jsonObj, col, items[i], enumClass, elementPlan, isList, i));
+                for (Object value : values) {
+                    if (value != SKIP) {
+                        col.add(value);
+                    }
+                }
+            } else {
+                for (int idx = 0; idx < items.length; idx++) {
+                    Object value = readCollectionElement(jsonObj, col, items[idx], enumClass, elementPlan, isList, idx);
+                    if (value != SKIP) {
+                        col.add(value);
                     }
                 }
-                idx++;
             }
         }
 
         jsonObj.clear();   // Reduce memory required during processing
     }
 
+    /**
+     * Read one element of a Collection.
+     * @return the value to add to the Collection, or SKIP if nothing is added (an EnumSet element, which the
+     * EnumSet already holds, or an unresolved reference within a non-index-able Collection).
+     */
+    private Object readCollectionElement(JsonObject jsonObj, Collection col, Object element, Class mayEnumClass,
+                                         GenericTypePlan elementPlan, boolean isList, int idx)
+    {
+        element = elementPlan.bind(element);
+        Object special;
+        if (element == null) {
+            return null;
+        } else if ((special = readWithFactoryIfExists(element, null)) != null) {
+            return special;
+        } else if (element instanceof String || element instanceof Boolean || element instanceof Double || element instanceof Long) {    // Allow Strings, Booleans, Longs, and Doubles to be "inline" without Java object decoration (@id, @type, etc.)
+            return mayEnumClass == null ? element : Enum.valueOf(mayEnumClass, (String) element);
+        } else if (element.getClass().isArray()) {
+            final JsonObject jObj = new JsonObject();
+            jObj.setHintType(Object.class);
+            jObj.setJsonArray((Object[]) element);
+            createInstance(jObj);
+            push(jObj);
+            return jObj.getTarget();
+        }
+
+        // element instanceof JsonObject
+        final JsonObject jObj = (JsonObject) element;
+        final Long ref = jObj.getReferenceId();
+
+        if (ref != null) {
+            JsonObject refObject = getReferences().get(ref);
+
+            if (refObject.getTarget() != null) {
+                return refObject.getTarget();
+            }
+            unresolvedRefs.add(new UnresolvedReference(jsonObj, idx, ref));
+            return isList ? null : SKIP;   // Index-able collection, so set 'null' as element for now - will be patched in later.
+        }
+
+        jObj.setHintType(Object.class);
+        createInstance(jObj);
+        boolean isNonRefClass = getReadOptions().isNonReferenceableClass(jObj.getJavaType());
+        if (!isNonRefClass) {
+            traverseSpecificType(jObj);
+            releaseFields(jObj);
+        }
+        return col instanceof EnumSet ? SKIP : jObj.getTarget();   // EnumSet has already had it's items added to it.
+    }
+
     /**
      * Traverse the JsonObject associated to an array (of any type).  Convert and
      * assign the list of items in the JsonObject (stored in the @items field)
@@ -351,79 +389,117 @@ public class ObjectResolver extends Resolver
             return;
         }
 
-        final Object array = jsonObj.getTarget();
+        // Primitive arrays assigned to fields are filled by the ArrayFactory (ClassFactory), but one with an @id
+        // inside a Collection or Object[] is traversed here.  Every other array is an Object[] (of some subtype),
+        // so its elements are stored directly, not via Array.set().
+        if (!(jsonObj.getTarget() instanceof Object[])) {
+            traversePrimitiveArray(jsonObj, len);
+            return;
+        }
+        final Object[] array = (Object[]) jsonObj.getTarget();
         final Class compType = array.getClass().getComponentType();
         final Object[] jsonItems =  jsonObj.getJsonArray();
-        // Primitive arrays never make it here, as the ArrayFactory (ClassFactory) processes them in assignField.
+
+        if (isResolvingInParallel(len)) {
+            resolveInParallel(len, (resolver, i) -> ((ObjectResolver) resolver).readArrayElement(jsonObj, array, compType, jsonItems, i));
+        } else {
+            for (int i = 0; i < len; i++) {
+                readArrayElement(jsonObj, array, compType, jsonItems, i);
+            }
+        }
+        jsonObj.clear();
+    }
+
+    /**
+     * Convert the JSON @items of a primitive array to its component type, and set them into the array.
+     */
+    private void traversePrimitiveArray(final JsonObject jsonObj, final int len)
+    {
+        final Object array = jsonObj.getTarget();
+        final Class compType = array.getClass().getComponentType();
+        final Object[] jsonItems = jsonObj.getJsonArray();
 
         for (int i = 0; i < len; i++) {
-            final Object element = jsonItems[i];
+            Object element = jsonItems[i];
             Object special;
+            if (element != null && (special = readWithFactoryIfExists(element, compType)) != null) {
+                element = special;
+            }
+            Array.set(array, i, element);
+        }
+        jsonObj.clear();
+    }
 
-            if (element == null) {
-                Array.set(array, i, null);
-            } else if ((special = readWithFactoryIfExists(element, compType)) != null) {
-                if (compType.isEnum() && special instanceof String) {
-                    special = Enum.valueOf(compType, (String) special);
-                }
-                Array.set(array, i, special);
-            } else if (element.getClass().isArray()) {   // Array of arrays
-                if (char[].class == compType) {   // Specially handle char[] because we are writing these
-                    // out as UTF-8 strings for compactness and speed.
-                    Object[] jsonArray = (Object[]) element;
-                    if (jsonArray.length == 0) {
-                        Array.set(array, i, new char[]{});
-                    } else {
-                        final String value = (String) jsonArray[0];
-                        final int numChars = value.length();
-                        final char[] chars = new char[numChars];
-                        for (int j = 0; j < numChars; j++) {
-                            chars[j] = value.charAt(j);
-                        }
-                        Array.set(array, i, chars);
-                    }
+    /**
+     * Read element i of an array (JSON @items) into the array.
+     */
+    private void readArrayElement(JsonObject jsonObj, Object[] array, Class compType, Object[] jsonItems, int i)
+    {
+        final Object element = jsonItems[i];
+        Object special;
+
+        if (element == null) {
+            array[i] = null;
+        } else if ((special = readWithFactoryIfExists(element, compType)) != null) {
+            if (compType.isEnum() && special instanceof String) {
+                special = Enum.valueOf(compType, (String) special);
+            }
+            array[i] = special;
+        } else if (element.getClass().isArray()) {   // Array of arrays
+            if (char[].class == compType) {   // Specially handle char[] because we are writing these
+                // out as UTF-8 strings for compactness and speed.
+                Object[] jsonArray = (Object[]) element;
+                if (jsonArray.length == 0) {
+                    array[i] = new char[]{};
                 } else {
-                    // Prep a JsonObject for array[i]
-                    JsonObject jsonArray = new JsonObject();
-                    jsonArray.setJsonArray((Object[]) element);
-                    jsonArray.setHintType(compType);
+                    final String value = (String) jsonArray[0];
+                    final int numChars = value.length();
+                    final char[] chars = new char[numChars];
+                    for (int j = 0; j < numChars; j++) {
+                        chars[j] = value.charAt(j);
+                    }
+                    array[i] = chars;
+                }
+            } else {
+                // Prep a JsonObject for array[i]
+                JsonObject jsonArray = new JsonObject();
+                jsonArray.setJsonArray((Object[]) element);
+                jsonArray.setHintType(compType);
 
-                    // create and set it into enclosing array
-                    Array.set(array, i, createInstance(jsonArray)); // Enclosing [i] assigned to []
+                // create and set it into enclosing array
+                array[i] = createInstance(jsonArray); // Enclosing [i] assigned to []
 
-                    // traverse items within this array - if non-primitive
-                    push(jsonArray);
+                // traverse items within this array - if non-primitive
+                push(jsonArray);
+            }
+        } else if (element instanceof JsonObject) {
+            JsonObject jsonElement = (JsonObject) element;
+            Long ref = jsonElement.getReferenceId();
+
+            if (ref != null) {    // Connect reference
+                JsonObject refObject = getReferences().get(ref);
+                if (refObject.getTarget() != null) {   // Array element with reference to existing object
+                    array[i] = refObject.getTarget();
+                } else {    // Array with a forward reference as an element
+                    unresolvedRefs.add(new UnresolvedReference(jsonObj, i, ref));
                 }
-            } else if (element instanceof JsonObject) {
-                JsonObject jsonElement = (JsonObject) element;
-                Long ref = jsonElement.getReferenceId();
-
-                if (ref != null) {    // Connect reference
-                    JsonObject refObject = getReferences().get(ref);
-                    if (refObject.getTarget() != null) {   // Array element with reference to existing object
-                        Array.set(array, i, refObject.getTarget());
-                    } else {    // Array with a forward reference as an element
-                        unresolvedRefs.add(new UnresolvedReference(jsonObj, i, ref));
-                    }
-                } else {    // Convert JSON HashMap to Java Object instance and assign values
-                    jsonElement.setHintType(compType);
-                    Object arrayElement = createInstance(jsonElement);
-                    Array.set(array, i, arrayElement);
-                    boolean isNonRefClass = getReadOptions().isNonReferenceableClass(arrayElement.getClass());
-                    if (!isNonRefClass && !jsonElement.isFinished) {
-                        // Skip walking primitives and completed objects.
-                        push(jsonElement);
-                    }
+            } else {    // Convert JSON HashMap to Java Object instance and assign values
+                jsonElement.setHintType(compType);
+                Object arrayElement = createInstance(jsonElement);
+                array[i] = arrayElement;
+                boolean isNonRefClass = getReadOptions().isNonReferenceableClass(arrayElement.getClass());
+                if (!isNonRefClass && !jsonElement.isFinished) {
+                    // Skip walking primitives and completed objects.
+                    push(jsonElement);
                 }
+            }
+        } else {
+            if (element instanceof String && ((String) element).trim().isEmpty() && compType != String.class && compType != Object.class) {   // Allow an entry of "" in the array to set the array element to null, *if* the array type is NOT String[] and NOT Object[]
+                array[i] = null;
             } else {
-                if (element instanceof String && ((String) element).trim().isEmpty() && compType != String.class && compType != Object.class) {   // Allow an entry of "" in the array to set the array element to null, *if* the array type is NOT String[] and NOT Object[]
-                    Array.set(array, i, null);
-                } else {
-                    Array.set(array, i, element);
-                }
+                array[i] = element;
             }
         }
-        jsonObj.clear();
     }
 
     /**
@@ -511,7 +587,14 @@ public class ObjectResolver extends Resolver
             return null;
         }
 
-        Object read = closestReader.read(o, this);
+        Object read;
+        if (parallel && !isThreadSafe(closestReader)) {
+            synchronized (handlerLock) {
+                read = closestReader.read(o, this);
+            }
+        } else {
+            read = closestReader.read(o, this);
+        }
         if (read == null) {
             return null;
         }
@@ -520,135 +603,16 @@ public class ObjectResolver extends Resolver
         return jsonObj.setFinishedTarget(read, true);
     }
 
-    private void markUntypedObjects(final Type type, final Object rhs, final Class<?> fieldType)
+    Resolver createFork()
     {
-        final Deque<Object[]> stack2 = new ArrayDeque<>();
-        stack2.addFirst(new Object[]{type, rhs});
-
-        Map<String, Injector> classFields = getReadOptions().getDeepInjectorMap(fieldType);
-        while (!stack2.isEmpty()) {
-            Object[] item = stack2.removeFirst();
-            final Type t = (Type) item[0];
-            final Object instance = item[1];
-            if (t instanceof ParameterizedType) {
-                Class<?> clazz = getRawType(t);
-                ParameterizedType pType = (ParameterizedType) t;
-                Type[] typeArgs = pType.getActualTypeArguments();
-
-                if (typeArgs == null || typeArgs.length < 1 || clazz == null) {
-                    continue;
-                }
-
-                stampTypeOnJsonObject(instance, t);
-
-                if (Map.class.isAssignableFrom(clazz)) {
-                    JsonObject jsonObj = (JsonObject) instance; // Maps are brought in as JsonObjects
-                    Map.Entry<Object[], Object[]> pair = jsonObj.asTwoArrays();
-                    Object[] keys = pair.getKey();
-                    Object[] items = pair.getValue();
-                    getTemplateTraverseWorkItem(stack2, keys, typeArgs[0]);
-                    getTemplateTraverseWorkItem(stack2, items, typeArgs[1]);
-                } else if (Collection.class.isAssignableFrom(clazz)) {
-                    if (instance instanceof Object[]) {
-                        Object[] array = (Object[]) instance;
-                        for (int i = 0; i < array.length; i++) {
-                            Object vals = array[i];
-                            stack2.addFirst(new Object[]{t, vals});
-
-                            if (vals instanceof JsonObject) {
-                                stack2.addFirst(new Object[]{t, vals});
-                            } else if (vals instanceof Object[]) {
-                                JsonObject coll = new JsonObject();
-                                coll.setJavaType(clazz);
-                                coll.setJsonArray((Object[]) vals);
-                                List items = Arrays.asList((Object[]) vals);
-                                stack2.addFirst(new Object[]{t, items});
-                                array[i] = coll;
-                            } else {
-                                stack2.addFirst(new Object[]{t, vals});
-                            }
-                        }
-                    } else if (instance instanceof Collection) {
-                        final Collection col = (Collection) instance;
-                        for (Object o : col) {
-                            stack2.addFirst(new Object[]{typeArgs[0], o});
-                        }
-                    } else if (instance instanceof JsonObject) {
-                        final JsonObject jObj = (JsonObject) instance;
-                        final Object[] array = jObj.getJsonArray();
-                        if (array != null) {
-                            for (Object o : array) {
-                                stack2.addFirst(new Object[]{typeArgs[0], o});
-                            }
-                        }
-                    }
-                } else {
-                    if (instance instanceof JsonObject) {
-                        final JsonObject jObj = (JsonObject) instance;
-
-                        for (Map.Entry<Object, Object> entry : jObj.entrySet()) {
-                            final String fieldName = (String) entry.getKey();
-                            if (!fieldName.startsWith("this$")) {
-                                // TODO: If more than one type, need to associate correct typeArgs entry to value
-                                Injector injector = classFields.get(fieldName);
-
-                                if (injector != null && (injector.getType().getTypeParameters().length > 0 || injector.getGenericType() instanceof TypeVariable)) {
-                                    Object pt = typeArgs[0];
-                                    if (entry.getValue() instanceof JsonObject && ((JsonObject) entry.getValue()).get("@enum") != null) {
-                                        pt = injector.getGenericType();
-                                    }
-                                    stack2.addFirst(new Object[]{pt, entry.getValue()});
-                                }
-                            }
-                        }
-                    }
-                }
-            } else {
-                stampTypeOnJsonObject(instance, t);
-            }
-        }
+        return adopt(new ObjectResolver(getReadOptions(), getReferences(), getConverter()));
     }
 
-    private static void getTemplateTraverseWorkItem(final Deque<Object[]> stack2, final Object[] items, final Type type) {
-        if (items == null || items.length < 1) {
-            return;
-        }
-        Class<?> rawType = getRawType(type);
-        if (rawType != null && Collection.class.isAssignableFrom(rawType)) {
-            stack2.add(new Object[]{type, items});
-        } else {
-            for (Object o : items) {
-                stack2.add(new Object[]{type, o});
-            }
-        }
-    }
-
-    // Mark 'type' on JsonObject when the type is missing and it is a 'leaf'
-    // node (no further subtypes in it's parameterized type definition)
-    private static void stampTypeOnJsonObject(final Object o, final Type t) {
-        Class<?> clazz = t instanceof Class ? (Class<?>) t : getRawType(t);
-
-        if (o instanceof JsonObject && clazz != null) {
-            JsonObject jObj = (JsonObject) o;
-            if (jObj.getJavaType() == null && jObj.getTarget() == null) {
-                jObj.setJavaType(clazz);
-            }
-        }
-    }
-
-    /**
-     * Given the passed in Type t, return the raw type of it, if the passed in value is a ParameterizedType.
-     * @param t Type to attempt to get raw type from.
-     * @return Raw type obtained from the passed in parameterized type or null if T is not a ParameterizedType
-     */
-    private static Class<?> getRawType(final Type t) {
-        if (t instanceof ParameterizedType) {
-            ParameterizedType pType = (ParameterizedType) t;
-
-            if (pType.getRawType() instanceof Class) {
-                return (Class) pType.getRawType();
-            }
+    private GenericTypePlan typePlan(Type type) {
+        ReadOptions readOptions = getReadOptions();
+        if (readOptions instanceof ReadOptionsBuilder.DefaultReadOptions) {
+            return ((ReadOptionsBuilder.DefaultReadOptions) readOptions).getTypePlan(type);
         }
-        return null;
+        return GenericTypePlan.build(type, readOptions);
     }
 }
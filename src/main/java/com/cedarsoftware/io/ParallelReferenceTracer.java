@@ -0,0 +1,191 @@
+package com.cedarsoftware.io;
+
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.cedarsoftware.io.reflect.Accessor;
+
+/**
+ * Parallel version of the reference trace performed by JsonWriter before it writes an object graph.  The trace
+ * visits every instance reachable from the root and determines which instances are reached more than once (and
+ * therefore need an @id).  The graph is walked with ForkJoin work-stealing: each task drains its own stack and
+ * hands off half of it to a new task whenever the stack grows large and the pool is hungry for work.  Visited
+ * instances are tracked in a concurrent, identity-based set.
+ * <br><br>
+ * The set of objects returned is the same set that the sequential trace in JsonWriter places in its
+ * objsReferenced Map.  Only the order in which the objects are discovered differs.
+ *
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License");
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+class ParallelReferenceTracer {
+    // When a task's local stack grows beyond this size, part of it is offered to other workers.
+    private static final int SPLIT_THRESHOLD = 256;
+    private final WriteOptions writeOptions;
+    private final Set<IdentityKey> visited;
+    private final Set<IdentityKey> referenced = ConcurrentHashMap.newKeySet();
+    private final Map<IdentityKey, Boolean> mapKeysAreStrings = new ConcurrentHashMap<>();
+
+    ParallelReferenceTracer(WriteOptions writeOptions) {
+        this.writeOptions = writeOptions;
+        this.visited = ConcurrentHashMap.newKeySet(1024);
+    }
+
+    /**
+     * Trace the passed in object graph.
+     * @param root Object root of the graph to trace.
+     * @return List of all instances that are reachable more than once from the root.
+     */
+    List<Object> trace(Object root) {
+        if (root == null) {
+            return new ArrayList<>();
+        }
+        Deque<Object> seed = new ArrayDeque<>();
+        seed.addFirst(root);
+        ForkJoinPool.commonPool().invoke(new TraceTask(seed));
+
+        List<Object> result = new ArrayList<>(referenced.size());
+        for (IdentityKey key : referenced) {
+            result.add(key.obj);
+        }
+        return result;
+    }
+
+    /**
+     * Copy, for each Map traced, whether all of its keys are Strings into the passed in Map.
+     * @param target identity-based Map of traced Map to Boolean.
+     */
+    void collectMapKeyKinds(Map<Object, Boolean> target) {
+        for (Map.Entry<IdentityKey, Boolean> entry : mapKeysAreStrings.entrySet()) {
+            target.put(entry.getKey().obj, entry.getValue());
+        }
+    }
+
+    private final class TraceTask extends RecursiveAction {
+        private final Deque<Object> stack;
+
+        TraceTask(Deque<Object> stack) {
+            this.stack = stack;
+        }
+
+        protected void compute() {
+            final List<TraceTask> forked = new ArrayList<>();
+
+            while (!stack.isEmpty()) {
+                visit(stack.removeFirst());
+
+                if (stack.size() > SPLIT_THRESHOLD && getSurplusQueuedTaskCount() < 2) {
+                    Deque<Object> half = new ArrayDeque<>();
+                    int count = stack.size() / 2;
+                    for (int i = 0; i < count; i++) {
+                        half.addFirst(stack.removeLast());
+                    }
+                    TraceTask task = new TraceTask(half);
+                    task.fork();
+                    forked.add(task);
+                }
+            }
+
+            for (TraceTask task : forked) {
+                task.join();
+            }
+        }
+
+        private void visit(final Object obj) {
+            final Class<?> clazz = obj.getClass();
+
+            if (!writeOptions.isNonReferenceableClass(clazz)) {
+                IdentityKey key = new IdentityKey(obj);
+                if (!visited.add(key)) {
+                    // 2nd (or later) time this object has been seen, so it will need an @id.
+                    referenced.add(key);
+                    return;
+                }
+            }
+
+            if (clazz.isArray()) {
+                if (!writeOptions.isNonReferenceableClass(clazz.getComponentType())) {
+                    final int len = Array.getLength(obj);
+                    for (int i = 0; i < len; i++) {
+                        final Object o = Array.get(obj, i);
+                        if (o != null) {
+                            stack.addFirst(o);
+                        }
+                    }
+                }
+            } else if (Map.class.isAssignableFrom(clazz)) {
+                try {
+                    boolean stringKeys = true;
+                    for (final Object item : ((Map<?, ?>) obj).entrySet()) {
+                        final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) item;
+                        if (!(entry.getKey() instanceof String)) {
+                            stringKeys = false;
+                        }
+                        push(entry.getValue());
+                        push(entry.getKey());
+                    }
+                    mapKeysAreStrings.put(new IdentityKey(obj), stringKeys);
+                } catch (UnsupportedOperationException e) {
+                    // Some kind of Map that does not support .entrySet() - matches the sequential trace.
+                }
+            } else if (Collection.class.isAssignableFrom(clazz)) {
+                for (final Object item : (Collection<?>) obj) {
+                    push(item);
+                }
+            } else if (!writeOptions.isNonReferenceableClass(clazz)) {
+                for (final Accessor accessor : writeOptions.getAccessorsForClass(clazz)) {
+                    MetaUtils.safelyIgnoreException(() -> push(accessor.retrieve(obj)));
+                }
+            }
+        }
+
+        private void push(Object o) {
+            if (o != null && !writeOptions.isNonReferenceableClass(o.getClass())) {
+                stack.addFirst(o);
+            }
+        }
+    }
+
+    /**
+     * Wrapper that gives an object identity (==) semantics inside a concurrent hash-based collection.
+     */
+    static final class IdentityKey {
+        final Object obj;
+        private final int hash;
+
+        IdentityKey(Object obj) {
+            this.obj = obj;
+            this.hash = System.identityHashCode(obj);
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+
+        public boolean equals(Object other) {
+            return other instanceof IdentityKey && ((IdentityKey) other).obj == obj;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.cedarsoftware.io;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.cedarsoftware.util.ClassUtilities;
+import com.cedarsoftware.util.Convention;
+
+/**
+ * Generates GraalVM native-image reachability metadata (reflect-config.json) for json-io.  json-io instantiates
+ * classes, reads and writes their fields, and resolves @type names through reflection, so every class it may
+ * touch must be registered for reflection in a native image.  This class derives that list from:
+ * <ul>
+ *     <li>the application classes passed in, their superclasses, and (transitively) the declared types of their
+ *     fields, including array component types and generic type arguments, e.g. the Foo in List&lt;Foo&gt;</li>
+ *     <li>the classes registered in the ReadOptions and WriteOptions, which include the config/*.txt defaults:
+ *     ClassFactory, custom reader, and custom writer classes (and the handler classes themselves, which are
+ *     instantiated reflectively), coerced types and their targets, and aliased types</li>
+ * </ul>
+ * Classes in java.*, javax.*, jdk.* and sun.* packages are registered, but their fields are not followed.  Each
+ * type is registered with all declared constructors, fields and methods, and for Unsafe allocation.  Handler
+ * classes are registered with their constructors only.  The config/*.txt resources themselves are registered by
+ * the resource-config.json shipped in the json-io jar (META-INF/native-image).
+ * <br><br>
+ * No entries are needed for json-io's LambdaMetafactory use (no-arg constructors, and the optional
+ * LambdaAccessorFactory / LambdaInjectorFactory).  A native image cannot define lambda classes at runtime, so
+ * those bindings fail and json-io falls back to MethodHandles, which the reflection entries above cover.
+ * <br><br>
+ * Run it as a build step, for example:
+ * <pre>
+ * java -cp app.jar:json-io.jar com.cedarsoftware.io.ReachabilityMetadata reflect-config.json com.acme.dto com.acme.Order
+ * </pre>
+ * where each argument after the output file is a package name (scanned with its sub-packages) or a class name.
+ *
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License");
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+public final class ReachabilityMetadata {
+    private static final String[] PLATFORM_PACKAGES = {"java.", "javax.", "jdk.", "sun.", "com.sun."};
+    private final Set<Class<?>> types = new TreeSet<>(Comparator.comparing(Class::getName));
+    private final Set<Class<?>> handlers = new TreeSet<>(Comparator.comparing(Class::getName));
+
+    private ReachabilityMetadata() {
+    }
+
+    /**
+     * Collect the classes json-io needs reflective access to for the passed in application classes and options.
+     * @param readOptions ReadOptions whose registered classes are included.  If null, the default ReadOptions
+     *                    are used.
+     * @param writeOptions WriteOptions whose registered classes are included.  If null, the default WriteOptions
+     *                     are used.
+     * @param classes application classes that will be read or written.
+     * @return ReachabilityMetadata that can be written with writeReflectConfig().
+     */
+    public static ReachabilityMetadata collect(ReadOptions readOptions, WriteOptions writeOptions, Class<?>... classes) {
+        if (readOptions == null) {
+            readOptions = ReadOptionsBuilder.getDefaultReadOptions();
+        }
+        if (writeOptions == null) {
+            writeOptions = WriteOptionsBuilder.getDefaultWriteOptions();
+        }
+        ReachabilityMetadata metadata = new ReachabilityMetadata();
+        metadata.addRegisteredClasses(readOptions, writeOptions);
+        metadata.addApplicationClasses(readOptions, classes);
+        return metadata;
+    }
+
+    /**
+     * @return the classes registered for full reflective access, sorted by name.
+     */
+    public List<Class<?>> getTypes() {
+        return new ArrayList<>(types);
+    }
+
+    /**
+     * @return the ClassFactory, JsonClassReader and JsonClassWriter classes registered for reflective
+     * instantiation, sorted by name.
+     */
+    public List<Class<?>> getHandlers() {
+        return new ArrayList<>(handlers);
+    }
+
+    /**
+     * Write the collected classes as a GraalVM reflect-config.json document.  The stream is not closed.
+     * @param out OutputStream to write to.
+     */
+    public void writeReflectConfig(OutputStream out) {
+        Convention.throwIfNull(out, "OutputStream cannot be null");
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (Class<?> c : types) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", c.getName());
+            entry.put("allDeclaredConstructors", true);
+            entry.put("allDeclaredFields", true);
+            entry.put("allDeclaredMethods", true);
+            if (!c.isArray() && !c.isInterface() && !Modifier.isAbstract(c.getModifiers())) {
+                entry.put("unsafeAllocated", true);
+            }
+            entries.add(entry);
+        }
+        for (Class<?> c : handlers) {
+            if (types.contains(c)) {
+                continue;
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", c.getName());
+            entry.put("allDeclaredConstructors", true);
+            entries.add(entry);
+        }
+
+        WriteOptions writeOptions = new WriteOptionsBuilder().prettyPrint(true).showTypeInfoNever().closeStream(false).build();
+        JsonIo.toJson(out, entries, writeOptions);
+    }
+
+    private void addRegisteredClasses(ReadOptions readOptions, WriteOptions writeOptions) {
+        for (Map.Entry<Class<?>, JsonReader.ClassFactory> entry : readOptions.getClassFactories().entrySet()) {
+            addType(entry.getKey());
+            addHandler(entry.getValue().getClass());
+        }
+        for (Map.Entry<Class<?>, JsonReader.JsonClassReader> entry : readOptions.getCustomReaders().entrySet()) {
+            addType(entry.getKey());
+            addHandler(entry.getValue().getClass());
+        }
+        for (Map.Entry<Class<?>, Class<?>> entry : readOptions.getCoercedTypes().entrySet()) {
+            addType(entry.getKey());
+            addType(entry.getValue());
+        }
+        for (Map.Entry<Class<?>, JsonWriter.JsonClassWriter> entry : writeOptions.getCustomWriters().entrySet()) {
+            addType(entry.getKey());
+            addHandler(entry.getValue().getClass());
+        }
+        for (String className : readOptions.getAliasTypeNames().values()) {
+            addType(ClassUtilities.forName(className, readOptions.getClassLoader()));
+        }
+        for (String className : writeOptions.aliases().keySet()) {
+            addType(ClassUtilities.forName(className, writeOptions.getClassLoader()));
+        }
+    }
+
+    private void addApplicationClasses(ReadOptions readOptions, Class<?>... classes) {
+        Deque<Type> pending = new ArrayDeque<>();
+        for (Class<?> c : classes) {
+            if (c != null) {
+                pending.add(c);
+            }
+        }
+        Set<Class<?>> visited = new TreeSet<>(Comparator.comparing(Class::getName));
+
+        while (!pending.isEmpty()) {
+            Type type = pending.removeFirst();
+            if (type instanceof ParameterizedType) {
+                ParameterizedType parameterizedType = (ParameterizedType) type;
+                pending.add(parameterizedType.getRawType());
+                for (Type argument : parameterizedType.getActualTypeArguments()) {
+                    pending.add(argument);
+                }
+            } else if (type instanceof GenericArrayType) {
+                pending.add(((GenericArrayType) type).getGenericComponentType());
+            } else if (type instanceof WildcardType) {
+                for (Type bound : ((WildcardType) type).getUpperBounds()) {
+                    pending.add(bound);
+                }
+            } else if (type instanceof Class) {
+                Class<?> c = (Class<?>) type;
+                if (c.isArray()) {
+                    addType(c);
+                    pending.add(c.getComponentType());
+                    continue;
+                }
+                if (!visited.add(c)) {
+                    continue;
+                }
+                addType(c);
+                if (c.isPrimitive() || isPlatformClass(c)) {
+                    continue;
+                }
+                for (Class<?> superClass = c.getSuperclass(); superClass != null; superClass = superClass.getSuperclass()) {
+                    addType(superClass);
+                }
+                for (Field field : readOptions.getDeepDeclaredFields(c).values()) {
+                    pending.add(field.getGenericType());
+                }
+            }
+        }
+    }
+
+    private void addType(Class<?> c) {
+        if (c != null && !c.isPrimitive() && !c.isAnonymousClass() && !c.isSynthetic() && c != Object.class) {
+            types.add(c);
+        }
+    }
+
+    private void addHandler(Class<?> c) {
+        if (!c.isAnonymousClass() && !c.isSynthetic()) {
+            handlers.add(c);
+        }
+    }
+
+    private static boolean isPlatformClass(Class<?> c) {
+        String name = c.getName();
+        for (String prefix : PLATFORM_PACKAGES) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Write reflect-config.json for the classes named on the command line.
+     * @param args output file, followed by package names (scanned with their sub-packages) and/or class names.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: ReachabilityMetadata <reflect-config.json> [package or class name]...");
+            return;
+        }
+
+        ClassLoader classLoader = ReachabilityMetadata.class.getClassLoader();
+        List<Class<?>> classes = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            Class<?> c = ClassUtilities.forName(args[i], classLoader);
+            if (c != null) {
+                classes.add(c);
+            } else {
+                for (Class<?> found : MetaUtils.findClassesInPackage(args[i], classLoader)) {
+                    if (!found.isAnonymousClass() && !found.isSynthetic()) {
+                        classes.add(found);
+                    }
+                }
+            }
+        }
+
+        ReachabilityMetadata metadata = collect(null, null, classes.toArray(new Class<?>[0]));
+        try (OutputStream out = new FileOutputStream(args[0])) {
+            metadata.writeReflectConfig(out);
+        }
+        System.out.println("Wrote " + (metadata.types.size() + metadata.handlers.size()) + " entries to " + args[0]);
+    }
+}
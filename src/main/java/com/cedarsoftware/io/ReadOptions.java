@@ -123,6 +123,25 @@ public interface ReadOptions {
      */
     int getLruSize();
 
+    /**
+     * @return boolean 'true' if the Class to Field and Class to injectors caches are held in a ClassValue-backed
+     * cache (lock-free reads, entries released on class unloading, no size bound) instead of an LRU cache bounded
+     * by lruSize.  The default is 'false.'
+     */
+    boolean isClassValueCache();
+
+    /**
+     * @return boolean 'true' if reading JSON into an existing instance also refills (in place) the objects,
+     * Collections, and Maps that its fields already hold.  The default is 'false.'
+     */
+    boolean isReuseExistingObjects();
+
+    /**
+     * @return boolean 'true' if the elements of large arrays, Collections, and Map values are resolved on several
+     * threads, when the JSON has no @id / @ref.  The default is 'false.'
+     */
+    boolean isParallelResolution();
+
     /**
      * Alias Type Names, e.g. "ArrayList" instead of "java.util.ArrayList".
      * @param typeName String name of type to fetch alias for.  There are no default aliases.
@@ -142,6 +161,16 @@ public interface ReadOptions {
      */
     Class<?> getCoercedClass(Class<?> c);
 
+    /**
+     * @return read-only Map of each coerced Class to the Class it is coerced to.
+     */
+    Map<Class<?>, Class<?>> getCoercedTypes();
+
+    /**
+     * @return read-only Map of each alias to the fully qualified class name it stands for.
+     */
+    Map<String, String> getAliasTypeNames();
+
     /**
      * @return JsonReader.MissingFieldHandler to be called when a field in the JSON is read in, yet there is no
      * corresponding field on the destination object to receive the field value.
@@ -181,6 +210,12 @@ public interface ReadOptions {
      */
     JsonReader.ClassFactory getClassFactory(Class<?> c);
 
+    /**
+     * @return read-only Map of each Class to the ClassFactory registered for it (including the config/*.txt
+     * defaults).  Iterating it resolves every registered class name.
+     */
+    Map<Class<?>, JsonReader.ClassFactory> getClassFactories();
+
     /**
      * Fetch the custom reader for the passed in Class.  If it is cached (already associated to the
      * passed in Class), return the same instance, otherwise, make a call to get the custom reader
@@ -190,6 +225,12 @@ public interface ReadOptions {
      */
     JsonReader.JsonClassReader getCustomReader(Class<?> c);
 
+    /**
+     * @return read-only Map of each Class to the custom reader registered for it (including the config/*.txt
+     * defaults).  Iterating it resolves every registered class name.
+     */
+    Map<Class<?>, JsonReader.JsonClassReader> getCustomReaders();
+
     /**
      * @return true if returning items in basic JSON object format
      */
@@ -205,6 +246,25 @@ public interface ReadOptions {
 
     void clearCaches();
 
+    /**
+     * Eagerly build the per-class metadata used when reading instances of the passed in classes: the deep field
+     * map, Injectors, custom reader and ClassFactory resolution, and the constructor strategy.  No user code is
+     * run: for each concrete class without a ClassFactory or custom reader, the constructor that would be tried
+     * first is resolved and cached without being called, and classes are not initialized.  If that constructor
+     * fails on first use, the usual constructor search runs then.  Call this at startup so that the first real read of each class runs at
+     * steady-state speed.  With the default LRU cache, warmed entries can still be evicted if more than lruSize
+     * classes are used; use classValueCache(true) to keep them for the life of the class.
+     * @param classes Classes to warm up.
+     */
+    void warmUp(Class<?>... classes);
+
+    /**
+     * Warm up (see warmUp(Class...)) every class found in the passed in packages and their sub-packages, located
+     * with this ReadOptions' ClassLoader.  Anonymous and synthetic classes are skipped.
+     * @param packageNames String package names, e.g. "com.acme.dto"
+     */
+    void warmUpPackages(String... packageNames);
+
     /**
      * Gets the declared fields for the full class hierarchy of a given class
      *
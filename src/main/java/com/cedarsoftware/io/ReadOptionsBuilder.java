@@ -1,7 +1,8 @@
 package com.cedarsoftware.io;
 
-import java.lang.reflect.Array;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.ZoneId;
@@ -20,14 +21,17 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 import java.util.regex.Pattern;
 
 import com.cedarsoftware.io.factory.ArrayFactory;
 import com.cedarsoftware.io.factory.ConvertableFactory;
 import com.cedarsoftware.io.factory.EnumClassFactory;
+import com.cedarsoftware.io.factory.RecordFactory;
 import com.cedarsoftware.io.factory.ThrowableFactory;
 import com.cedarsoftware.io.reflect.Injector;
 import com.cedarsoftware.io.reflect.InjectorFactory;
+import com.cedarsoftware.io.reflect.MetadataRegistry;
 import com.cedarsoftware.io.reflect.factories.MethodInjectorFactory;
 import com.cedarsoftware.io.reflect.filters.FieldFilter;
 import com.cedarsoftware.io.reflect.filters.field.EnumFieldFilter;
@@ -38,6 +42,7 @@ import com.cedarsoftware.util.LRUCache;
 import com.cedarsoftware.util.StringUtilities;
 import com.cedarsoftware.util.convert.CommonValues;
 import com.cedarsoftware.util.convert.Convert;
+import com.cedarsoftware.util.convert.Converter;
 import com.cedarsoftware.util.convert.ConverterOptions;
 
 import static com.cedarsoftware.io.MetaUtils.loadMapDefinition;
@@ -64,21 +69,24 @@ import static com.cedarsoftware.io.MetaUtils.loadMapDefinition;
  */
 public class ReadOptionsBuilder {
 
-    private static final Map<Class<?>, JsonReader.JsonClassReader> BASE_READERS = new ConcurrentHashMap<>();
-    private static final Map<Class<?>, JsonReader.ClassFactory> BASE_CLASS_FACTORIES = new ConcurrentHashMap<>();
+    // The config/*.txt registries are loaded by class name, and each entry is resolved the first time its class
+    // is looked up, so only the classes actually read are loaded.
+    private static final LazyClassMap<JsonReader.JsonClassReader> BASE_READERS = new LazyClassMap<>();
+    private static final LazyClassMap<JsonReader.ClassFactory> BASE_CLASS_FACTORIES = new LazyClassMap<>();
     private static final Map<String, String> BASE_ALIAS_MAPPINGS = new ConcurrentHashMap<>();
-    private static final Map<Class<?>, Class<?>> BASE_COERCED_TYPES = new ConcurrentHashMap<>();
-    private static final Set<Class<?>> BASE_NON_REFS = ConcurrentHashMap.newKeySet();
+    private static final LazyClassMap<Class<?>> BASE_COERCED_TYPES = new LazyClassMap<>();
+    private static final LazyClassSet BASE_NON_REFS = new LazyClassSet();
     private static final Map<Class<?>, Map<String, String>> BASE_NONSTANDARD_SETTERS = new ConcurrentHashMap<>();
     private static final Map<Class<?>, Set<String>> BASE_NOT_IMPORTED_FIELDS = new ConcurrentHashMap<>();
     private final static ReadOptions defReadOptions;
     private final DefaultReadOptions options;
+    private MetadataSnapshot snapshot;
 
     static {
         // ClassFactories
         loadBaseClassFactory();
         loadBaseReaders();
-        loadBaseAliasMappings(ReadOptionsBuilder::addPermanentAlias);
+        loadBaseAliasMappings(BASE_ALIAS_MAPPINGS::put);
         loadBaseCoercedTypes();
         loadBaseNonRefs();
         loadBaseFieldsNotImported();
@@ -139,6 +147,9 @@ public class ReadOptionsBuilder {
             options.failOnUnknownType = other.failOnUnknownType;
             options.maxDepth = other.maxDepth;
             options.lruSize = other.lruSize;
+            options.classValueCache = other.classValueCache;
+            options.reuseExistingObjects = other.reuseExistingObjects;
+            options.parallelResolution = other.parallelResolution;
             options.returnType = other.returnType;
             options.unknownTypeClass = other.unknownTypeClass;
             options.missingFieldHandler = other.missingFieldHandler;
@@ -179,12 +190,10 @@ public class ReadOptionsBuilder {
             options.nonRefClasses.clear();
             options.nonRefClasses.addAll(other.nonRefClasses);
 
-            // Copy caches
-            options.injectorsCache = new LRUCache<>(other.lruSize);
-            options.injectorsCache.putAll(other.injectorsCache);
-
-            options.classMetaCache = new LRUCache<>(other.lruSize);
-            options.classMetaCache.putAll(other.classMetaCache);
+            // Caches are not copied.  They are cleared by build(), and the option-independent metadata (Fields,
+            // MethodHandles) they are built from is shared JVM-wide through MetadataRegistry.
+            options.injectorsCache = options.newClassCache(null);
+            options.classMetaCache = options.newClassCache(null);
         }
     }
 
@@ -313,11 +322,11 @@ public class ReadOptionsBuilder {
     public ReadOptions build() {
         options.clearCaches();
         options.aliasTypeNames = Collections.unmodifiableMap(options.aliasTypeNames);
-        options.coercedTypes = Collections.unmodifiableMap(options.coercedTypes);
+        options.coercedTypes.seal();
         options.notCustomReadClasses = Collections.unmodifiableSet(options.notCustomReadClasses);
-        options.customReaderClasses = Collections.unmodifiableMap(options.customReaderClasses);
-        options.classFactoryMap = Collections.unmodifiableMap(options.classFactoryMap);
-        options.nonRefClasses = Collections.unmodifiableSet(options.nonRefClasses);
+        options.customReaderClasses.seal();
+        options.classFactoryMap.seal();
+        options.nonRefClasses.seal();
         options.converterOptions.converterOverrides = Collections.unmodifiableMap(options.converterOptions.converterOverrides);
         options.converterOptions.customOptions = Collections.unmodifiableMap(options.converterOptions.customOptions);
         options.excludedFieldNames = Collections.unmodifiableMap(options.excludedFieldNames);
@@ -326,6 +335,9 @@ public class ReadOptionsBuilder {
         options.injectorFactories = Collections.unmodifiableList(options.injectorFactories);
         options.nonStandardSetters = Collections.unmodifiableMap(options.nonStandardSetters);
         options.customOptions = Collections.unmodifiableMap(options.customOptions);
+        if (snapshot != null) {
+            snapshot.apply(options.getClassLoader());
+        }
         return options;
     }
 
@@ -413,6 +425,27 @@ public class ReadOptionsBuilder {
         return this;
     }
 
+    /**
+     * Java records (Java 16+) are read by default with RecordFactory.RecordReader, which passes the JSON fields
+     * to the record's canonical constructor.  Turn it off to read records like any other class, or to supply
+     * your own reader for them.  To opt out for a single record class, use addNotCustomReaderClass() instead.
+     * No effect on Java versions without records.
+     * @param useRecordReader boolean true (default) to read records through their canonical constructor, false
+     *                        to remove the record reader.
+     * @return ReadOptionsBuilder for chained access.
+     */
+    public ReadOptionsBuilder recordReader(boolean useRecordReader) {
+        Class<?> recordClass = ClassUtilities.forName("java.lang.Record", ReadOptions.class.getClassLoader());
+        if (recordClass != null) {
+            if (useRecordReader) {
+                options.customReaderClasses.put(recordClass, new RecordFactory.RecordReader());
+            } else {
+                options.customReaderClasses.remove(recordClass);
+            }
+        }
+        return this;
+    }
+
     /**
      * Associate multiple ClassFactory instances to Classes that needs help being constructed and read in.
      *
@@ -568,13 +601,62 @@ public class ReadOptionsBuilder {
      */
     public ReadOptionsBuilder lruSize(int lruSize) {
         options.lruSize = lruSize;
-        Map<Class<?>, Map<String, Injector>> injectorCacheCopy = options.injectorsCache;
-        options.injectorsCache = new LRUCache<>(options.getLruSize());
-        options.injectorsCache.putAll(injectorCacheCopy);
+        options.rebuildCaches();
+        return this;
+    }
+
+    /**
+     * Load a MetadataSnapshot (see MetadataSnapshot.capture()) when the ReadOptions are built.  build() seeds the
+     * snapshot's recorded constructors, so the first read of each recorded class skips the search over its
+     * constructors.  Nothing else is built eagerly: use ReadOptions.warmUp() for the per-class fields and Injectors.
+     * @param snapshot MetadataSnapshot to load, or null to load none.
+     * @return ReadOptionsBuilder for chained access.
+     */
+    public ReadOptionsBuilder loadSnapshot(MetadataSnapshot snapshot) {
+        this.snapshot = snapshot;
+        return this;
+    }
+
+    /**
+     * Hold the per-class metadata (Class to Field and Class to injectors) in a ClassValue-backed cache instead of
+     * an LRU cache.  Lookups are lock-free and do not update LRU ordering, so this scales better when many threads
+     * read concurrently.  Entries are released when their Class is unloaded rather than evicted by size, so
+     * lruSize() no longer bounds these caches.
+     * @param classValueCache boolean true to use a ClassValue-backed cache, false (default) to use an LRU cache.
+     * @return ReadOptionsBuilder for chained access.
+     */
+    public ReadOptionsBuilder classValueCache(boolean classValueCache) {
+        options.classValueCache = classValueCache;
+        options.rebuildCaches();
+        return this;
+    }
+
+    /**
+     * When reading JSON into an existing instance (JsonIo.readInto() or JsonReader.readInto()), also read the
+     * JSON of each field into the object, Collection, or Map that the field already holds, instead of creating a
+     * new one.  Collections and Maps are cleared and refilled.  Instances that cannot be refilled in place
+     * (arrays, immutable or factory-created types), or whose class does not match the JSON @type, are replaced
+     * as usual.  Has no effect on other reads.
+     * @param reuseExistingObjects boolean true to refill the nested instances, false (default) to only reuse the
+     *                             root instance.
+     * @return ReadOptionsBuilder for chained access.
+     */
+    public ReadOptionsBuilder reuseExistingObjects(boolean reuseExistingObjects) {
+        options.reuseExistingObjects = reuseExistingObjects;
+        return this;
+    }
 
-        Map<Class<?>, Map<String, Field>> classMetaCacheCopy = options.classMetaCache;
-        options.classMetaCache = new LRUCache<>(options.getLruSize());
-        options.classMetaCache.putAll(classMetaCacheCopy);
+    /**
+     * Resolve the elements of large arrays, Collections, and Map values on several threads (the common
+     * ForkJoinPool).  Only used when the JSON has no @id (and therefore no @ref), which is what makes the
+     * elements independent of each other.  Custom readers and ClassFactory instances that do not return true
+     * from isThreadSafe() are still called, but one at a time.  The elements are stored in their original order.
+     * @param parallelResolution boolean true to resolve large containers in parallel, false (default) to resolve
+     *                           on the calling thread only.
+     * @return ReadOptionsBuilder for chained access.
+     */
+    public ReadOptionsBuilder parallelResolution(boolean parallelResolution) {
+        options.parallelResolution = parallelResolution;
         return this;
     }
 
@@ -754,7 +836,7 @@ public class ReadOptionsBuilder {
 
     /**
      * Load JsonReader.ClassFactory classes based on contents of resources/classFactory.txt.
-     * Verify that classes listed are indeed valid classes loaded in the JVM.
+     * Classes listed are resolved the first time they are looked up.
      */
     private static void loadBaseClassFactory() {
         Map<String, String> map = MetaUtils.loadMapDefinition("config/classFactory.txt");
@@ -763,61 +845,54 @@ public class ReadOptionsBuilder {
         for (Map.Entry<String, String> entry : map.entrySet()) {
             String className = entry.getKey();
             String factoryClassName = entry.getValue();
-            Class<?> clazz = ClassUtilities.forName(className, classLoader);
-
-            if (clazz == null) {
-                System.out.println("Skipping class: " + className + " not defined in JVM, but listed in resources/classFactories.txt");
-                continue;
-            }
+            BASE_CLASS_FACTORIES.putLazy(className, classLoader, clazz -> createClassFactory(clazz, factoryClassName, classLoader));
+        }
+    }
 
-            if (factoryClassName.equalsIgnoreCase("Convertable")) {
-                addPermanentClassFactory(clazz, new ConvertableFactory<>(clazz));
-            } else if (factoryClassName.equalsIgnoreCase("ArrayFactory")) {
-                addPermanentClassFactory(clazz, new ArrayFactory<>(clazz));
-            } else {
-                try {
-                    Class<? extends JsonReader.ClassFactory> factoryClass = (Class<? extends JsonReader.ClassFactory>) ClassUtilities.forName(factoryClassName, classLoader);
-                    if (factoryClass == null) {
-                        System.out.println("Skipping class: " + factoryClassName + " not defined in JVM, but listed in resources/classFactories.txt, as factory for: " + className);
-                        continue;
-                    }
-                    addPermanentClassFactory(clazz, factoryClass.getConstructor().newInstance());
-                } catch (Exception e) {
-                    System.out.println("Unable to create JsonReader.ClassFactory class: " + factoryClassName + ", a factory class for: " + className + ", listed in resources/classFactories.txt");
-                }
+    private static JsonReader.ClassFactory createClassFactory(Class<?> clazz, String factoryClassName, ClassLoader classLoader) {
+        if (factoryClassName.equalsIgnoreCase("Convertable")) {
+            return new ConvertableFactory<>(clazz);
+        } else if (factoryClassName.equalsIgnoreCase("ArrayFactory")) {
+            return new ArrayFactory<>(clazz);
+        }
+        try {
+            Class<? extends JsonReader.ClassFactory> factoryClass = (Class<? extends JsonReader.ClassFactory>) ClassUtilities.forName(factoryClassName, classLoader);
+            if (factoryClass == null) {
+                System.out.println("Skipping class: " + factoryClassName + " not defined in JVM, but listed in resources/classFactories.txt, as factory for: " + clazz.getName());
+                return null;
             }
+            return factoryClass.getConstructor().newInstance();
+        } catch (Exception e) {
+            System.out.println("Unable to create JsonReader.ClassFactory class: " + factoryClassName + ", a factory class for: " + clazz.getName() + ", listed in resources/classFactories.txt");
+            return null;
         }
     }
 
     /**
      * Load custom reader classes based on contents of resources/customReaders.txt.
-     * Verify that classes listed are indeed valid classes loaded in the JVM.
+     * Classes listed are resolved the first time they are looked up.
      */
     private static void loadBaseReaders() {
         Map<String, String> map = MetaUtils.loadMapDefinition("config/customReaders.txt");
         ClassLoader classLoader = ReadOptions.class.getClassLoader();
 
         for (Map.Entry<String, String> entry : map.entrySet()) {
-            String className = entry.getKey();
             String readerClassName = entry.getValue();
-            Class<?> clazz = ClassUtilities.forName(className, classLoader);
-            if (clazz != null) {
-                Class<JsonReader.JsonClassReader> customReaderClass = (Class<JsonReader.JsonClassReader>) ClassUtilities.forName(readerClassName, classLoader);
-
+            BASE_READERS.putLazy(entry.getKey(), classLoader, clazz -> {
                 try {
-                    addPermanentReader(clazz, customReaderClass.getConstructor().newInstance());
+                    Class<JsonReader.JsonClassReader> customReaderClass = (Class<JsonReader.JsonClassReader>) ClassUtilities.forName(readerClassName, classLoader);
+                    return customReaderClass.getConstructor().newInstance();
                 } catch (Exception e) {
                     System.out.println("Note: could not instantiate (custom JsonClassReader class): " + readerClassName + " from resources/customReaders.txt");
+                    return null;
                 }
-            } else {
-                System.out.println("Class: " + className + " not defined in JVM, but listed in resources/customReaders.txt");
-            }
+            });
         }
     }
 
     /**
-     * Load custom writer classes based on contents of customWriters.txt in the resources folder.
-     * Verify that classes listed are indeed valid classes loaded in the JVM.
+     * Load coerced types based on contents of coercedTypes.txt in the resources folder.
+     * Classes listed are resolved the first time they are looked up.
      */
     private static void loadBaseCoercedTypes() {
         Map<String, String> map = MetaUtils.loadMapDefinition("config/coercedTypes.txt");
@@ -826,17 +901,13 @@ public class ReadOptionsBuilder {
         for (Map.Entry<String, String> entry : map.entrySet()) {
             String srcClassName = entry.getKey();
             String destClassName = entry.getValue();
-            Class<?> srcType = ClassUtilities.forName(srcClassName, classLoader);
-            if (srcType == null) {
-                System.out.println("Skipping class coercion for source class: " + srcClassName + " (not found) to: " + destClassName + ", listed in resources/coercedTypes.txt");
-                continue;
-            }
-            Class<?> destType = ClassUtilities.forName(destClassName, classLoader);
-            if (destType == null) {
-                System.out.println("Skipping class coercion for source class: " + srcClassName + " cannot be mapped to: " + destClassName + " (not found), listed in resources/coercedTypes.txt");
-                continue;
-            }
-            addPermanentCoercedType(srcType, destType);
+            BASE_COERCED_TYPES.putLazy(srcClassName, classLoader, srcType -> {
+                Class<?> destType = ClassUtilities.forName(destClassName, classLoader);
+                if (destType == null) {
+                    System.out.println("Skipping class coercion for source class: " + srcClassName + " cannot be mapped to: " + destClassName + " (not found), listed in resources/coercedTypes.txt");
+                }
+                return destType;
+            });
         }
     }
 
@@ -889,6 +960,9 @@ public class ReadOptionsBuilder {
         private boolean closeStream = true;
         private int maxDepth = 1000;
         private int lruSize = 1000;
+        private boolean classValueCache = false;
+        private boolean reuseExistingObjects = false;
+        private boolean parallelResolution = false;
         private JsonReader.MissingFieldHandler missingFieldHandler = null;
         private DefaultConverterOptions converterOptions = new DefaultConverterOptions();
         private ReadOptions.ReturnType returnType = ReadOptions.ReturnType.JAVA_OBJECTS;
@@ -896,11 +970,11 @@ public class ReadOptionsBuilder {
         private ReadOptions.Integers integerType = Integers.LONG;
         private boolean allowNanAndInfinity = false;
         private Map<String, String> aliasTypeNames = new LinkedHashMap<>();
-        private Map<Class<?>, Class<?>> coercedTypes = new LinkedHashMap<>();
+        private LazyClassMap<Class<?>> coercedTypes = new LazyClassMap<>();
         private Set<Class<?>> notCustomReadClasses = new LinkedHashSet<>();
-        private Map<Class<?>, JsonReader.JsonClassReader> customReaderClasses = new LinkedHashMap<>();
-        private Map<Class<?>, JsonReader.ClassFactory> classFactoryMap = new LinkedHashMap<>();
-        private Set<Class<?>> nonRefClasses = new LinkedHashSet<>();
+        private LazyClassMap<JsonReader.JsonClassReader> customReaderClasses = new LazyClassMap<>();
+        private LazyClassMap<JsonReader.ClassFactory> classFactoryMap = new LazyClassMap<>();
+        private LazyClassSet nonRefClasses = new LazyClassSet();
         private Map<Class<?>, Set<String>> excludedFieldNames = new LinkedHashMap<>();
         private Map<Class<?>, Set<String>> fieldsNotImported = new LinkedHashMap<>();
         private List<FieldFilter> fieldFilters = new ArrayList<>();
@@ -913,6 +987,10 @@ public class ReadOptionsBuilder {
 
         // Runtime cache (not feature options)
         private final Map<Class<?>, JsonReader.JsonClassReader> readerCache = new ConcurrentHashMap<>(300);
+        private final Map<Type, GenericTypePlan> typePlanCache = new ConcurrentHashMap<>();
+        // Whether the class each alias names can be loaded.  The aliases.txt entries are registered by name, so an
+        // alias for a class that is not on the classpath is skipped here, on its first lookup.
+        private final Map<String, Boolean> aliasedClassPresent = new ConcurrentHashMap<>();
         private final JsonReader.ClassFactory throwableFactory = new ThrowableFactory();
         private final JsonReader.ClassFactory enumFactory = new EnumClassFactory();
 
@@ -981,6 +1059,30 @@ public class ReadOptionsBuilder {
             return lruSize;
         }
 
+        /**
+         * @return boolean 'classValueCache' setting, true if per-class metadata is held in a ClassValue-backed
+         * cache, false if it is held in an LRU cache bounded by lruSize.  Default is false.
+         */
+        public boolean isClassValueCache() {
+            return classValueCache;
+        }
+
+        /**
+         * @return boolean 'reuseExistingObjects' setting, true if reading into an existing instance also refills
+         * the objects, Collections, and Maps its fields already hold.  Default is false.
+         */
+        public boolean isReuseExistingObjects() {
+            return reuseExistingObjects;
+        }
+
+        /**
+         * @return boolean 'parallelResolution' setting, true if the elements of large containers are resolved on
+         * several threads when the JSON has no @id / @ref.  Default is false.
+         */
+        public boolean isParallelResolution() {
+            return parallelResolution;
+        }
+
         /**
          * Alias Type Names, e.g. "ArrayList" instead of "java.util.ArrayList".
          *
@@ -989,7 +1091,10 @@ public class ReadOptionsBuilder {
          */
         public String getTypeNameAlias(String typeName) {
             String alias = aliasTypeNames.get(typeName);
-            return alias == null ? typeName : alias;
+            if (alias == null || !aliasedClassPresent.computeIfAbsent(alias, name -> ClassUtilities.forName(name, getClassLoader()) != null)) {
+                return typeName;
+            }
+            return alias;
         }
 
         /**
@@ -1102,10 +1207,26 @@ public class ReadOptionsBuilder {
          * @return JsonClassReader for the custom class (if one exists), null otherwise.
          */
         public JsonReader.JsonClassReader getCustomReader(Class<?> c) {
-            JsonReader.JsonClassReader reader = readerCache.computeIfAbsent(c, cls -> MetaUtils.findClosest(c, customReaderClasses, nullReader));
+            JsonReader.JsonClassReader reader = readerCache.computeIfAbsent(c, cls -> customReaderClasses.findClosest(c, nullReader));
             return reader == nullReader ? null : reader;
         }
 
+        public Map<Class<?>, JsonReader.ClassFactory> getClassFactories() {
+            return Collections.unmodifiableMap(classFactoryMap);
+        }
+
+        public Map<Class<?>, JsonReader.JsonClassReader> getCustomReaders() {
+            return Collections.unmodifiableMap(customReaderClasses);
+        }
+
+        public Map<Class<?>, Class<?>> getCoercedTypes() {
+            return Collections.unmodifiableMap(coercedTypes);
+        }
+
+        public Map<String, String> getAliasTypeNames() {
+            return Collections.unmodifiableMap(aliasTypeNames);
+        }
+
         /**
          * @return true if returning items in basic JSON object format
          */
@@ -1175,6 +1296,80 @@ public class ReadOptionsBuilder {
         public void clearCaches() {
             classMetaCache.clear();
             injectorsCache.clear();
+            typePlanCache.clear();
+            aliasedClassPresent.clear();
+        }
+
+        /**
+         * @param type generic Type of a field.
+         * @return GenericTypePlan for the Type, built on first request.
+         */
+        GenericTypePlan getTypePlan(Type type) {
+            GenericTypePlan plan = typePlanCache.get(type);
+            if (plan == null) {
+                plan = GenericTypePlan.build(type, this);
+                GenericTypePlan prior = typePlanCache.putIfAbsent(type, plan);
+                if (prior != null) {
+                    plan = prior;
+                }
+            }
+            return plan;
+        }
+
+        public void warmUp(Class<?>... classes) {
+            Converter converter = null;
+            for (Class<?> c : classes) {
+                if (c == null || c.isPrimitive()) {
+                    continue;
+                }
+                boolean customReader = getCustomReader(c) != null;
+                boolean classFactory = getClassFactory(c) != null;
+                if (c.isArray() || c.isInterface() || c.isEnum() || Modifier.isAbstract(c.getModifiers())) {
+                    continue;
+                }
+                getDeepDeclaredFields(c);
+                getDeepInjectorMap(c);
+
+                if (!customReader && !classFactory) {
+                    if (converter == null) {
+                        converter = new Converter(converterOptions);
+                    }
+                    // Caches the constructor newInstance() will try first, without calling it
+                    MetaUtils.resolveConstructor(converter, c);
+                }
+            }
+        }
+
+        public void warmUpPackages(String... packageNames) {
+            for (String packageName : packageNames) {
+                for (Class<?> c : MetaUtils.findClassesInPackage(packageName, getClassLoader())) {
+                    if (!c.isAnonymousClass() && !c.isSynthetic()) {
+                        warmUp(c);
+                    }
+                }
+            }
+        }
+
+        /**
+         * @param existing Map holding entries to carry over to the new cache.  Can be null.
+         * @return a new, empty ClassValueCache or LRUCache (per the current settings) with the existing entries.
+         */
+        private <V> Map<Class<?>, V> newClassCache(Map<Class<?>, V> existing) {
+            Map<Class<?>, V> cache;
+            if (classValueCache) {
+                cache = new ClassValueCache<>();
+            } else {
+                cache = new LRUCache<>(lruSize);
+            }
+            if (existing != null) {
+                cache.putAll(existing);
+            }
+            return cache;
+        }
+
+        private void rebuildCaches() {
+            injectorsCache = newClassCache(injectorsCache);
+            classMetaCache = newClassCache(classMetaCache);
         }
 
         private Map<String, Injector> buildInjectors(Class<?> c) {
@@ -1248,7 +1443,7 @@ public class ReadOptionsBuilder {
 
             Class<?> curr = clazz;
             while (curr != null) {
-                final Field[] fields = curr.getDeclaredFields();
+                final List<Field> fields = MetadataRegistry.getDeclaredFields(curr);
                 final Set<String> excludedForClass = excludedFieldNames.get(curr);
 
                 if (excludedForClass != null) {
@@ -1343,40 +1538,54 @@ public class ReadOptionsBuilder {
         final ClassLoader classLoader = WriteOptions.class.getClassLoader();
 
         for (String className : set) {
-            Class<?> loadedClass = ClassUtilities.forName(className, classLoader);
-
-            if (loadedClass != null) {
-                addPermanentNonReferenceableClass(loadedClass);
-            } else {
-                throw new JsonIoException("Class: " + className + " is undefined.");
-            }
+            BASE_NON_REFS.addLazy(className, classLoader);
         }
     }
 
-    @FunctionalInterface
-    public interface AliasApplier {
-        void apply(Class<?> clazz, String alias);
-    }
-
-    static void loadBaseAliasMappings(AliasApplier aliasApplier) {
+    /**
+     * Load the aliases listed in resources/aliases.txt, plus the 1D to 3D array versions of each, without loading
+     * the aliased classes.  The array class names are derived from the class name.
+     * @param aliasApplier receives each (class name, alias) pair.
+     */
+    static void loadBaseAliasMappings(BiConsumer<String, String> aliasApplier) {
         Map<String, String> aliasMappings = MetaUtils.loadMapDefinition("config/aliases.txt");
         for (Map.Entry<String, String> entry : aliasMappings.entrySet()) {
             String className = entry.getKey();
             String alias = entry.getValue();
-            Class<?> clazz = ClassUtilities.forName(className, JsonIo.class.getClassLoader());
+            String className1 = arrayClassName(className);
+            String className2 = "[" + className1;
+            String className3 = "[" + className2;
+            aliasApplier.accept(className, alias);
+            aliasApplier.accept(className1, alias + "[]");
+            aliasApplier.accept(className2, alias + "[][]");
+            aliasApplier.accept(className3, alias + "[][][]");
+        }
+    }
 
-            if (clazz == null) {
-                System.out.println("Could not find class: " + className + " which has associated alias value: " + alias + " config/aliases.txt");
-            } else {
-                // Add the alias and 1D to 3D array versions of it.
-                Class<?> clazz1 = Array.newInstance(clazz, 0).getClass();
-                Class<?> clazz2 = Array.newInstance(clazz1, 0).getClass();
-                Class<?> clazz3 = Array.newInstance(clazz2, 0).getClass();
-                aliasApplier.apply(clazz, alias);
-                aliasApplier.apply(clazz1, alias + "[]");
-                aliasApplier.apply(clazz2, alias + "[][]");
-                aliasApplier.apply(clazz3, alias + "[][][]");
-            }
+    /**
+     * @param componentClassName String name of a class, as returned by Class.getName().
+     * @return String name (as returned by Class.getName()) of the 1D array class of the named class.
+     */
+    static String arrayClassName(String componentClassName) {
+        switch (componentClassName) {
+            case "boolean":
+                return "[Z";
+            case "byte":
+                return "[B";
+            case "char":
+                return "[C";
+            case "short":
+                return "[S";
+            case "int":
+                return "[I";
+            case "long":
+                return "[J";
+            case "float":
+                return "[F";
+            case "double":
+                return "[D";
+            default:
+                return componentClassName.startsWith("[") ? "[" + componentClassName : "[L" + componentClassName + ";";
         }
     }
 
@@ -26,6 +26,27 @@ public interface ReferenceTracker {
 
     JsonObject get(Long jObj);
 
+    /**
+     * Register the JsonObject defined with the passed in @id, without boxing the id.  Implementations that are
+     * not keyed by primitive long inherit this default, which boxes it.
+     * @param id long value of the @id.
+     * @param o JsonObject defined with that @id.
+     * @return JsonObject previously registered with the same @id, or null.
+     */
+    default JsonObject put(long id, JsonObject o) {
+        return put(Long.valueOf(id), o);
+    }
+
+    /**
+     * Find the JsonObject defined with the passed in @id (following @ref chains), without boxing the id.
+     * @param id long value of an @ref.
+     * @return JsonObject defined with that @id.
+     * @throws JsonIoException if no object was defined with that @id.
+     */
+    default JsonObject get(long id) {
+        return get(Long.valueOf(id));
+    }
+
     void clear();
 
     int size();
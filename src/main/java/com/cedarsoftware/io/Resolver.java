@@ -1,7 +1,6 @@
 package com.cedarsoftware.io;
 
 import java.lang.reflect.Array;
-import java.lang.reflect.Field;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -10,12 +9,38 @@ import java.util.Collections;
 import java.util.Deque;
 import java.util.EnumSet;
 import java.util.HashSet;
-import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 import com.cedarsoftware.io.JsonReader.MissingFieldHandler;
+import com.cedarsoftware.io.factory.ArrayFactory;
+import com.cedarsoftware.io.factory.CharacterPrimArrayFactory;
+import com.cedarsoftware.io.factory.CollectionFactory;
+import com.cedarsoftware.io.factory.ConvertableFactory;
+import com.cedarsoftware.io.factory.EmptyEnumerationFactory;
+import com.cedarsoftware.io.factory.EmptyIteratorFactory;
+import com.cedarsoftware.io.factory.EmptyListFactory;
+import com.cedarsoftware.io.factory.EmptyListIteratorFactory;
+import com.cedarsoftware.io.factory.EmptyMapFactory;
+import com.cedarsoftware.io.factory.EmptyNavigableMapFactory;
+import com.cedarsoftware.io.factory.EmptyNavigableSetFactory;
+import com.cedarsoftware.io.factory.EmptySetFactory;
+import com.cedarsoftware.io.factory.EnumClassFactory;
+import com.cedarsoftware.io.factory.ImmutableListFactory;
+import com.cedarsoftware.io.factory.ImmutableSetFactory;
+import com.cedarsoftware.io.factory.MapFactory;
+import com.cedarsoftware.io.factory.RecordFactory;
+import com.cedarsoftware.io.factory.SealableListFactory;
+import com.cedarsoftware.io.factory.SealableMapFactory;
+import com.cedarsoftware.io.factory.SealableNavigableMapFactory;
+import com.cedarsoftware.io.factory.SealableNavigableSetFactory;
+import com.cedarsoftware.io.factory.SealableSetFactory;
+import com.cedarsoftware.io.factory.StackTraceElementFactory;
+import com.cedarsoftware.io.factory.ThrowableFactory;
 import com.cedarsoftware.io.reflect.Injector;
 import com.cedarsoftware.util.ClassUtilities;
 import com.cedarsoftware.util.convert.Converter;
@@ -52,7 +77,8 @@ import static com.cedarsoftware.io.JsonObject.KEYS;
 public abstract class Resolver {
     private static final String NO_FACTORY = "_︿_ψ_☼";
     final Collection<UnresolvedReference> unresolvedRefs = new ArrayList<>();
-    private final Map<Object, Object> visited = new IdentityHashMap<>();
+    // Marks (via JsonValue.visitedBy) the JsonObjects visited during the current read.  Replaced for each read.
+    private Object visitToken = new Object();
     protected final Deque<JsonObject> stack = new ArrayDeque<>();
     private final Collection<Object[]> prettyMaps = new ArrayList<>();
     // store the missing field found during deserialization to notify any client after the complete resolution is done
@@ -61,6 +87,30 @@ public abstract class Resolver {
     private ReferenceTracker references;
     private Converter converter;
     private SealedSupplier sealedSupplier = new SealedSupplier();
+    // true while reading into an existing instance with ReadOptions.isReuseExistingObjects()
+    boolean reusingInstances;
+    // true while resolving a read with ReadOptions.isParallelResolution() whose JSON has no @id (and so no @ref)
+    boolean parallel;
+    // true while resolving a tree this read parsed itself (not one handed in by the caller), so its fields may be released
+    boolean ownsTree;
+    // Held while calling a ClassFactory or custom reader that is not thread-safe.  Shared by a read's forks.
+    Object handlerLock = this;
+    // Failure of a fork's chunk, rethrown by the Resolver that forked it
+    private Throwable forkFailure;
+    // Containers with fewer elements than this are always resolved sequentially
+    static final int PARALLEL_THRESHOLD = 1024;
+    private static final int MIN_CHUNK = 256;
+    // json-io's own ClassFactory and JsonClassReader classes, which keep no per-read state.  Matched by exact class,
+    // so that subclasses are not assumed to be thread-safe.
+    private static final Set<Class<?>> threadSafeHandlers = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            ArrayFactory.class, CharacterPrimArrayFactory.class, CollectionFactory.class, ConvertableFactory.class,
+            EmptyEnumerationFactory.class, EmptyIteratorFactory.class, EmptyListFactory.class,
+            EmptyListIteratorFactory.class, EmptyMapFactory.class, EmptyNavigableMapFactory.class,
+            EmptyNavigableSetFactory.class, EmptySetFactory.class, EnumClassFactory.class, ImmutableListFactory.class,
+            ImmutableSetFactory.class, MapFactory.class, RecordFactory.class, RecordFactory.RecordReader.class,
+            SealableListFactory.class, SealableMapFactory.class, SealableNavigableMapFactory.class,
+            SealableNavigableSetFactory.class, SealableSetFactory.class, StackTraceElementFactory.class,
+            ThrowableFactory.class)));
 
     private static final Set<String> convertableValues = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
             "byte",
@@ -125,17 +175,18 @@ public abstract class Resolver {
     /**
      * UnresolvedReference is created to hold a logical pointer to a reference that
      * could not yet be loaded, as the @ref appears ahead of the referenced object's
-     * definition.  This can point to a field reference or an array/Collection element reference.
+     * definition.  This can point to a field reference (kept as the Injector that
+     * will set it) or an array/Collection element reference (kept as its index).
      */
     static final class UnresolvedReference {
         private final JsonObject referencingObj;
-        private String field;
+        private Injector injector;
         private final long refId;
         private int index = -1;
 
-        UnresolvedReference(JsonObject referrer, String fld, long id) {
+        UnresolvedReference(JsonObject referrer, Injector injector, long id) {
             referencingObj = referrer;
-            field = fld;
+            this.injector = injector;
             refId = id;
         }
 
@@ -226,7 +277,14 @@ public abstract class Resolver {
      */
     public <T> T traverseJsonObject(JsonObject root) {
         push(root);
+        drainStack();
+        return (T) root.getTarget();
+    }
 
+    /**
+     * Traverse the JsonObjects on the work stack (and those pushed while traversing them) until it is empty.
+     */
+    private void drainStack() {
         while (!stack.isEmpty()) {
             final JsonObject jsonObj = stack.pop();
 
@@ -236,14 +294,14 @@ public abstract class Resolver {
             if (jsonObj.isFinished) {
                 continue;
             }
-            if (visited.containsKey(jsonObj)) {
+            if (jsonObj.visitedBy == visitToken) {
                 jsonObj.setFinished();
                 continue;
             }
-            visited.put(jsonObj, null);
+            jsonObj.visitedBy = visitToken;
             traverseSpecificType(jsonObj);
+            releaseFields(jsonObj);
         }
-        return (T) root.getTarget();
     }
 
     public void traverseSpecificType(JsonObject jsonObj) {
@@ -263,6 +321,186 @@ public abstract class Resolver {
         }
     }
 
+    /**
+     * Drop the JSON fields of a traversed object once they have been copied to its Java peer, so that the parsed
+     * JSON tree does not stay reachable (from its parent) until the whole read completes.  Not released:
+     * <ul>
+     *     <li>everything, when the tree was handed in by the caller (JsonIo.toObjects(JsonObject, ...)), which
+     *     still owns it</li>
+     *     <li>everything, when JsonObjects are the result of the read (returnAsNativeJsonObjects)</li>
+     *     <li>objects with an @id, which may be read again through a later @ref</li>
+     *     <li>Maps (rebuilt from their JSON at the end of the read), and Collections and arrays (which release
+     *     themselves once filled)</li>
+     *     <li>objects whose Java peer is a JsonObject</li>
+     * </ul>
+     * @param jsonObj JsonObject that has been traversed.
+     */
+    void releaseFields(JsonObject jsonObj) {
+        if (!ownsTree) {
+            return;
+        }
+        Object target = jsonObj.getTarget();
+        if (target == null || target instanceof JsonObject || jsonObj.hasId() || readOptions.isReturningJsonObjects()) {
+            return;
+        }
+        if (jsonObj.isMap() || jsonObj.isArray() || jsonObj.isCollection()) {
+            return;
+        }
+        jsonObj.releaseFields();
+    }
+
+    /**
+     * Make an existing Java instance the peer of a JsonObject that has not been instantiated yet, so that the JSON
+     * is read into it.  Collections and Maps are cleared first, so that they are refilled from the JSON.  The
+     * instance is not used when it cannot be refilled in place: arrays, convertable (immutable) types, types built
+     * by a ClassFactory or custom reader, a class that is not an instance of the JSON @type, a JSON array for a
+     * non-Collection, or a Collection or Map that cannot be cleared.
+     * @param jsonObj JsonObject to be read.
+     * @param existing Object instance to read it into.  Can be null.
+     * @return boolean true if the existing instance became the JsonObject's target.
+     */
+    boolean reuseInstance(JsonObject jsonObj, Object existing) {
+        if (existing == null || jsonObj.getTarget() != null || jsonObj.isReference() || jsonObj.hasValue()) {
+            return false;
+        }
+        Class<?> c = existing.getClass();
+        Class<?> type = jsonObj.getJavaType();
+        if ((type != null && !type.isInstance(existing)) || c.isArray() || isConvertable(c)) {
+            return false;
+        }
+        if (readOptions.getClassFactory(c) != null || readOptions.getCustomReader(c) != null) {
+            return false;
+        }
+        boolean jsonArray = jsonObj.containsKey(ITEMS) && !jsonObj.containsKey(KEYS);
+        if (jsonArray && !(existing instanceof Collection)) {
+            return false;
+        }
+        try {
+            if (existing instanceof Collection) {
+                ((Collection<?>) existing).clear();
+            } else if (existing instanceof Map) {
+                ((Map<?, ?>) existing).clear();
+            }
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+        jsonObj.setJavaType(c);
+        jsonObj.setTarget(existing);
+        return true;
+    }
+
+    /**
+     * Reads one element of a container, using the passed in Resolver (a fork when reading in parallel).
+     */
+    interface ElementReader {
+        void read(Resolver resolver, int index);
+    }
+
+    /**
+     * @param size int number of elements in a container.
+     * @return boolean true if the elements of the container should be resolved in parallel.
+     */
+    boolean isResolvingInParallel(int size) {
+        return parallel && size >= PARALLEL_THRESHOLD;
+    }
+
+    /**
+     * Resolve the elements [0, size) of a container on the common ForkJoinPool.  The range is split into chunks,
+     * and each chunk is read by its own fork of this Resolver, which also traverses everything below those
+     * elements on its own work stack.  This is only safe when the JSON has no @id, so that no object is reachable
+     * from two chunks.  Work the forks defer to the end of the read (Maps to rebuild, missing fields) is handed
+     * back to this Resolver in element order.
+     * @param size int number of elements.
+     * @param reader ElementReader that reads one element.
+     */
+    void resolveInParallel(int size, ElementReader reader) {
+        int chunks = Math.max(1, Math.min(size / MIN_CHUNK, ForkJoinPool.getCommonPoolParallelism() * 4));
+        Resolver[] forks = new Resolver[chunks];
+        List<RecursiveAction> tasks = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            final Resolver fork = createFork();
+            final int from = (int) ((long) size * c / chunks);
+            final int to = (int) ((long) size * (c + 1) / chunks);
+            forks[c] = fork;
+            tasks.add(new RecursiveAction() {
+                protected void compute() {
+                    try {
+                        for (int i = from; i < to; i++) {
+                            reader.read(fork, i);
+                        }
+                        fork.drainStack();
+                    } catch (Throwable e) {
+                        fork.forkFailure = e;
+                    }
+                }
+            });
+        }
+
+        if (ForkJoinTask.inForkJoinPool()) {
+            ForkJoinTask.invokeAll(tasks);
+        } else {
+            ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+        }
+
+        for (Resolver fork : forks) {
+            Throwable e = fork.forkFailure;
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            } else if (e instanceof Error) {
+                throw (Error) e;
+            } else if (e != null) {
+                throw new JsonIoException(e);
+            }
+        }
+        for (Resolver fork : forks) {
+            unresolvedRefs.addAll(fork.unresolvedRefs);
+            prettyMaps.addAll(fork.prettyMaps);
+            missingFields.addAll(fork.missingFields);
+        }
+    }
+
+    /**
+     * @param handler JsonReader.ClassFactory or JsonReader.JsonClassReader.
+     * @return boolean true if the handler can be called from several threads at once: it is one of json-io's own,
+     * or it returns true from isThreadSafe().
+     */
+    static boolean isThreadSafe(Object handler) {
+        if (threadSafeHandlers.contains(handler.getClass())) {
+            return true;
+        }
+        if (handler instanceof JsonReader.ClassFactory && ((JsonReader.ClassFactory) handler).isThreadSafe()) {
+            return true;
+        }
+        return handler instanceof JsonReader.JsonClassReader && ((JsonReader.JsonClassReader) handler).isThreadSafe();
+    }
+
+    /**
+     * @return Resolver that reads one chunk of a container for resolveInParallel().
+     */
+    Resolver createFork() {
+        throw new JsonIoException("Parallel resolution is not supported by: " + getClass().getName());
+    }
+
+    /**
+     * Share the state of the current read with a fork created by createFork().  The fork has its own work stack
+     * and deferred work.
+     * @param fork Resolver created with the same ReadOptions, ReferenceTracker, and Converter as this one.
+     * @return the passed in fork.
+     */
+    Resolver adopt(Resolver fork) {
+        fork.sealedSupplier = sealedSupplier;
+        fork.visitToken = visitToken;
+        fork.reusingInstances = reusingInstances;
+        fork.parallel = parallel;
+        fork.ownsTree = ownsTree;
+        fork.handlerLock = handlerLock;
+        return fork;
+    }
+
     public SealedSupplier getSealedSupplier() {
         return sealedSupplier;
     }
@@ -285,6 +523,25 @@ public abstract class Resolver {
 
     public abstract void assignField(final JsonObject jsonObj, final Injector injector, final Object rhs);
 
+    /**
+     * Prepare this Resolver for another read after cleanup() (or a failed read).  All per-read state is cleared,
+     * and the ReadOptions and ReferenceTracker (which cleanup() releases) are re-attached.
+     */
+    void reset(ReadOptions readOptions, ReferenceTracker references) {
+        unresolvedRefs.clear();
+        prettyMaps.clear();
+        missingFields.clear();
+        stack.clear();
+        visitToken = new Object();
+        reusingInstances = false;
+        parallel = false;
+        ownsTree = false;
+        references.clear();
+        this.readOptions = readOptions;
+        this.references = references;
+        this.sealedSupplier = new SealedSupplier();
+    }
+
     protected void cleanup() {
         patchUnresolvedReferences();
         rehashMaps();
@@ -294,7 +551,10 @@ public abstract class Resolver {
         handleMissingFields();
         missingFields.clear();
         stack.clear();
-        visited.clear();
+        visitToken = new Object();
+        reusingInstances = false;
+        parallel = false;
+        ownsTree = false;
         references = null;
         readOptions = null;
         sealedSupplier.seal();
@@ -335,6 +595,9 @@ public abstract class Resolver {
             throw new JsonIoException("Unbalance { } in JSON, it has " + KEYS + " and " + ITEMS + "s entries of different sizes. They should be same length.");
         }
 
+        if (jsonObj.typePlan != null) {    // Map declared with generic types - type its untyped keys and values
+            jsonObj.typePlan.bindEntries(keys, items);
+        }
         buildCollection(keys);
         buildCollection(items);
 
@@ -470,7 +733,14 @@ public abstract class Resolver {
             return NO_FACTORY;
         }
 
-        Object target = classFactory.newInstance(c, jsonObj, this);
+        Object target;
+        if (parallel && !isThreadSafe(classFactory)) {
+            synchronized (handlerLock) {
+                target = classFactory.newInstance(c, jsonObj, this);
+            }
+        } else {
+            target = classFactory.newInstance(c, jsonObj, this);
+        }
 
         // don't pass in classFactory.isObjectFinal, only set it to true if classFactory says its so.
         // it allows the factory itself to set final on the jsonObj internally where it depends
@@ -557,29 +827,34 @@ public abstract class Resolver {
      * that had not yet been encountered in the stream, make the final substitution.
      */
     private void patchUnresolvedReferences() {
+        // Forward references are recorded while each object is traversed, so those of one referencing object are
+        // adjacent.  The kind of container being patched is determined once per run of the same referencing object.
+        JsonObject referrer = null;
+        Object objToFix = null;
+        Object[] array = null;
+        List list = null;
+        Collection col = null;
+
         for (UnresolvedReference ref : unresolvedRefs) {
-            Object objToFix = ref.referencingObj.getTarget();
-            JsonObject objReferenced = this.references.get(ref.refId);
-
-            if (ref.index >= 0) {    // Fix []'s and Collections containing a forward reference.
-                if (objToFix instanceof List) {
-                    List list = (List) objToFix;
-                    list.set(ref.index, objReferenced.getTarget());
-                } else if (objToFix instanceof Collection) {   // Patch up Indexable Collections
-                    Collection col = (Collection) objToFix;
-                    col.add(objReferenced.getTarget());
-                } else {
-                    Array.set(objToFix, ref.index, objReferenced.getTarget());        // patch array element here
-                }
-            } else {    // Fix field forward reference
-                Field field = getReadOptions().getDeepDeclaredFields(objToFix.getClass()).get(ref.field);
-                if (field != null) {
-                    try {
-                        MetaUtils.setFieldValue(field, objToFix, objReferenced.getTarget());    // patch field here
-                    } catch (Exception e) {
-                        throw new JsonIoException("Error setting field while resolving references '" + field.getName() + "', @ref = " + ref.refId, e);
-                    }
-                }
+            if (ref.referencingObj != referrer) {
+                referrer = ref.referencingObj;
+                objToFix = referrer.getTarget();
+                array = objToFix instanceof Object[] ? (Object[]) objToFix : null;
+                list = objToFix instanceof List ? (List) objToFix : null;
+                col = objToFix instanceof Collection ? (Collection) objToFix : null;
+            }
+            Object value = this.references.get(ref.refId).getTarget();
+
+            if (ref.injector != null) {    // Fix field forward reference
+                ref.injector.inject(objToFix, value);
+            } else if (array != null) {    // Fix []'s containing a forward reference.
+                array[ref.index] = value;
+            } else if (list != null) {
+                list.set(ref.index, value);
+            } else if (col != null) {    // Patch up Indexable Collections
+                col.add(value);
+            } else {
+                Array.set(objToFix, ref.index, value);
             }
         }
         unresolvedRefs.clear();
@@ -623,9 +898,9 @@ public abstract class Resolver {
                 jsonObject.setFinishedTarget(null, true);
                 return true;
             }
-            Object javaArray = Array.newInstance(componentType, jsonItems.length);
-            for (int i = 0; i < jsonItems.length; i++) {
-                try {
+            Object javaArray;
+            try {
+                javaArray = ArrayFactory.toArray(componentType, jsonItems.length, i -> {
                     Class<?> type = componentType;
                     if (jsonItems[i] instanceof JsonObject) {
                         JsonObject jObj = (JsonObject) jsonItems[i];
@@ -633,12 +908,12 @@ public abstract class Resolver {
                             type = jObj.getJavaType();
                         }
                     }
-                    Array.set(javaArray, i, converter.convert(jsonItems[i], type));
-                } catch (Exception e) {
-                    JsonIoException jioe = new JsonIoException(e.getMessage());
-                    jioe.setStackTrace(e.getStackTrace());
-                    throw jioe;
-                }
+                    return converter.convert(jsonItems[i], type);
+                }, converter);
+            } catch (Exception e) {
+                JsonIoException jioe = new JsonIoException(e.getMessage());
+                jioe.setStackTrace(e.getStackTrace());
+                throw jioe;
             }
             jsonObject.setFinishedTarget(javaArray, true);
             return true;
@@ -0,0 +1,148 @@
+package com.cedarsoftware.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Minimal UTF-8 encoding Writer that writes to an OutputStream.  Unlike OutputStreamWriter, the destination
+ * OutputStream can be swapped (see setOutputStream()), which allows a JsonWriter to be reset and reused without
+ * re-allocating its buffers.  Unpaired surrogates are written as '?', matching OutputStreamWriter's behavior.
+ *
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License");
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+final class Utf8Writer extends Writer {
+    private static final int BUFFER_SIZE = 8192;
+    // Largest number of bytes a single char can produce ('?' for a dangling high surrogate + 3 byte char)
+    private static final int MAX_BYTES_PER_CHAR = 4;
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private int count = 0;
+    private char highSurrogate = 0;
+    private OutputStream out;
+
+    Utf8Writer(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Point this Writer at a new OutputStream.  Anything not yet flushed to the prior OutputStream is discarded.
+     * @param out OutputStream to write to from now on.
+     */
+    void setOutputStream(OutputStream out) {
+        this.out = out;
+        count = 0;
+        highSurrogate = 0;
+    }
+
+    public void write(int c) throws IOException {
+        encode((char) c);
+    }
+
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        final int end = off + len;
+        for (int i = off; i < end; i++) {
+            final char c = cbuf[i];
+            if (c < 0x80 && highSurrogate == 0 && count < BUFFER_SIZE) {
+                buf[count++] = (byte) c;
+            } else {
+                encode(c);
+            }
+        }
+    }
+
+    public void write(String str, int off, int len) throws IOException {
+        final int end = off + len;
+        for (int i = off; i < end; i++) {
+            final char c = str.charAt(i);
+            if (c < 0x80 && highSurrogate == 0 && count < BUFFER_SIZE) {
+                buf[count++] = (byte) c;
+            } else {
+                encode(c);
+            }
+        }
+    }
+
+    private void encode(char c) throws IOException {
+        if (count > BUFFER_SIZE - MAX_BYTES_PER_CHAR) {
+            flushBuffer();
+        }
+
+        if (highSurrogate != 0) {
+            final char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                final int cp = Character.toCodePoint(high, c);
+                buf[count++] = (byte) (0xF0 | (cp >> 18));
+                buf[count++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[count++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[count++] = (byte) (0x80 | (cp & 0x3F));
+                return;
+            }
+            buf[count++] = '?';
+        }
+
+        if (c < 0x80) {
+            buf[count++] = (byte) c;
+        } else if (c < 0x800) {
+            buf[count++] = (byte) (0xC0 | (c >> 6));
+            buf[count++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            buf[count++] = '?';
+        } else {
+            buf[count++] = (byte) (0xE0 | (c >> 12));
+            buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buf[count++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buf, 0, count);
+            count = 0;
+        }
+    }
+
+    /**
+     * Write bytes that are already UTF-8 encoded (for example, JSON written into a separate buffer), after any
+     * bytes still buffered here.
+     * @param bytes ByteArrayOutputStream holding the encoded bytes.
+     */
+    void writeEncoded(ByteArrayOutputStream bytes) throws IOException {
+        flushBuffer();
+        bytes.writeTo(out);
+    }
+
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    public void close() throws IOException {
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            if (count > BUFFER_SIZE - MAX_BYTES_PER_CHAR) {
+                flushBuffer();
+            }
+            buf[count++] = '?';
+        }
+        flushBuffer();
+        out.close();
+    }
+}
@@ -96,11 +96,31 @@ public interface WriteOptions {
      */
     boolean isCloseStream();
 
+    /**
+     * @return boolean 'true' if the reference trace (the pass over the object graph that determines which instances
+     * need an @id) is performed in parallel using the ForkJoin common pool.  This helps very large object graphs.
+     * The default is 'false.'
+     */
+    boolean isParallelReferenceTracing();
+
+    /**
+     * @return int minimum number of elements a List (RandomAccess) or Object[] must hold before JsonWriter writes
+     * its elements in parallel chunks on the ForkJoin common pool.  The default is 0, which means never.
+     */
+    int getParallelWriteThreshold();
+
     /**
      * @return int size of LRU Cache used to cache Class to Field and Class to Accessor
      */
     int getLruSize();
 
+    /**
+     * @return boolean 'true' if the Class to Field, Class to Accessor, and write plan caches are held in a
+     * ClassValue-backed cache (lock-free reads, entries released on class unloading, no size bound) instead of an
+     * LRU cache bounded by lruSize.  The default is 'false.'
+     */
+    boolean isClassValueCache();
+
     /**
      * @return ClassLoader to be used when writing JSON to resolve String named classes.
      */
@@ -180,9 +200,32 @@ public interface WriteOptions {
      * @return JsonClassWriter for the custom class (if one exists), null otherwise.
      */
     JsonWriter.JsonClassWriter getCustomWriter(Class<?> c);
+
+    /**
+     * @return read-only Map of each Class to the custom writer registered for it (including the config/*.txt
+     * defaults).  Iterating it resolves every registered class name.
+     */
+    Map<Class<?>, JsonWriter.JsonClassWriter> getCustomWriters();
     
     void clearCaches();
 
+    /**
+     * Eagerly build the per-class metadata used when writing instances of the passed in classes: the deep field
+     * map, Accessors, compiled write plan, and custom writer resolution.  Call this at startup so that the first
+     * real write of each class runs at steady-state speed.  With the default LRU cache, warmed entries can still
+     * be evicted if more than lruSize classes are used; use classValueCache(true) to keep them for the life of
+     * the class.
+     * @param classes Classes to warm up.
+     */
+    void warmUp(Class<?>... classes);
+
+    /**
+     * Warm up (see warmUp(Class...)) every class found in the passed in packages and their sub-packages, located
+     * with this WriteOptions' ClassLoader.  Anonymous and synthetic classes are skipped.
+     * @param packageNames String package names, e.g. "com.acme.dto"
+     */
+    void warmUpPackages(String... packageNames);
+
     /**
      * Gets the declared fields for the full class hierarchy of a given class
      *
@@ -58,8 +58,10 @@ public class WriteOptionsBuilder {
     public static final String ISO_DATE_FORMAT = "yyyy-MM-dd";
     public static final String ISO_DATE_TIME_FORMAT = "yyyy-MM-dd'T'HH:mm:ss";
     private static final Map<String, String> BASE_ALIAS_MAPPINGS = new ConcurrentHashMap<>();
-    private static final Map<Class<?>, JsonWriter.JsonClassWriter> BASE_WRITERS = new ConcurrentHashMap<>();
-    private static final Set<Class<?>> BASE_NON_REFS = ConcurrentHashMap.newKeySet();
+    // The config/*.txt registries are loaded by class name, and each entry is resolved the first time its class
+    // is looked up, so only the classes actually written are loaded.
+    private static final LazyClassMap<JsonWriter.JsonClassWriter> BASE_WRITERS = new LazyClassMap<>();
+    private static final LazyClassSet BASE_NON_REFS = new LazyClassSet();
     static final Map<Class<?>, Set<String>> BASE_EXCLUDED_FIELD_NAMES = new ConcurrentHashMap<>();
     private static final Map<Class<?>, Map<String, String>> BASE_NONSTANDARD_GETTERS = new ConcurrentHashMap<>();
     private static final Map<String, FieldFilter> BASE_FIELD_FILTERS = new ConcurrentHashMap<>();
@@ -69,7 +71,7 @@ public class WriteOptionsBuilder {
     private final DefaultWriteOptions options;
 
     static {
-        ReadOptionsBuilder.loadBaseAliasMappings(WriteOptionsBuilder::addPermanentAlias);
+        ReadOptionsBuilder.loadBaseAliasMappings(BASE_ALIAS_MAPPINGS::put);
         loadBaseWriters();
         loadBaseNonRefs();
         loadBaseExcludedFields();
@@ -131,11 +133,14 @@ public class WriteOptionsBuilder {
             // Copy simple settings
             options.allowNanAndInfinity = other.allowNanAndInfinity;
             options.closeStream = other.closeStream;
+            options.parallelReferenceTracing = other.parallelReferenceTracing;
+            options.parallelWriteThreshold = other.parallelWriteThreshold;
             options.classLoader = other.classLoader;
             options.enumPublicFieldsOnly = other.enumPublicFieldsOnly;
             options.forceMapOutputAsTwoArrays = other.forceMapOutputAsTwoArrays;
             options.prettyPrint = other.prettyPrint;
             options.lruSize = other.lruSize;
+            options.classValueCache = other.classValueCache;
             options.shortMetaKeys = other.shortMetaKeys;
             options.showTypeInfo = other.showTypeInfo;
             options.skipNullFields = other.skipNullFields;
@@ -172,12 +177,11 @@ public class WriteOptionsBuilder {
             options.accessorFactories.clear();
             options.accessorFactories.putAll(other.accessorFactories);
 
-            // Copy caches
-            options.accessorsCache = new LRUCache<>(other.lruSize);
-            options.accessorsCache.putAll(other.accessorsCache);
-
-            options.classMetaCache = new LRUCache<>(other.lruSize);
-            options.classMetaCache.putAll(other.classMetaCache);
+            // Caches are not copied.  They are cleared by build(), and the option-independent metadata (Fields,
+            // MethodHandles) they are built from is shared JVM-wide through MetadataRegistry.
+            options.accessorsCache = options.newClassCache(null);
+            options.classMetaCache = options.newClassCache(null);
+            options.writePlanCache = options.newClassCache(null);
         }
     }
 
@@ -421,14 +425,21 @@ public class WriteOptionsBuilder {
      */
     public WriteOptionsBuilder lruSize(int size) {
         options.lruSize = size;
+        options.rebuildCaches();
+        return this;
+    }
 
-        Map<Class<?>, List<Accessor>> accessorCacheCopy = options.accessorsCache;
-        options.accessorsCache = new LRUCache<>(options.getLruSize());
-        options.accessorsCache.putAll(accessorCacheCopy);
-
-        Map<Class<?>, Map<String, Field>> classMetaCacheCopy = options.classMetaCache;
-        options.classMetaCache = new LRUCache<>(options.getLruSize());
-        options.classMetaCache.putAll(classMetaCacheCopy);
+    /**
+     * Hold the per-class metadata (Class to Field, Class to Accessor, and compiled write plans) in a
+     * ClassValue-backed cache instead of an LRU cache.  Lookups are lock-free and do not update LRU ordering, so
+     * this scales better when many threads write concurrently.  Entries are released when their Class is unloaded
+     * rather than evicted by size, so lruSize() no longer bounds these caches.
+     * @param classValueCache boolean true to use a ClassValue-backed cache, false (default) to use an LRU cache.
+     * @return WriteOptionsBuilder for chained access.
+     */
+    public WriteOptionsBuilder classValueCache(boolean classValueCache) {
+        options.classValueCache = classValueCache;
+        options.rebuildCaches();
         return this;
     }
     
@@ -511,6 +522,39 @@ public class WriteOptionsBuilder {
         return this;
     }
 
+    /**
+     * @param parallelReferenceTracing boolean set to 'true' to have JsonWriter trace the object graph (to determine
+     *                                 which objects need an @id) in parallel on the ForkJoin common pool.  This
+     *                                 only pays off for very large object graphs (millions of instances).  The
+     *                                 default is 'false'.  The JSON written is equivalent, although the @id values
+     *                                 may be numbered differently.
+     * @return WriteOptionsBuilder for chained access.
+     */
+    public WriteOptionsBuilder parallelReferenceTracing(boolean parallelReferenceTracing) {
+        options.parallelReferenceTracing = parallelReferenceTracing;
+        return this;
+    }
+
+    /**
+     * @param parallelWriteThreshold int minimum number of elements a List (RandomAccess) or Object[] must hold
+     *                               before JsonWriter serializes its elements in parallel.  The elements are split
+     *                               into contiguous ranges, each range is written into its own byte buffer on the
+     *                               ForkJoin common pool, and the buffers are spliced into the output in order.
+     *                               Use this for very large collections of independent elements (hundreds of
+     *                               thousands or more).  The default is 0, which turns it off.  The JSON written
+     *                               reads back the same, although when instances are shared between elements, which
+     *                               occurrence carries the @id (and which are written as @ref) may vary between runs.
+     *                               Subclasses of JsonWriter ignore this setting and always write sequentially.
+     * @return WriteOptionsBuilder for chained access.
+     */
+    public WriteOptionsBuilder parallelWriteThreshold(int parallelWriteThreshold) {
+        if (parallelWriteThreshold < 0) {
+            throw new JsonIoException("parallelWriteThreshold cannot be negative: " + parallelWriteThreshold);
+        }
+        options.parallelWriteThreshold = parallelWriteThreshold;
+        return this;
+    }
+
     /**
      * @param customWrittenClasses Map of Class to JsonWriter.JsonClassWriter.  Establish the passed in Map as the
      *                             established Map of custom writers to be used when writing JSON. Using this method
@@ -813,12 +857,12 @@ public class WriteOptionsBuilder {
         options.nonStandardGetters = Collections.unmodifiableMap(options.nonStandardGetters);
         options.aliasTypeNames = Collections.unmodifiableMap(options.aliasTypeNames);
         options.notCustomWrittenClasses = Collections.unmodifiableSet(options.notCustomWrittenClasses);
-        options.nonRefClasses = Collections.unmodifiableSet(options.nonRefClasses);
+        options.nonRefClasses.seal();
         options.excludedFieldNames = Collections.unmodifiableMap(options.excludedFieldNames);
         options.fieldFilters = Collections.unmodifiableMap(options.fieldFilters);
         options.methodFilters = Collections.unmodifiableMap(options.methodFilters);
         options.accessorFactories = Collections.unmodifiableMap(options.accessorFactories);
-        options.customWrittenClasses = Collections.unmodifiableMap(options.customWrittenClasses);
+        options.customWrittenClasses.seal();
         options.customOptions = Collections.unmodifiableMap(options.customOptions);
         return options;
     }
@@ -828,24 +872,27 @@ public class WriteOptionsBuilder {
         private ShowType showTypeInfo = WriteOptions.ShowType.MINIMAL;
         private boolean prettyPrint = false;
         private int lruSize = 1000;
+        private boolean classValueCache = false;
         private boolean writeLongsAsStrings = false;
         private boolean skipNullFields = false;
         private boolean forceMapOutputAsTwoArrays = false;
         private boolean allowNanAndInfinity = false;
         private boolean enumPublicFieldsOnly = false;
         private boolean closeStream = true;
+        private boolean parallelReferenceTracing = false;
+        private int parallelWriteThreshold = 0;
         private JsonWriter.JsonClassWriter enumWriter = new Writers.EnumsAsStringWriter();
         private ClassLoader classLoader = WriteOptions.class.getClassLoader();
         private Map<Class<?>, Set<String>> includedFieldNames = new LinkedHashMap<>();
         private Map<Class<?>, Map<String, String>> nonStandardGetters = new LinkedHashMap<>();
         private Map<String, String> aliasTypeNames = new LinkedHashMap<>();
         private Set<Class<?>> notCustomWrittenClasses = new LinkedHashSet<>();
-        private Set<Class<?>> nonRefClasses = new LinkedHashSet<>();
+        private LazyClassSet nonRefClasses = new LazyClassSet();
         private Map<Class<?>, Set<String>> excludedFieldNames = new LinkedHashMap<>();
         private Map<String, FieldFilter> fieldFilters = new LinkedHashMap<>();
         private Map<String, MethodFilter> methodFilters = new LinkedHashMap<>();
         private Map<String, AccessorFactory> accessorFactories = new LinkedHashMap<>();
-        private Map<Class<?>, JsonWriter.JsonClassWriter> customWrittenClasses = new LinkedHashMap<>();
+        private LazyClassMap<JsonWriter.JsonClassWriter> customWrittenClasses = new LazyClassMap<>();
         private Map<String, Object> customOptions = new LinkedHashMap<>();
 
         // Runtime caches (not feature options), since looking up writers can be expensive
@@ -857,6 +904,9 @@ public class WriteOptionsBuilder {
 
         private Map<Class<?>, Map<String, Field>> classMetaCache = new LRUCache<>(lruSize);
 
+        // Compiled per-class write plans (built from the Accessors above plus these options)
+        private Map<Class<?>, WritePlan> writePlanCache = new LRUCache<>(lruSize);
+
         /**
          * Default Constructor.  Prevent instantiation outside of package.
          */
@@ -973,6 +1023,14 @@ public class WriteOptionsBuilder {
             return lruSize;
         }
 
+        /**
+         * @return boolean 'classValueCache' setting, true if per-class metadata is held in a ClassValue-backed
+         * cache, false if it is held in an LRU cache bounded by lruSize.  Default is false.
+         */
+        public boolean isClassValueCache() {
+            return classValueCache;
+        }
+
         /**
          * @return boolean 'writeLongsAsStrings' setting, true indicating longs will be written as Strings,
          * false to write them out as native JSON longs.  Writing Strings as Longs to the JSON, will fix errors
@@ -1028,6 +1086,20 @@ public class WriteOptionsBuilder {
             return closeStream;
         }
 
+        /**
+         * @return boolean 'true' if the reference trace is performed in parallel.  The default is 'false.'
+         */
+        public boolean isParallelReferenceTracing() {
+            return parallelReferenceTracing;
+        }
+
+        /**
+         * @return int minimum element count for writing a List or Object[] in parallel.  The default is 0 (never).
+         */
+        public int getParallelWriteThreshold() {
+            return parallelWriteThreshold;
+        }
+
         /**
          * @return ClassLoader to be used when writing JSON to resolve String named classes.
          */
@@ -1059,10 +1131,14 @@ public class WriteOptionsBuilder {
         }
 
         public JsonWriter.JsonClassWriter findCustomWriter(Class<?> c) {
-            JsonWriter.JsonClassWriter writer = MetaUtils.findClosest(c, customWrittenClasses, nullWriter);
+            JsonWriter.JsonClassWriter writer = customWrittenClasses.findClosest(c, nullWriter);
             return writer != nullWriter ? writer : MetaUtils.getClassIfEnum(c).isPresent() ? enumWriter : nullWriter;
         }
 
+        public Map<Class<?>, JsonWriter.JsonClassWriter> getCustomWriters() {
+            return Collections.unmodifiableMap(customWrittenClasses);
+        }
+
         public Object getCustomOption(String key)
         {
             return customOptions.get(key);
@@ -1079,6 +1155,63 @@ public class WriteOptionsBuilder {
         public void clearCaches() {
             classMetaCache.clear();
             accessorsCache.clear();
+            writePlanCache.clear();
+        }
+
+        public void warmUp(Class<?>... classes) {
+            for (Class<?> c : classes) {
+                if (c == null || c.isPrimitive()) {
+                    continue;
+                }
+                getCustomWriter(c);
+                if (c.isArray() || c.isInterface()) {
+                    continue;
+                }
+                getDeepDeclaredFields(c);
+                getAccessorsForClass(c);
+                getWritePlan(c);
+            }
+        }
+
+        public void warmUpPackages(String... packageNames) {
+            for (String packageName : packageNames) {
+                for (Class<?> c : MetaUtils.findClassesInPackage(packageName, classLoader)) {
+                    if (!c.isAnonymousClass() && !c.isSynthetic()) {
+                        warmUp(c);
+                    }
+                }
+            }
+        }
+
+        /**
+         * @param existing Map holding entries to carry over to the new cache.  Can be null.
+         * @return a new, empty ClassValueCache or LRUCache (per the current settings) with the existing entries.
+         */
+        private <V> Map<Class<?>, V> newClassCache(Map<Class<?>, V> existing) {
+            Map<Class<?>, V> cache;
+            if (classValueCache) {
+                cache = new ClassValueCache<>();
+            } else {
+                cache = new LRUCache<>(lruSize);
+            }
+            if (existing != null) {
+                cache.putAll(existing);
+            }
+            return cache;
+        }
+
+        private void rebuildCaches() {
+            accessorsCache = newClassCache(accessorsCache);
+            classMetaCache = newClassCache(classMetaCache);
+            writePlanCache = newClassCache(null);
+        }
+
+        /**
+         * @param c Class to fetch the compiled WritePlan for.
+         * @return WritePlan for the passed in Class, built once and cached.
+         */
+        WritePlan getWritePlan(final Class<?> c) {
+            return writePlanCache.computeIfAbsent(c, clazz -> WritePlan.compile(this, clazz));
         }
 
         private List<Accessor> buildDeepAccessors(final Class<?> clazz) {
@@ -1196,9 +1329,7 @@ public class WriteOptionsBuilder {
 
     /**
      * Load custom writer classes based on contents of resources/customWriters.txt.
-     * Verify that classes listed are indeed valid classes loaded in the JVM.
-     *
-     * @return Map<Class < ?>, JsonWriter.JsonClassWriter> containing the resolved Class -> JsonClassWriter instance.
+     * Classes listed are resolved the first time they are looked up.
      */
     private static void loadBaseWriters() {
         Map<String, String> map = MetaUtils.loadMapDefinition("config/customWriters.txt");
@@ -1207,38 +1338,30 @@ public class WriteOptionsBuilder {
         for (Map.Entry<String, String> entry : map.entrySet()) {
             String className = entry.getKey();
             String writerClassName = entry.getValue();
-            Class<?> clazz = ClassUtilities.forName(className, classLoader);
-            if (clazz == null) {
-                System.out.println("Class: " + className + " not defined in the JVM, so custom writer: " + writerClassName + ", will not be used.");
-                continue;
-            }
-            Class<JsonWriter.JsonClassWriter> customWriter = (Class<JsonWriter.JsonClassWriter>) ClassUtilities.forName(writerClassName, classLoader);
-            if (customWriter == null) {
-                System.out.println("Note: class not found (custom JsonClassWriter class): " + writerClassName + ", listed in resources/customWriters.txt as a custom writer for: " + className);
-            }
-            try {
-                JsonWriter.JsonClassWriter writer = customWriter.newInstance();
-                addPermanentWriter(clazz, writer);
-            } catch (Exception e) {
-                System.out.println("Note: class failed to instantiate (a custom JsonClassWriter class): " + writerClassName + ", listed in resources/customWriters.txt as a custom writer for: " + className);
-            }
+            BASE_WRITERS.putLazy(className, classLoader, clazz -> {
+                Class<JsonWriter.JsonClassWriter> customWriter = (Class<JsonWriter.JsonClassWriter>) ClassUtilities.forName(writerClassName, classLoader);
+                if (customWriter == null) {
+                    System.out.println("Note: class not found (custom JsonClassWriter class): " + writerClassName + ", listed in resources/customWriters.txt as a custom writer for: " + className);
+                    return null;
+                }
+                try {
+                    return customWriter.newInstance();
+                } catch (Exception e) {
+                    System.out.println("Note: class failed to instantiate (a custom JsonClassWriter class): " + writerClassName + ", listed in resources/customWriters.txt as a custom writer for: " + className);
+                    return null;
+                }
+            });
         }
     }
 
     /**
      * Load the list of classes that are intended to be treated as non-referenceable, immutable classes.
-     *
-     * @return Set<Class < ?>> which is the loaded from resource/nonRefs.txt and verified to exist in JVM.
+     * Classes listed in resource/nonRefs.txt are resolved the first time they are looked up.
      */
     static void loadBaseNonRefs() {
         Set<String> set = MetaUtils.loadSetDefinition("config/nonRefs.txt");
-        set.forEach((className) -> {
-            Class<?> clazz = ClassUtilities.forName(className, WriteOptions.class.getClassLoader());
-            if (clazz == null) {
-                System.out.println("Class: " + className + " undefined.  Cannot be used as non-referenceable class, listed in resources/nonRefs.txt");
-            }
-            addPermanentNonRef(clazz);
-        });
+        ClassLoader classLoader = WriteOptions.class.getClassLoader();
+        set.forEach((className) -> BASE_NON_REFS.addLazy(className, classLoader));
     }
     
     private static void loadBaseExcludedFields() {
@@ -0,0 +1,257 @@
+package com.cedarsoftware.io;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.cedarsoftware.io.reflect.Accessor;
+import com.cedarsoftware.io.reflect.factories.LambdaAccessorFactory;
+import com.cedarsoftware.io.writers.LongWriter;
+import com.cedarsoftware.util.ClassUtilities;
+
+/**
+ * A WritePlan is the "compiled" form of how instances of one Class are written as a JSON object.  It is built
+ * once per Class (per WriteOptions) from the Class's Accessors.  Everything that depends only on the Class and
+ * the WriteOptions - not on the field values - is decided up front:
+ * <ul>
+ *     <li>Fields that are never written (non-public enum fields when only public enum fields are requested) are
+ *     dropped from the plan.</li>
+ *     <li>The <code>"fieldName":</code> token is pre-built.</li>
+ *     <li>For fields whose runtime type is known from the declaration (primitive fields, and fields whose declared
+ *     type is a final class), the @type emission decision is made and the custom writer (if any) is bound.</li>
+ * </ul>
+ * For the other fields, each FieldWriter keeps a small polymorphic inline cache: the @type decision and custom
+ * writer (or the absence of one) for each of the first few runtime classes seen in that field.  Fields that keep
+ * seeing classes beyond those (megamorphic) stop caching, and JsonWriter falls back to the general (per-value)
+ * logic for the classes that are not cached.
+ *
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License");
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+final class WritePlan {
+    private final FieldWriter[] fieldWriters;
+    private final boolean skipNullFields;
+
+    private WritePlan(FieldWriter[] fieldWriters, boolean skipNullFields) {
+        this.fieldWriters = fieldWriters;
+        this.skipNullFields = skipNullFields;
+    }
+
+    FieldWriter[] getFieldWriters() {
+        return fieldWriters;
+    }
+
+    boolean isSkipNullFields() {
+        return skipNullFields;
+    }
+
+    /**
+     * Build the WritePlan for the passed in Class.
+     * @param writeOptions WriteOptions in effect - the plan is only valid for these options.
+     * @param c Class to build the plan for.
+     * @return WritePlan for the Class.
+     */
+    static WritePlan compile(WriteOptions writeOptions, Class<?> c) {
+        List<Accessor> accessors = writeOptions.getAccessorsForClass(c);
+        List<FieldWriter> writers = new ArrayList<>(accessors.size());
+
+        for (Accessor accessor : accessors) {
+            if (Enum.class.isAssignableFrom(accessor.getDeclaringClass()) && !accessor.isPublic() && writeOptions.isEnumPublicFieldsOnly()) {
+                continue;
+            }
+            writers.add(new FieldWriter(writeOptions, accessor));
+        }
+        return new WritePlan(writers.toArray(new FieldWriter[0]), writeOptions.isSkipNullFields());
+    }
+
+    /**
+     * The @type emission decision and custom writer for values of one runtime Class held in a field of one
+     * declared type.  Depends only on the two Classes and the WriteOptions.
+     */
+    static final class Binding {
+        private final Class<?> runtimeClass;
+        private final boolean showType;
+        private final JsonWriter.JsonClassWriter writer;
+
+        private Binding(WriteOptions writeOptions, Class<?> declaredType, Class<?> runtimeClass) {
+            this.runtimeClass = runtimeClass;
+            this.showType = !writeOptions.isNeverShowingType() && JsonWriter.isForceType(writeOptions, runtimeClass, declaredType);
+            this.writer = writeOptions.isNotCustomWrittenClass(runtimeClass) ? null : writeOptions.getCustomWriter(runtimeClass);
+        }
+
+        boolean isShowType() {
+            return showType;
+        }
+
+        /**
+         * @return JsonClassWriter for the runtime Class, or null if that Class has no custom writer.
+         */
+        JsonWriter.JsonClassWriter getWriter() {
+            return writer;
+        }
+    }
+
+    /**
+     * Pre-resolved writer for a single field of a Class.  It does not keep the WriteOptions it was built for: a
+     * plan cached in a ClassValue owned by the WriteOptions (classValueCache) would otherwise keep them reachable
+     * for as long as the Class is loaded.
+     */
+    static final class FieldWriter {
+        // Runtime classes cached per polymorphic field
+        private static final int MAX_BINDINGS = 4;
+        // Classes seen once the cache is full, before the field is treated as megamorphic
+        private static final int MAX_MISSES = 4;
+        private static final Binding[] NO_BINDINGS = new Binding[0];
+        private final Accessor accessor;
+        private final String nameToken;
+        private final Class<?> declaredType;
+        private final Binding bound;
+        private final LambdaAccessorFactory.LambdaAccessor unboxed;
+        private volatile Binding[] cached = NO_BINDINGS;   // copy-on-write
+        private int misses;     // racy by design - an extra miss or two only delays going megamorphic
+
+        FieldWriter(WriteOptions writeOptions, Accessor accessor) {
+            this.accessor = accessor;
+            this.nameToken = "\"" + accessor.getUniqueFieldName() + "\":";
+            this.declaredType = accessor.getFieldType();
+            Class<?> boundClass = knownRuntimeClass(declaredType);
+            this.bound = boundClass == null ? null : new Binding(writeOptions, declaredType, boundClass);
+            this.unboxed = isUnboxable(writeOptions, accessor, bound) ? (LambdaAccessorFactory.LambdaAccessor) accessor : null;
+        }
+
+        /**
+         * An int, long, or double field can be read without boxing when its getter was bound by the
+         * LambdaAccessorFactory and its value would go to the standard primitive writer with no @type, so
+         * writing the primitive's String form directly produces the same JSON.
+         */
+        private static boolean isUnboxable(WriteOptions writeOptions, Accessor accessor, Binding bound) {
+            if (!(accessor instanceof LambdaAccessorFactory.LambdaAccessor) || !((LambdaAccessorFactory.LambdaAccessor) accessor).isUnboxed()) {
+                return false;
+            }
+            if (bound == null || bound.showType || bound.writer == null) {
+                return false;
+            }
+            final Class<?> writerClass = bound.writer.getClass();
+            if (bound.runtimeClass == Integer.class) {
+                return writerClass == Writers.PrimitiveValueWriter.class;
+            } else if (bound.runtimeClass == Long.class) {
+                return writerClass == LongWriter.class && !writeOptions.isWriteLongsAsStrings();
+            } else if (bound.runtimeClass == Double.class) {
+                return writerClass == Writers.DoubleWriter.class;
+            }
+            return false;
+        }
+
+        /**
+         * @param writeOptions WriteOptions this FieldWriter's plan was built for.
+         * @param c runtime Class of a non-null value of this field.
+         * @return the @type decision and custom writer for values of Class c, or null if the value must go
+         * through the general per-value logic in JsonWriter.
+         */
+        Binding bindingFor(WriteOptions writeOptions, Class<?> c) {
+            if (bound != null) {
+                return bound.runtimeClass == c ? bound : null;
+            }
+            final Binding[] bindings = cached;
+            for (Binding binding : bindings) {
+                if (binding.runtimeClass == c) {
+                    return binding;
+                }
+            }
+            if (misses >= MAX_MISSES || isSecurityConcern(c)) {
+                return null;
+            }
+            Binding binding = new Binding(writeOptions, declaredType, c);
+            if (bindings.length < MAX_BINDINGS) {
+                Binding[] grown = Arrays.copyOf(bindings, bindings.length + 1);
+                grown[bindings.length] = binding;
+                cached = grown;     // a racing append may be lost, and is simply rebuilt on a later write
+            } else {
+                misses++;
+            }
+            return binding;
+        }
+
+        /**
+         * Instances of these classes are written as null by JsonWriter.writeImpl(), so they are never bound.
+         */
+        private static boolean isSecurityConcern(Class<?> c) {
+            return ProcessBuilder.class.isAssignableFrom(c) || Process.class.isAssignableFrom(c) ||
+                    ClassLoader.class.isAssignableFrom(c) || Constructor.class.isAssignableFrom(c) ||
+                    Method.class.isAssignableFrom(c) || Field.class.isAssignableFrom(c);
+        }
+
+        /**
+         * @return the only Class a non-null value of the field can have, or null if that is not knowable from
+         * the declaration.  Security-sensitive classes are never bound, so they always go through the checks in
+         * JsonWriter.writeImpl().
+         */
+        private static Class<?> knownRuntimeClass(Class<?> declaredType) {
+            if (declaredType.isPrimitive()) {
+                return ClassUtilities.toPrimitiveWrapperClass(declaredType);
+            }
+            if (declaredType.isArray() || declaredType.isInterface() || !Modifier.isFinal(declaredType.getModifiers())) {
+                return null;
+            }
+            if (declaredType == Constructor.class || declaredType == Method.class || declaredType == Field.class || declaredType == ProcessBuilder.class) {
+                return null;
+            }
+            return declaredType;
+        }
+
+        Accessor getAccessor() {
+            return accessor;
+        }
+
+        String getNameToken() {
+            return nameToken;
+        }
+
+        Class<?> getDeclaredType() {
+            return declaredType;
+        }
+
+        /**
+         * @return the field's LambdaAccessor when the field is an int, long, or double that can be written
+         * straight from its retrieveInt()/retrieveLong()/retrieveDouble() value, otherwise null.
+         */
+        LambdaAccessorFactory.LambdaAccessor getUnboxedAccessor() {
+            return unboxed;
+        }
+
+        /**
+         * @return Class that the pre-made decisions (showType, custom writer) apply to, or null if none were made.
+         */
+        Class<?> getBoundClass() {
+            return bound == null ? null : bound.runtimeClass;
+        }
+
+        boolean isBoundShowType() {
+            return bound != null && bound.showType;
+        }
+
+        /**
+         * @return JsonClassWriter bound to the field's runtime Class, or null if that Class has no custom writer.
+         */
+        JsonWriter.JsonClassWriter getBoundWriter() {
+            return bound == null ? null : bound.writer;
+        }
+    }
+}
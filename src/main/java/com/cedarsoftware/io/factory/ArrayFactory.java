@@ -1,6 +1,7 @@
 package com.cedarsoftware.io.factory;
 
 import java.lang.reflect.Array;
+import java.util.function.IntFunction;
 
 import com.cedarsoftware.io.JsonObject;
 import com.cedarsoftware.io.JsonReader;
@@ -39,15 +40,11 @@ public class ArrayFactory<T> implements JsonReader.ClassFactory {
             jObj.setTarget(null);
             return null;
         }
-        int len = items.length;
-        Class<?> arrayType = getType();
-        Class<?> componentType = arrayType.getComponentType();
-        Object array = Array.newInstance(componentType, len);
+        Class<?> componentType = getType().getComponentType();
 
-        for (int i = 0; i < len; i++) {
+        Object array = toArray(componentType, items.length, i -> {
             Object val = items[i];
-            if (val == null) {
-            } else if (val instanceof JsonObject) {
+            if (val instanceof JsonObject) {
                 Class<?> type;
                 do {
                     // Allow for {@type:long, value:{@type:int, value:3}}  (and so on...)
@@ -59,25 +56,118 @@ public class ArrayFactory<T> implements JsonReader.ClassFactory {
                     val = jsonObject.getValue();
                 } while (val instanceof JsonObject);
 
-                if (type == null) {
-                    type = componentType;
+                if (type != null) {
+                    val = converter.convert(val, type);
                 }
-                val = resolver.getConverter().convert(val, type);
-
-            } else {
-                val = resolver.getConverter().convert(val, componentType);
-            }
-            try {
-                Array.set(array, i, val);
-            } catch (Exception e) {
-                Array.set(array, i, converter.convert(val, componentType));
             }
-        }
+            return val;
+        }, converter);
 
         jObj.setTarget(array);
         return (T) jObj.getTarget();
     }
 
+    /**
+     * Create an array of the passed in component type and fill it, without going through Array.set() for each
+     * element.  The component type is examined once, and then a loop specific to it (int[], long[], ..., or any
+     * Object[] subtype such as String[] or an enum[]) stores the elements directly.  An element that is not already
+     * an instance of the component type (or, for primitives, its wrapper) is converted with the Converter.  A null
+     * element leaves a primitive slot at its default value.
+     * @param componentType Class of the array elements.
+     * @param len int length of the array.
+     * @param elements IntFunction returning the value for each index (0 to len - 1), called once per index, in order.
+     * @param converter Converter used for elements that are not of the component type.
+     * @return the new, filled array.
+     */
+    public static Object toArray(Class<?> componentType, int len, IntFunction<Object> elements, Converter converter) {
+        if (!componentType.isPrimitive()) {
+            Object[] array = (Object[]) Array.newInstance(componentType, len);
+            for (int i = 0; i < len; i++) {
+                Object val = elements.apply(i);
+                array[i] = val == null || componentType.isInstance(val) ? val : converter.convert(val, componentType);
+            }
+            return array;
+        }
+        if (componentType == int.class) {
+            int[] array = new int[len];
+            for (int i = 0; i < len; i++) {
+                Object val = elements.apply(i);
+                if (val != null) {
+                    array[i] = val instanceof Integer ? (Integer) val : converter.convert(val, int.class);
+                }
+            }
+            return array;
+        }
+        if (componentType == long.class) {
+            long[] array = new long[len];
+            for (int i = 0; i < len; i++) {
+                Object val = elements.apply(i);
+                if (val != null) {
+                    array[i] = val instanceof Long ? (Long) val : converter.convert(val, long.class);
+                }
+            }
+            return array;
+        }
+        if (componentType == double.class) {
+            double[] array = new double[len];
+            for (int i = 0; i < len; i++) {
+                Object val = elements.apply(i);
+                if (val != null) {
+                    array[i] = val instanceof Double ? (Double) val : converter.convert(val, double.class);
+                }
+            }
+            return array;
+        }
+        if (componentType == boolean.class) {
+            boolean[] array = new boolean[len];
+            for (int i = 0; i < len; i++) {
+                Object val = elements.apply(i);
+                if (val != null) {
+                    array[i] = val instanceof Boolean ? (Boolean) val : converter.convert(val, boolean.class);
+                }
+            }
+            return array;
+        }
+        if (componentType == byte.class) {
+            byte[] array = new byte[len];
+            for (int i = 0; i < len; i++) {
+                Object val = elements.apply(i);
+                if (val != null) {
+                    array[i] = val instanceof Byte ? (Byte) val : converter.convert(val, byte.class);
+                }
+            }
+            return array;
+        }
+        if (componentType == short.class) {
+            short[] array = new short[len];
+            for (int i = 0; i < len; i++) {
+                Object val = elements.apply(i);
+                if (val != null) {
+                    array[i] = val instanceof Short ? (Short) val : converter.convert(val, short.class);
+                }
+            }
+            return array;
+        }
+        if (componentType == float.class) {
+            float[] array = new float[len];
+            for (int i = 0; i < len; i++) {
+                Object val = elements.apply(i);
+                if (val != null) {
+                    array[i] = val instanceof Float ? (Float) val : converter.convert(val, float.class);
+                }
+            }
+            return array;
+        }
+        char[] array = new char[len];
+        for (int i = 0; i < len; i++) {
+            Object val = elements.apply(i);
+            if (val != null) {
+                array[i] = val instanceof Character ? (Character) val : converter.convert(val, char.class);
+            }
+        }
+        return array;
+    }
+
     public Class<?> getType() {
         return type;
     }
@@ -1,13 +1,20 @@
 package com.cedarsoftware.io.factory;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
+import com.cedarsoftware.io.JsonIoException;
 import com.cedarsoftware.io.JsonObject;
 import com.cedarsoftware.io.JsonReader;
 import com.cedarsoftware.io.MetaUtils;
 import com.cedarsoftware.io.Resolver;
+import com.cedarsoftware.util.ClassUtilities;
 
 /**
  * @author John DeRegnaucourt (jdereg@gmail.com)
@@ -27,47 +34,117 @@ import com.cedarsoftware.io.Resolver;
  *         limitations under the License.
  */
 public class RecordFactory implements JsonReader.ClassFactory {
+    private static final ClassValue<RecordBinder> binders = new ClassValue<RecordBinder>() {
+        protected RecordBinder computeValue(Class<?> c) {
+            return new RecordBinder(c);
+        }
+    };
+
     private RecordFactory() {}
 
+    /**
+     * Reads a record by binding each JSON field to the position of the record component with the same name, then
+     * calling the canonical constructor.  The component positions, types, and the constructor are looked up once
+     * per record class.  Components missing from the JSON are passed as null (or 0 / false for primitives).
+     * Registered for java.lang.Record by default (see ReadOptionsBuilder.recordReader()).
+     */
     public static class RecordReader implements JsonReader.JsonClassReader
     {
         public Object read(Object o, Resolver resolver)
         {
-            try {
-                JsonObject jsonObj = (JsonObject) o;
+            JsonObject jsonObj = (JsonObject) o;
+            RecordBinder binder = binders.get(jsonObj.getJavaType());
+            Object[] args = new Object[binder.types.length];
 
-                ArrayList<Class<?>> lParameterTypes = new ArrayList<>(jsonObj.size());
-                ArrayList<Object> lParameterValues = new ArrayList<>(jsonObj.size());
-
-                Class<?> c = jsonObj.getJavaType();
-                // the record components are per definition in the constructor parameter order
-                // we implement this with reflection due to code compatibility Java<16
-                Method getRecordComponents = Class.class.getMethod("getRecordComponents");
-                Object[] recordComponents = (Object[]) getRecordComponents.invoke(c);
-                for (Object recordComponent : recordComponents) {
-                    Class<?> type = (Class<?>) recordComponent.getClass().getMethod("getType").invoke(recordComponent);
-                    lParameterTypes.add(type);
+            for (Map.Entry<Object, Object> entry : jsonObj.entrySet()) {
+                Integer index = binder.indexes.get(entry.getKey());
+                if (index != null) {
+                    args[index] = binder.convert(index, entry.getValue(), resolver);
+                }
+            }
+            return binder.newInstance(args);
+        }
+    }
 
-                    String parameterName = (String) recordComponent.getClass().getMethod("getName").invoke(recordComponent);
-                    JsonObject paramValueJsonObj = new JsonObject();
+    /**
+     * Canonical constructor binding for one record class.  Written against reflection (not the RecordComponent
+     * API) so that json-io still compiles and runs on Java versions before 16.
+     */
+    private static final class RecordBinder {
+        private final Class<?> recordClass;
+        private final Map<Object, Integer> indexes = new HashMap<>();
+        private final Class<?>[] types;
+        private final Object[] defaults;
+        private final MethodHandle constructor;
 
-                    paramValueJsonObj.setJavaType(type);
-                    paramValueJsonObj.setValue(jsonObj.get(parameterName));
+        private RecordBinder(Class<?> c) {
+            recordClass = c;
+            try {
+                // The record components are, by definition, in the canonical constructor's parameter order.
+                Object[] components = (Object[]) Class.class.getMethod("getRecordComponents").invoke(c);
+                if (components == null) {
+                    throw new JsonIoException("Class is not a record: " + c.getName());
+                }
+                Class<?> componentClass = components.getClass().getComponentType();
+                Method getName = componentClass.getMethod("getName");
+                Method getType = componentClass.getMethod("getType");
 
-                    if (resolver.valueToTarget(paramValueJsonObj)) {
-                        lParameterValues.add(paramValueJsonObj.getTarget());
-                    } else {
-                        lParameterValues.add(paramValueJsonObj.getValue());
+                types = new Class<?>[components.length];
+                defaults = new Object[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    indexes.put(getName.invoke(components[i]), i);
+                    types[i] = (Class<?>) getType.invoke(components[i]);
+                    if (types[i].isPrimitive()) {
+                        defaults[i] = Array.get(Array.newInstance(types[i], 1), 0);
                     }
                 }
 
-                Constructor<?> constructor = c.getDeclaredConstructor(lParameterTypes.toArray(new Class[0]));
-                MetaUtils.trySetAccessible(constructor);
-                return constructor.newInstance(lParameterValues.toArray(new Object[0]));
+                Constructor<?> ctor = c.getDeclaredConstructor(types);
+                MetaUtils.trySetAccessible(ctor);
+                constructor = MethodHandles.lookup().unreflectConstructor(ctor)
+                        .asSpreader(Object[].class, types.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
             } catch (NoSuchMethodException e) {
-                throw new RuntimeException("Record de-serialization only works with java>=16.", e);
+                throw new JsonIoException("Record de-serialization only works with java>=16.", e);
+            } catch (JsonIoException e) {
+                throw e;
             } catch (Exception e) {
-                throw new RuntimeException(e);
+                throw new JsonIoException("Unable to bind record: " + c.getName(), e);
+            }
+        }
+
+        private Object convert(int index, Object value, Resolver resolver) {
+            if (value == null) {
+                return null;
+            }
+            Class<?> type = types[index];
+            if (value instanceof JsonObject) {
+                // Nested objects, arrays, and Collections (including other records) are resolved here, as the
+                // constructor needs them complete.
+                return resolver.toJavaObjects((JsonObject) value, type);
+            }
+            if (ClassUtilities.toPrimitiveWrapperClass(type).isInstance(value)) {
+                return value;
+            }
+
+            JsonObject paramValueJsonObj = new JsonObject();
+            paramValueJsonObj.setJavaType(type);
+            paramValueJsonObj.setValue(value);
+            return resolver.valueToTarget(paramValueJsonObj) ? paramValueJsonObj.getTarget() : paramValueJsonObj.getValue();
+        }
+
+        private Object newInstance(Object[] args) {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i] == null) {
+                    args[i] = defaults[i];
+                }
+            }
+            try {
+                return (Object) constructor.invokeExact(args);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new JsonIoException("Unable to instantiate record: " + recordClass.getName(), e);
             }
         }
     }
@@ -38,7 +38,11 @@ public class Accessor {
     private final MethodHandle methodHandle;
     private final boolean isPublic;
 
-    private Accessor(Field field, MethodHandle methodHandle, String uniqueFieldName, String fieldOrMethodName, boolean isPublic, boolean isMethod) {
+    /**
+     * Subclasses (for example, accessors produced by a custom AccessorFactory) can supply their own retrieve()
+     * implementation.
+     */
+    protected Accessor(Field field, MethodHandle methodHandle, String uniqueFieldName, String fieldOrMethodName, boolean isPublic, boolean isMethod) {
         this.field = field;
         this.methodHandle = methodHandle;
         this.uniqueFieldName = uniqueFieldName;
@@ -52,12 +56,11 @@ public class Accessor {
             MetaUtils.trySetAccessible(field);
         }
 
-        try {
-            MethodHandle handle = MethodHandles.lookup().unreflectGetter(field);
-            return new Accessor(field, handle, uniqueFieldName, field.getName(), Modifier.isPublic(field.getModifiers()), false);
-        } catch (IllegalAccessException ex) {
+        MethodHandle handle = MetadataRegistry.getGetter(field);
+        if (handle == null) {
             return null;
         }
+        return new Accessor(field, handle, uniqueFieldName, field.getName(), Modifier.isPublic(field.getModifiers()), false);
     }
 
     public static Accessor createMethodAccessor(Field field, String methodName, String uniqueFieldName) {
@@ -34,7 +34,7 @@ public class Injector {
     private final String displayName;
     private final String uniqueFieldName;
     private MethodHandle injector;
-
+    private MethodHandle getter;
 
     public Injector(Field field, MethodHandle handle, String uniqueFieldName, String displayName) {
         this.field = field;
@@ -58,12 +58,11 @@ public class Injector {
             }
         }
 
-        try {
-            MethodHandle handle = MethodHandles.lookup().unreflectSetter(field);
-            return new Injector(field, handle, uniqueFieldName, field.getName());
-        } catch (IllegalAccessException ignore) {
+        MethodHandle handle = MetadataRegistry.getSetter(field);
+        if (handle == null) {
             return null;
         }
+        return new Injector(field, handle, uniqueFieldName, field.getName());
     }
 
     public static Injector create(Field field, String methodName, String uniqueFieldName) {
@@ -84,14 +83,14 @@ public class Injector {
         }
 
         try {
-            injector.invoke(object, value);
+            injectValue(object, value);
         } catch (ClassCastException e) {
             String msg = e.getMessage();
             if (StringUtilities.hasContent(msg) && msg.contains("LinkedHashMap")) {
                 throw new JsonIoException("Unable to set field: " + getName() + " using " + getDisplayName() + ".", e);
             }
             try {
-                injector.invoke(object, Converter.convert(value, field.getType()));
+                injectValue(object, Converter.convert(value, field.getType()));
             } catch (Throwable t) {
                 throw new JsonIoException("Unable to set field: " + getName() + " using " + getDisplayName() + ". Getting a ClassCastException.", e);
             }
@@ -103,6 +102,38 @@ public class Injector {
         }
     }
 
+    /**
+     * Perform the actual assignment of the value.  Subclasses can override this to use a faster mechanism than
+     * MethodHandle.invoke(). Error handling and type conversion are handled by inject().
+     * @param object Object instance to set the value on.
+     * @param value Object value to set.
+     * @throws Throwable if the value cannot be set.  A ClassCastException will cause inject() to attempt a
+     * conversion of the value to the field type and try again.
+     */
+    protected void injectValue(Object object, Object value) throws Throwable {
+        injector.invoke(object, value);
+    }
+
+    /**
+     * Read the current value of the field.  Used when reading JSON into an existing instance, to find the object
+     * (or Collection, or Map) that a field already holds.
+     * @param object Object instance to read the field from.
+     * @return the field's value, or null if the field cannot be read.
+     */
+    public Object retrieve(Object object) {
+        if (getter == null) {
+            getter = MetadataRegistry.getGetter(field);
+            if (getter == null) {
+                return null;
+            }
+        }
+        try {
+            return getter.invoke(object);
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
     public Class<?> getType() {
         return field.getType();
     }
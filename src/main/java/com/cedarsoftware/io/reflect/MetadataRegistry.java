@@ -0,0 +1,123 @@
+package com.cedarsoftware.io.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.cedarsoftware.io.MetaUtils;
+
+/**
+ * JVM-wide registry of the per-class reflective metadata that does not depend on ReadOptions or WriteOptions:
+ * the declared Fields of a class and the getter/setter MethodHandles for those Fields.  Every ReadOptions and
+ * WriteOptions instance shares these, and layers only its own field filters, exclusions, and accessor/injector
+ * factories on top.  Services that build many options variants (e.g. per tenant) therefore reflect on each class
+ * once, rather than once per options instance.
+ * <br><br>
+ * Entries are held in a ClassValue, so they are released when the class is unloaded.  The MethodHandle lookups
+ * are package-private, for use by Accessor and Injector only.
+ *
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License");
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+public final class MetadataRegistry {
+    // ConcurrentHashMap cannot hold null, so this marks "no MethodHandle available" for a Field
+    private static final Object NO_HANDLE = new Object();
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final ClassValue<ClassEntry> entries = new ClassValue<ClassEntry>() {
+        protected ClassEntry computeValue(Class<?> type) {
+            return new ClassEntry(type);
+        }
+    };
+
+    private static final class ClassEntry {
+        private final List<Field> declaredFields;
+        private final ConcurrentMap<String, Object> getters = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Object> setters = new ConcurrentHashMap<>();
+
+        private ClassEntry(Class<?> c) {
+            declaredFields = Collections.unmodifiableList(Arrays.asList(c.getDeclaredFields()));
+        }
+    }
+
+    private MetadataRegistry() {
+    }
+
+    /**
+     * @param c Class to fetch the declared Fields of.
+     * @return unmodifiable List of the Fields declared directly on the Class (same content and order as
+     * Class.getDeclaredFields()), computed once per Class.
+     */
+    public static List<Field> getDeclaredFields(Class<?> c) {
+        return entries.get(c).declaredFields;
+    }
+
+    /**
+     * Package-private: the Field is made accessible, so only Accessor and Injector, which are handed Fields
+     * json-io has already accepted for reading or writing, may ask for a handle.
+     * @param field Field to fetch a getter MethodHandle for.  If needed, the Field is made accessible first.
+     * @return MethodHandle that reads the field, or null if the field cannot be accessed.  Computed once per Field.
+     */
+    static MethodHandle getGetter(Field field) {
+        Object handle = entries.get(field.getDeclaringClass()).getters.computeIfAbsent(field.getName(), name -> unreflectGetter(field));
+        return handle == NO_HANDLE ? null : (MethodHandle) handle;
+    }
+
+    /**
+     * Package-private for the same reason as getGetter().
+     * @param field Field to fetch a setter MethodHandle for.  If needed, the Field is made accessible first.
+     * @return MethodHandle that writes the field, or null if the field cannot be written (for example, a static
+     * final field, or a field that cannot be made accessible).  Computed once per Field.
+     */
+    static MethodHandle getSetter(Field field) {
+        Object handle = entries.get(field.getDeclaringClass()).setters.computeIfAbsent(field.getName(), name -> unreflectSetter(field));
+        return handle == NO_HANDLE ? null : (MethodHandle) handle;
+    }
+
+    private static Object unreflectGetter(Field field) {
+        if (!(Modifier.isPublic(field.getModifiers()) && Modifier.isPublic(field.getDeclaringClass().getModifiers()))) {
+            MetaUtils.trySetAccessible(field);
+        }
+
+        try {
+            return LOOKUP.unreflectGetter(field);
+        } catch (IllegalAccessException ex) {
+            return NO_HANDLE;
+        }
+    }
+
+    private static Object unreflectSetter(Field field) {
+        if (!Modifier.isStatic(field.getModifiers()) && !field.isAccessible()) {
+            try {
+                // it makes Lookup to be changed to trusted during the unreflectField
+                field.setAccessible(true);
+            } catch (Exception e) {
+                return NO_HANDLE;
+            }
+        }
+
+        try {
+            return LOOKUP.unreflectSetter(field);
+        } catch (IllegalAccessException ex) {
+            return NO_HANDLE;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.cedarsoftware.io.reflect.factories;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import com.cedarsoftware.io.reflect.Accessor;
+import com.cedarsoftware.io.reflect.AccessorFactory;
+
+/**
+ * AccessorFactory that binds public getter methods (getXxx(), isXxx() for booleans, or a non-standard getter
+ * name) with LambdaMetafactory.  The resulting Accessor calls the getter directly, rather than through a
+ * non-constant MethodHandle, so the call can be inlined by the JIT.  Getters returning int, long, or double
+ * are bound to ToIntFunction, ToLongFunction, and ToDoubleFunction, and can be read without boxing through
+ * {@link LambdaAccessor#retrieveInt(Object)}, {@link LambdaAccessor#retrieveLong(Object)} and
+ * {@link LambdaAccessor#retrieveDouble(Object)}.  JsonWriter's compiled write plans use these to write such
+ * fields without boxing when the value would be written by the standard primitive writer.
+ * <br><br>
+ * Fields without a usable public getter are not handled (null is returned), so the next AccessorFactory or the
+ * default field Accessor is used.  This factory covers both the "get" and "is" patterns, so it is intended to
+ * replace them:
+ * <pre>
+ * new WriteOptionsBuilder()
+ *         .removeAccessorFactory("get")
+ *         .removeAccessorFactory("is")
+ *         .addAccessorFactory("lambda", new LambdaAccessorFactory())
+ *         .build();
+ * </pre>
+ *
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License");
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+public class LambdaAccessorFactory implements AccessorFactory {
+    public Accessor buildAccessor(Field field, Map<Class<?>, Map<String, String>> nonStandardGetters, String uniqueFieldName) {
+        final Method method = findGetter(field, nonStandardGetters);
+        if (method == null || !LambdaSupport.isBindable(method)) {
+            return null;
+        }
+
+        final Class<?> receiver = method.getDeclaringClass();
+        final Class<?> type = method.getReturnType();
+        try {
+            if (type == int.class) {
+                ToIntFunction<Object> getter = LambdaSupport.bind(method, ToIntFunction.class, "applyAsInt",
+                        MethodType.methodType(int.class, Object.class), MethodType.methodType(int.class, receiver));
+                return new LambdaAccessor(field, uniqueFieldName, method.getName(), null, getter, null, null);
+            } else if (type == long.class) {
+                ToLongFunction<Object> getter = LambdaSupport.bind(method, ToLongFunction.class, "applyAsLong",
+                        MethodType.methodType(long.class, Object.class), MethodType.methodType(long.class, receiver));
+                return new LambdaAccessor(field, uniqueFieldName, method.getName(), null, null, getter, null);
+            } else if (type == double.class) {
+                ToDoubleFunction<Object> getter = LambdaSupport.bind(method, ToDoubleFunction.class, "applyAsDouble",
+                        MethodType.methodType(double.class, Object.class), MethodType.methodType(double.class, receiver));
+                return new LambdaAccessor(field, uniqueFieldName, method.getName(), null, null, null, getter);
+            }
+            Function<Object, Object> getter = LambdaSupport.bind(method, Function.class, "apply",
+                    MethodType.methodType(Object.class, Object.class), MethodType.methodType(Object.class, receiver));
+            return new LambdaAccessor(field, uniqueFieldName, method.getName(), getter, null, null, null);
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    private Method findGetter(Field field, Map<Class<?>, Map<String, String>> nonStandardGetters) {
+        final Class<?> c = field.getDeclaringClass();
+        final String possibleMethodName = getPossibleMethodName(nonStandardGetters, c, field.getName());
+
+        if (possibleMethodName != null) {
+            return findMethod(c, possibleMethodName, field.getType());
+        }
+
+        final String suffix = LambdaSupport.capitalize(field.getName());
+        Method method = findMethod(c, "get" + suffix, field.getType());
+        if (method == null && field.getType() == boolean.class) {
+            method = findMethod(c, "is" + suffix, field.getType());
+        }
+        return method;
+    }
+
+    private static Method findMethod(Class<?> c, String name, Class<?> returnType) {
+        try {
+            Method method = c.getMethod(name);
+            return method.getReturnType() == returnType ? method : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Accessor backed by a LambdaMetafactory generated getter.  Exactly one of the getters is set.
+     */
+    public static class LambdaAccessor extends Accessor {
+        private final Function<Object, Object> objectGetter;
+        private final ToIntFunction<Object> intGetter;
+        private final ToLongFunction<Object> longGetter;
+        private final ToDoubleFunction<Object> doubleGetter;
+
+        LambdaAccessor(Field field, String uniqueFieldName, String methodName, Function<Object, Object> objectGetter,
+                       ToIntFunction<Object> intGetter, ToLongFunction<Object> longGetter, ToDoubleFunction<Object> doubleGetter) {
+            super(field, null, uniqueFieldName, methodName, true, true);
+            this.objectGetter = objectGetter;
+            this.intGetter = intGetter;
+            this.longGetter = longGetter;
+            this.doubleGetter = doubleGetter;
+        }
+
+        public Object retrieve(Object o) {
+            try {
+                if (objectGetter != null) {
+                    return objectGetter.apply(o);
+                } else if (intGetter != null) {
+                    return intGetter.applyAsInt(o);
+                } else if (longGetter != null) {
+                    return longGetter.applyAsLong(o);
+                } else {
+                    return doubleGetter.applyAsDouble(o);
+                }
+            } catch (ThreadDeath td) {
+                throw td;
+            } catch (Throwable t) {
+                return null;
+            }
+        }
+
+        /**
+         * @return boolean true if the getter returns a primitive int, long, or double that can be fetched
+         * without boxing.
+         */
+        public boolean isUnboxed() {
+            return objectGetter == null;
+        }
+
+        /**
+         * Read an int property without boxing.  Only valid when the getter returns an int.
+         */
+        public int retrieveInt(Object o) {
+            return intGetter.applyAsInt(o);
+        }
+
+        /**
+         * Read a long property without boxing.  Only valid when the getter returns a long.
+         */
+        public long retrieveLong(Object o) {
+            return longGetter.applyAsLong(o);
+        }
+
+        /**
+         * Read a double property without boxing.  Only valid when the getter returns a double.
+         */
+        public double retrieveDouble(Object o) {
+            return doubleGetter.applyAsDouble(o);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.cedarsoftware.io.reflect.factories;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import com.cedarsoftware.io.reflect.Injector;
+import com.cedarsoftware.io.reflect.InjectorFactory;
+import com.cedarsoftware.util.ClassUtilities;
+
+/**
+ * InjectorFactory that binds public setter methods (setXxx(value), or a non-standard setter name) with
+ * LambdaMetafactory.  The resulting Injector calls the setter directly, rather than through a non-constant
+ * MethodHandle, so the call can be inlined by the JIT.  Primitive setters are bound with an unboxing adaptation
+ * generated into the lambda itself.
+ * <br><br>
+ * Fields without a usable public setter are not handled (null is returned), so the default field Injector is
+ * used.  Add it with:
+ * <pre>
+ * new ReadOptionsBuilder().addInjectorFactory(new LambdaInjectorFactory()).build();
+ * </pre>
+ *
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License");
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+public class LambdaInjectorFactory implements InjectorFactory {
+    public Injector createInjector(Field field, Map<Class<?>, Map<String, String>> nonStandardNames, String uniqueName) {
+        final Class<?> c = field.getDeclaringClass();
+        final String methodName = getMapping(nonStandardNames, c, field.getName())
+                .orElse("set" + LambdaSupport.capitalize(field.getName()));
+
+        final Method method;
+        try {
+            method = c.getMethod(methodName, field.getType());
+        } catch (Exception e) {
+            return null;
+        }
+
+        if (!LambdaSupport.isBindable(method)) {
+            return null;
+        }
+
+        try {
+            final Class<?> valueType = ClassUtilities.toPrimitiveWrapperClass(field.getType());
+            BiConsumer<Object, Object> setter = LambdaSupport.bind(method, BiConsumer.class, "accept",
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    MethodType.methodType(void.class, method.getDeclaringClass(), valueType));
+            return new LambdaInjector(field, setter, uniqueName, methodName);
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * Injector backed by a LambdaMetafactory generated setter.
+     */
+    public static class LambdaInjector extends Injector {
+        private final BiConsumer<Object, Object> setter;
+
+        LambdaInjector(Field field, BiConsumer<Object, Object> setter, String uniqueFieldName, String displayName) {
+            super(field, null, uniqueFieldName, displayName);
+            this.setter = setter;
+        }
+
+        protected void injectValue(Object object, Object value) {
+            setter.accept(object, value);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.cedarsoftware.io.reflect.factories;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Shared plumbing for the LambdaMetafactory based accessor and injector factories.  LambdaMetafactory spins a
+ * small class that calls the target method directly (invokevirtual), so the JIT sees an ordinary monomorphic
+ * call site instead of a non-constant MethodHandle.
+ *
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License");
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+final class LambdaSupport {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private LambdaSupport() {
+    }
+
+    /**
+     * The generated lambda class is linked from json-io's ClassLoader, so the target method must be public, on a
+     * public class, and that class must be visible from json-io's ClassLoader.
+     * @param method Method that the lambda will call.
+     * @return boolean true if a lambda can be bound to the method.
+     */
+    static boolean isBindable(Method method) {
+        if (Modifier.isStatic(method.getModifiers()) || !Modifier.isPublic(method.getModifiers())) {
+            return false;
+        }
+        final Class<?> c = method.getDeclaringClass();
+        if (!Modifier.isPublic(c.getModifiers()) || !isVisible(c) || !isVisible(method.getReturnType())) {
+            return false;
+        }
+        for (Class<?> paramType : method.getParameterTypes()) {
+            if (!isVisible(paramType)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isVisible(Class<?> c) {
+        while (c.isArray()) {
+            c = c.getComponentType();
+        }
+        if (c.isPrimitive()) {
+            return true;
+        }
+        try {
+            return Class.forName(c.getName(), false, LambdaSupport.class.getClassLoader()) == c;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    /**
+     * Bind the passed in Method to a new instance of a functional interface.
+     * @param method Method to call from the generated lambda.
+     * @param functionalInterface interface the lambda will implement (e.g. Function.class)
+     * @param samName String name of the single abstract method (e.g. "apply")
+     * @param samType MethodType of the erased single abstract method (e.g. (Object)Object)
+     * @param instantiatedType MethodType of the single abstract method, specialized to the target method.
+     * @return instance of the functional interface, typed as whatever the caller assigns it to.  The caller is
+     * responsible for passing samType/instantiatedType that match that parameterization.
+     * @throws Throwable if the lambda cannot be created.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T bind(Method method, Class<?> functionalInterface, String samName, MethodType samType, MethodType instantiatedType) throws Throwable {
+        final MethodHandle target = LOOKUP.unreflect(method);
+        final CallSite site = LambdaMetafactory.metafactory(LOOKUP,
+                samName,
+                MethodType.methodType(functionalInterface),
+                samType,
+                target,
+                instantiatedType);
+        return (T) site.getTarget().invoke();
+    }
+
+    static String capitalize(String fieldName) {
+        return Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+    }
+}
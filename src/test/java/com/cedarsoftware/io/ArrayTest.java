@@ -443,6 +443,22 @@ public class ArrayTest
         assertEquals(root._oBigDecs[2], new BigDecimal("123456789012345678901234567890.123456789012345678901234567890"));
     }
 
+    @Test
+    public void testPrimitiveArraysWithIdInsideCollection()
+    {
+        byte[] bytes = new byte[]{1, 2, 3};
+        int[] ints = new int[]{-1, 0, 1};
+        List<Object> list = new ArrayList<>(Arrays.asList(bytes, ints, bytes, ints));
+        String json = TestUtil.toJson(list);
+
+        List<?> result = TestUtil.toObjects(json, List.class);
+        assertEquals(4, result.size());
+        assertThat(result.get(0)).isEqualTo(bytes);
+        assertThat(result.get(1)).isEqualTo(ints);
+        assertSame(result.get(0), result.get(2));
+        assertSame(result.get(1), result.get(3));
+    }
+
     @Test
     public void testReconstituteObjectArray()
     {
@@ -0,0 +1,156 @@
+package com.cedarsoftware.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License")
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+class AsyncWriteTest {
+
+    static class Row {
+        long id;
+        String name;
+
+        Row() {
+        }
+
+        Row(long id) {
+            this.id = id;
+            this.name = "rowé😀" + id;
+        }
+    }
+
+    // Large enough to fill the ring of buffers several times over
+    private static List<Row> rows() {
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) {
+            rows.add(new Row(i));
+        }
+        return rows;
+    }
+
+    private static byte[] toJsonBytes(Object source) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonIo.toJson(out, source, null);
+        return out.toByteArray();
+    }
+
+    @Test
+    void testWritableByteChannel() throws Exception {
+        List<Row> rows = rows();
+        Path path = Files.createTempFile("json-io", ".json");
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE);
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                JsonIo.toJsonAsync(channel, rows, null, executor).get();
+            } finally {
+                executor.shutdown();
+            }
+
+            assertThat(channel.isOpen()).isFalse();
+            assertThat(Files.readAllBytes(path)).isEqualTo(toJsonBytes(rows));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testAsynchronousFileChannel() throws Exception {
+        List<Row> rows = rows();
+        Path path = Files.createTempFile("json-io", ".json");
+        try (AsynchronousFileChannel channel = AsynchronousFileChannel.open(path, StandardOpenOption.WRITE)) {
+            WriteOptions writeOptions = new WriteOptionsBuilder().closeStream(false).build();
+            JsonIo.toJsonAsync(channel, 0, rows, writeOptions).get();
+
+            assertThat(channel.isOpen()).isTrue();
+            assertThat(Files.readAllBytes(path)).isEqualTo(toJsonBytes(rows));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testChannelFailureCompletesExceptionally() {
+        WritableByteChannel failing = new WritableByteChannel() {
+            private int writes;
+            private boolean open = true;
+
+            public int write(ByteBuffer src) throws IOException {
+                if (++writes > 2) {
+                    throw new IOException("disk full");
+                }
+                int count = src.remaining();
+                src.position(src.limit());
+                return count;
+            }
+
+            public boolean isOpen() {
+                return open;
+            }
+
+            public void close() {
+                open = false;
+            }
+        };
+
+        CompletableFuture<Void> future = JsonIo.toJsonAsync(failing, rows(), null, Runnable::run);
+        assertThatThrownBy(future::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(JsonIoException.class)
+                .hasRootCauseMessage("disk full");
+        assertThat(failing.isOpen()).isFalse();
+    }
+
+    @Test
+    void testCallerOnSingleThreadedForkJoinPool() throws Exception {
+        // The producer and the channel writes share one worker; the producer's wait for a free buffer must let
+        // the pool compensate instead of deadlocking.
+        List<Row> rows = rows();
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        WritableByteChannel channel = Channels.newChannel(sink);
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            pool.submit(() -> JsonIo.toJsonAsync(channel, rows, null, pool).join()).get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdown();
+        }
+        assertThat(sink.toByteArray()).isEqualTo(toJsonBytes(rows));
+    }
+}
@@ -0,0 +1,159 @@
+package com.cedarsoftware.io;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License")
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+class ClassValueCacheTest {
+
+    static class Item {
+        String name;
+        long count;
+        List<String> tags;
+    }
+
+    @Test
+    void testMapOperations() {
+        ClassValueCache<String> cache = new ClassValueCache<>();
+        assertThat(cache.get(String.class)).isNull();
+        assertThat(cache.get("not a class")).isNull();
+        assertThat(cache.containsKey(String.class)).isFalse();
+
+        assertThat(cache.put(String.class, "s")).isNull();
+        assertThat(cache.put(String.class, "t")).isEqualTo("s");
+        assertThat(cache.get(String.class)).isEqualTo("t");
+        assertThat(cache.containsKey(String.class)).isTrue();
+
+        AtomicInteger calls = new AtomicInteger();
+        assertThat(cache.computeIfAbsent(Long.class, c -> c.getSimpleName() + calls.incrementAndGet())).isEqualTo("Long1");
+        assertThat(cache.computeIfAbsent(Long.class, c -> c.getSimpleName() + calls.incrementAndGet())).isEqualTo("Long1");
+
+        Map<Class<?>, String> source = new HashMap<>();
+        source.put(Integer.class, "i");
+        cache.putAll(source);
+        assertThat(cache.get(Integer.class)).isEqualTo("i");
+
+        assertThat(cache.remove(String.class)).isEqualTo("t");
+        assertThat(cache.get(String.class)).isNull();
+
+        cache.clear();
+        assertThat(cache.get(Long.class)).isNull();
+        assertThat(cache.get(Integer.class)).isNull();
+        assertThat(cache).isEmpty();
+    }
+
+    @Test
+    void testEntrySet() {
+        ClassValueCache<String> cache = new ClassValueCache<>();
+        cache.put(String.class, "s");
+        cache.put(Long.class, "l");
+        cache.computeIfAbsent(Integer.class, c -> "i");
+        cache.put(Double.class, "d");
+        cache.remove(Double.class);
+
+        Map<Class<?>, String> expected = new HashMap<>();
+        expected.put(String.class, "s");
+        expected.put(Long.class, "l");
+        expected.put(Integer.class, "i");
+        assertThat(cache).hasSize(3);
+        assertThat(cache).isEqualTo(expected);
+        assertThat(cache.hashCode()).isEqualTo(expected.hashCode());
+        assertThat(new HashMap<>(cache)).isEqualTo(expected);
+
+        ClassValueCache<String> copy = new ClassValueCache<>();
+        copy.putAll(cache);
+        assertThat(copy).isEqualTo(expected);
+
+        Iterator<Map.Entry<Class<?>, String>> it = cache.entrySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().getKey() == Long.class) {
+                it.remove();
+            }
+        }
+        assertThat(cache).containsOnlyKeys(String.class, Integer.class);
+        assertThat(cache.get(Long.class)).isNull();
+
+        cache.clear();
+        assertThat(cache).isEmpty();
+        assertThat(copy).hasSize(3);
+    }
+
+    @Test
+    void testBuilders_selectCache() {
+        WriteOptions writeOptions = new WriteOptionsBuilder().classValueCache(true).build();
+        ReadOptions readOptions = new ReadOptionsBuilder().classValueCache(true).build();
+        assertThat(writeOptions.isClassValueCache()).isTrue();
+        assertThat(readOptions.isClassValueCache()).isTrue();
+        assertThat(new WriteOptionsBuilder().build().isClassValueCache()).isFalse();
+        assertThat(new ReadOptionsBuilder().build().isClassValueCache()).isFalse();
+
+        // Setting survives copying and lruSize() changes
+        assertThat(new WriteOptionsBuilder(writeOptions).lruSize(10).build().isClassValueCache()).isTrue();
+        assertThat(new ReadOptionsBuilder(readOptions).lruSize(10).build().isClassValueCache()).isTrue();
+
+        assertThat(writeOptions.getAccessorsForClass(Item.class)).hasSize(3);
+        assertThat(writeOptions.getAccessorsForClass(Item.class)).isSameAs(writeOptions.getAccessorsForClass(Item.class));
+        assertThat(readOptions.getDeepInjectorMap(Item.class)).containsOnlyKeys("name", "count", "tags");
+    }
+
+    @Test
+    void testRoundTrip_concurrent() throws Exception {
+        WriteOptions writeOptions = new WriteOptionsBuilder().classValueCache(true).build();
+        ReadOptions readOptions = new ReadOptionsBuilder().classValueCache(true).build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] futures = new Future<?>[32];
+            for (int i = 0; i < futures.length; i++) {
+                final int n = i;
+                futures[i] = executor.submit(() -> {
+                    for (int j = 0; j < 50; j++) {
+                        Item item = new Item();
+                        item.name = "item" + n;
+                        item.count = j;
+                        item.tags = Arrays.asList("a", "b");
+                        String json = JsonIo.toJson(item, writeOptions);
+                        Item copy = JsonIo.toObjects(json, readOptions, Item.class);
+                        assertThat(copy.name).isEqualTo(item.name);
+                        assertThat(copy.count).isEqualTo(j);
+                        assertThat(copy.tags).containsExactly("a", "b");
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.cedarsoftware.io;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License")
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+class DeepCopyTest {
+    static class Key {
+        String name;
+
+        Key() {
+        }
+
+        Key(String name) {
+            this.name = name;
+        }
+
+        public int hashCode() {
+            return Objects.hashCode(name);
+        }
+
+        public boolean equals(Object o) {
+            return o instanceof Key && Objects.equals(name, ((Key) o).name);
+        }
+    }
+
+    static class Node {
+        String name;
+        Node next;
+        Node[] children;
+        List<Object> items = new ArrayList<>();
+        Set<Key> keys = new HashSet<>();
+        Map<Key, Node> index = new LinkedHashMap<>();
+        Date when;
+        int[] numbers;
+    }
+
+    static class Holder {
+        Object value;
+    }
+
+    private static Node graph() {
+        Node one = new Node();
+        Node two = new Node();
+        one.name = "one";
+        two.name = "two";
+        one.next = two;
+        two.next = one;
+        one.children = new Node[]{two, one, null};
+        one.items.add(two);
+        one.items.add("text");
+        one.keys.add(new Key("a"));
+        one.keys.add(new Key("b"));
+        one.index.put(new Key("x"), two);
+        one.when = new Date(1000);
+        one.numbers = new int[]{1, 2};
+        return one;
+    }
+
+    @Test
+    void testDirectCopyPreservesCyclesAndSharedReferences() {
+        Node source = graph();
+        Node copy = (Node) GraphCopier.copy(source, null, null);
+
+        assertThat(copy).isNotSameAs(source);
+        assertThat(copy.name).isEqualTo("one");
+        assertThat(copy.next).isNotSameAs(source.next);
+        assertThat(copy.next.next).isSameAs(copy);
+        assertThat(copy.children[0]).isSameAs(copy.next);
+        assertThat(copy.children[1]).isSameAs(copy);
+        assertThat(copy.children[2]).isNull();
+        assertThat(copy.items.get(0)).isSameAs(copy.next);
+        assertThat(copy.keys).containsExactlyInAnyOrder(new Key("a"), new Key("b"));
+        assertThat(copy.index.get(new Key("x"))).isSameAs(copy.next);
+        assertThat(copy.when).isEqualTo(source.when).isNotSameAs(source.when);
+        assertThat(copy.numbers).containsExactly(1, 2);
+        assertThat(copy.numbers).isNotSameAs(source.numbers);
+    }
+
+    @Test
+    void testDirectCopyHonorsExcludedFields() {
+        WriteOptions writeOptions = new WriteOptionsBuilder().addExcludedField(Node.class, "name").build();
+        Node copy = JsonIo.deepCopy(graph(), null, writeOptions);
+
+        assertThat(copy.name).isNull();
+        assertThat(copy.next.name).isNull();
+        assertThat(copy.next.next).isSameAs(copy);
+    }
+
+    @Test
+    void testCustomHandledTypesUseJsonRoundTrip() {
+        Holder holder = new Holder();
+        holder.value = Collections.unmodifiableList(new ArrayList<>(Collections.singletonList("a")));
+        assertThatThrownBy(() -> GraphCopier.copy(holder, null, null)).isInstanceOf(GraphCopier.Unsupported.class);
+
+        Holder copy = JsonIo.deepCopy(holder, null, null);
+        assertThat(copy.value).isEqualTo(Collections.singletonList("a"));
+    }
+}
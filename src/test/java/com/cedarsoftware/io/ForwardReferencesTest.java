@@ -8,6 +8,7 @@ import java.util.Set;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
  * @author John DeRegnaucourt (jdereg@gmail.com)
@@ -69,4 +70,35 @@ public class ForwardReferencesTest
         assertEquals((Integer) map.get(3L), 4);
         assertEquals((Integer) map.get(4L), 5);
     }
+
+    static class Node
+    {
+        String name;
+        Node next;
+        Node prev;
+        Node[] peers;
+        List<Node> list;
+    }
+
+    @Test
+    public void testForwardRefsPatchedIntoFieldsArraysAndLists()
+    {
+        String type = Node.class.getName();
+        String json = "[{\"@id\":1,\"@type\":\"" + type + "\",\"name\":\"a\",\"next\":{\"@ref\":2},\"prev\":{\"@ref\":2}," +
+                "\"peers\":[{\"@ref\":2},{\"@ref\":1},{\"@ref\":2}],\"list\":[{\"@ref\":2},{\"@ref\":1},{\"@ref\":2}]}," +
+                "{\"@id\":2,\"@type\":\"" + type + "\",\"name\":\"b\",\"next\":{\"@ref\":1}}]";
+        Object[] nodes = TestUtil.toObjects(json, null);
+        Node a = (Node) nodes[0];
+        Node b = (Node) nodes[1];
+
+        assertSame(b, a.next);
+        assertSame(b, a.prev);
+        assertSame(a, b.next);
+        assertSame(b, a.peers[0]);
+        assertSame(a, a.peers[1]);
+        assertSame(b, a.peers[2]);
+        assertSame(b, a.list.get(0));
+        assertSame(a, a.list.get(1));
+        assertSame(b, a.list.get(2));
+    }
 }
@@ -0,0 +1,141 @@
+package com.cedarsoftware.io;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License")
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+class LazyClassMapTest {
+    private static final ClassLoader LOADER = LazyClassMapTest.class.getClassLoader();
+
+    @Test
+    void testEntriesResolvedOnFirstLookupOnly() {
+        AtomicInteger calls = new AtomicInteger();
+        LazyClassMap<String> map = new LazyClassMap<>();
+        map.putLazy(ArrayList.class.getName(), LOADER, c -> c.getSimpleName() + calls.incrementAndGet());
+        map.putLazy(LinkedList.class.getName(), LOADER, c -> c.getSimpleName() + calls.incrementAndGet());
+        map.putLazy("com.acme.NoSuchClass", LOADER, c -> "never");
+        assertThat(calls.get()).isZero();
+
+        assertThat(map.get(ArrayList.class)).isEqualTo("ArrayList1");
+        assertThat(map.get(ArrayList.class)).isEqualTo("ArrayList1");
+        assertThat(map.containsKey(ArrayList.class)).isTrue();
+        assertThat(map.get("java.util.ArrayList")).isNull();
+        assertThat(calls.get()).isEqualTo(1);
+
+        // Copies share the entries, so each is still resolved only once
+        LazyClassMap<String> copy = new LazyClassMap<>();
+        copy.putAll(map);
+        assertThat(copy.get(LinkedList.class)).isEqualTo("LinkedList2");
+        assertThat(map.get(LinkedList.class)).isEqualTo("LinkedList2");
+        assertThat(calls.get()).isEqualTo(2);
+
+        // Iteration resolves everything, skipping classes that cannot be loaded
+        assertThat(map).hasSize(2);
+        assertThat(map.keySet()).containsExactly(ArrayList.class, LinkedList.class);
+    }
+
+    @Test
+    void testPut_doesNotResolvePriorEntry() {
+        AtomicInteger calls = new AtomicInteger();
+        LazyClassMap<String> map = new LazyClassMap<>();
+        map.putLazy(ArrayList.class.getName(), LOADER, c -> "lazy" + calls.incrementAndGet());
+
+        assertThat(map.put(ArrayList.class, "eager")).isNull();
+        assertThat(calls.get()).isZero();
+        assertThat(map.put(ArrayList.class, "again")).isEqualTo("eager");
+        assertThat(map.get(ArrayList.class)).isEqualTo("again");
+    }
+
+    @Test
+    void testAliasForMissingClassIsSkipped() {
+        ReadOptions readOptions = new ReadOptionsBuilder().aliasTypeName("com.acme.NoSuchClass", "Missing").build();
+        assertThat(readOptions.getTypeNameAlias("Missing")).isEqualTo("Missing");
+        assertThat(readOptions.getTypeNameAlias("ArrayList")).isEqualTo("java.util.ArrayList");
+    }
+
+    @Test
+    void testFindClosest_matchesMetaUtils() {
+        LazyClassMap<String> map = new LazyClassMap<>();
+        map.putLazy(Collection.class.getName(), LOADER, c -> "collection");
+        map.putLazy(List.class.getName(), LOADER, c -> "list");
+        map.putLazy(Serializable.class.getName(), LOADER, c -> "serializable");
+        map.putLazy(Integer.class.getName(), LOADER, c -> "integer");
+        map.putLazy(Map.class.getName(), LOADER, c -> "map");
+
+        assertThat(map.findClosest(List.class, "none")).isEqualTo("list");
+        assertThat(map.findClosest(Thread.class, "none")).isEqualTo("none");
+
+        Map<Class<?>, String> eager = new LinkedHashMap<>(map);
+        for (Class<?> c : new Class<?>[]{ArrayList.class, LinkedList.class, AbstractList.class, String.class, Integer.class, int.class, Thread.class}) {
+            assertThat(map.findClosest(c, "none")).isEqualTo(MetaUtils.findClosest(c, eager, "none"));
+        }
+    }
+
+    @Test
+    void testSeal() {
+        LazyClassMap<String> map = new LazyClassMap<>();
+        map.put(String.class, "s");
+        map.seal();
+        assertThat(map.get(String.class)).isEqualTo("s");
+        assertThatThrownBy(() -> map.put(Long.class, "l")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(map::clear).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> map.putLazy("java.lang.Long", LOADER, c -> "l")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void testLazyClassSet() {
+        LazyClassSet set = new LazyClassSet();
+        set.addLazy(String.class.getName(), LOADER);
+        set.addLazy("int", LOADER);
+        set.add(Long.class);
+        assertThat(set.contains(String.class)).isTrue();
+        assertThat(set.contains(int.class)).isTrue();
+        assertThat(set.contains(Long.class)).isTrue();
+        assertThat(set.contains(Integer.class)).isFalse();
+
+        LazyClassSet copy = new LazyClassSet();
+        copy.addAll(set);
+        assertThat(copy).containsExactlyInAnyOrder(String.class, int.class, Long.class);
+        assertThat(copy.remove(Long.class)).isTrue();
+        assertThat(copy.contains(Long.class)).isFalse();
+        assertThat(set.contains(Long.class)).isTrue();
+
+        copy.seal();
+        assertThatThrownBy(() -> copy.add(Short.class)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void testArrayClassName() {
+        assertThat(ReadOptionsBuilder.arrayClassName("int")).isEqualTo(int[].class.getName());
+        assertThat(ReadOptionsBuilder.arrayClassName("java.lang.String")).isEqualTo(String[].class.getName());
+        assertThat(ReadOptionsBuilder.arrayClassName("[J")).isEqualTo(long[][].class.getName());
+    }
+}
@@ -2,10 +2,14 @@ package com.cedarsoftware.io;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.cedarsoftware.util.DeepEquals;
 import org.junit.jupiter.api.Test;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 /**
  * Test cases for JsonReader / JsonWriter
  *
@@ -46,4 +50,43 @@ public class MapOutputFormatTest
         Map map2 = TestUtil.toObjects(json2, null);
         assert DeepEquals.deepEquals(map, map2);
     }
+
+    static class KeyCountingMap<K, V> extends LinkedHashMap<K, V>
+    {
+        final AtomicInteger keySetCalls = new AtomicInteger();
+
+        public Set<K> keySet()
+        {
+            keySetCalls.incrementAndGet();
+            return super.keySet();
+        }
+    }
+
+    @Test
+    public void testStringKeysDetectedWhileTracing()
+    {
+        for (boolean parallel : new boolean[]{false, true})
+        {
+            KeyCountingMap<Object, Object> strings = new KeyCountingMap<>();
+            strings.put("a", 1L);
+            strings.put("b", 2L);
+            KeyCountingMap<Object, Object> mixed = new KeyCountingMap<>();
+            mixed.put("a", 1L);
+            mixed.put(2L, "b");
+            Object[] root = new Object[]{strings, mixed};
+
+            WriteOptions options = new WriteOptionsBuilder().parallelReferenceTracing(parallel).build();
+            String json = TestUtil.toJson(root, options);
+
+            // The key types were recorded during tracing, so neither Map's keys were walked again before writing
+            assertThat(strings.keySetCalls.get()).isZero();
+            assertThat(mixed.keySetCalls.get()).isEqualTo(1);    // only to write its @keys array
+            assertThat(json).contains("\"a\":1");
+            assertThat(json).contains("@keys");
+
+            Object[] copy = TestUtil.toObjects(json, null);
+            assertThat(((Map) copy[0]).get("b")).isEqualTo(2L);
+            assertThat(((Map) copy[1]).get(2L)).isEqualTo("b");
+        }
+    }
 }
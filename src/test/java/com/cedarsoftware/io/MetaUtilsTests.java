@@ -16,6 +16,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
@@ -40,6 +41,7 @@ import static com.cedarsoftware.util.CollectionUtilities.listOf;
 import static com.cedarsoftware.util.MapUtilities.mapOf;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * @author John DeRegnaucourt (jdereg@gmail.com)
@@ -135,6 +137,54 @@ public class MetaUtilsTests {
         assertThat(msg).isEqualTo("blame(17  34.5  {\"a\":\"Alpha\",\"b\":\"Bravo\",\"car\":\"McLaren 675LT\",\"pi\":3.141592653589793})");
     }
 
+    public static class PublicBean {
+        int value = 7;
+    }
+
+    static class PrivateConstructor {
+        int value;
+
+        private PrivateConstructor() {
+            value = 9;
+        }
+    }
+
+    static class ArgumentsOnly {
+        final String name;
+
+        ArgumentsOnly(String name, Object other) {
+            this.name = name;
+        }
+    }
+
+    @Test
+    void testNewInstance_strategyCachedPerClass() {
+        com.cedarsoftware.util.convert.Converter converter = new com.cedarsoftware.util.convert.Converter(new ReadOptionsBuilder.DefaultConverterOptions());
+
+        PublicBean first = (PublicBean) MetaUtils.newInstance(converter, PublicBean.class, null);
+        PublicBean second = (PublicBean) MetaUtils.newInstance(converter, PublicBean.class, null);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.value).isEqualTo(7);
+        assertThat(MetaUtils.getCachedConstructor(PublicBean.class).constructor.getParameterCount()).isZero();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(((PrivateConstructor) MetaUtils.newInstance(converter, PrivateConstructor.class, null)).value).isEqualTo(9);
+        }
+
+        // Argument values are cached separately from the no-argument strategy
+        assertThat(((ArgumentsOnly) MetaUtils.newInstance(converter, ArgumentsOnly.class, listOf("alpha"))).name).isEqualTo("alpha");
+        assertThat(((ArgumentsOnly) MetaUtils.newInstance(converter, ArgumentsOnly.class, listOf("beta"))).name).isEqualTo("beta");
+        assertThat(MetaUtils.newInstance(converter, ArgumentsOnly.class, null)).isInstanceOf(ArgumentsOnly.class);
+        assertThat(MetaUtils.getCachedConstructor(ArgumentsOnly.class).useNullSetting).isTrue();
+    }
+
+    @Test
+    void testNewInstance_securityClassesNeverCached() {
+        assertThatThrownBy(() -> MetaUtils.newInstance(null, ProcessBuilder.class, null)).isInstanceOf(JsonIoException.class);
+        assertThatThrownBy(() -> MetaUtils.cacheConstructor(ProcessBuilder.class, ProcessBuilder.class.getConstructors()[0], true)).isInstanceOf(JsonIoException.class);
+        assertThat(MetaUtils.getCachedConstructor(ProcessBuilder.class)).isNull();
+    }
+
     @Test
     void getWithDefault_whenObjectIsFound_returnsObject() {
         Map map = mapOf("foo", "bar");
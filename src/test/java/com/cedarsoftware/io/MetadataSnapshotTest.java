@@ -0,0 +1,99 @@
+package com.cedarsoftware.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import com.cedarsoftware.io.reflect.filters.models.Car;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License")
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+class MetadataSnapshotTest {
+    static class Point {
+        private final String label;
+        private final int x;
+
+        Point(String label, int x) {
+            this.label = label;
+            this.x = x;
+        }
+    }
+
+    static class Plain {
+        String name;
+    }
+
+    @Test
+    void testCaptureSaveLoad_roundTrip() {
+        MetadataSnapshot snapshot = MetadataSnapshot.capture(new ReadOptionsBuilder().build(), Point.class, Plain.class, int.class, null);
+        assertThat(snapshot.getClassNames()).containsExactly(Point.class.getName(), Plain.class.getName());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        snapshot.save(out);
+        String text = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        assertThat(text).contains(Point.class.getName() + " = ");
+        assertThat(text).contains("java.lang.String,int");
+        assertThat(text).contains(Plain.class.getName() + " = ");
+
+        MetadataSnapshot loaded = MetadataSnapshot.load(new ByteArrayInputStream(out.toByteArray()));
+        assertThat(loaded.getClassNames()).containsExactlyElementsOf(snapshot.getClassNames());
+
+        ByteArrayOutputStream again = new ByteArrayOutputStream();
+        loaded.save(again);
+        assertThat(new String(again.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(text);
+    }
+
+    @Test
+    void testLoadSnapshot_intoBuilders() {
+        String text = "# comment\n"
+                + Point.class.getName() + " = null:java.lang.String,int\n"
+                + "com.acme.NoSuchClass = nonNull:\n"
+                + Plain.class.getName() + " =\n";
+        MetadataSnapshot snapshot = MetadataSnapshot.load(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+        assertThat(snapshot.getClassNames()).hasSize(3);
+
+        ReadOptions readOptions = new ReadOptionsBuilder().loadSnapshot(snapshot).build();
+        MetaUtils.CachedConstructor cached = MetaUtils.getCachedConstructor(Point.class);
+        assertThat(cached).isNotNull();
+        assertThat(cached.useNullSetting).isTrue();
+        assertThat(cached.constructor.getParameterTypes()).containsExactly(String.class, int.class);
+
+        Point copy = TestUtil.toObjects(TestUtil.toJson(new Point("p", 7), null), readOptions, Point.class);
+        assertThat(copy.label).isEqualTo("p");
+        assertThat(copy.x).isEqualTo(7);
+    }
+
+    @Test
+    void testCapturePackages() {
+        MetadataSnapshot snapshot = MetadataSnapshot.capturePackages(new ReadOptionsBuilder().build(), "com.cedarsoftware.io.reflect.filters.models");
+        assertThat(snapshot.getClassNames()).contains(Car.class.getName());
+    }
+
+    @Test
+    void testLoad_malformed() {
+        assertThatThrownBy(() -> MetadataSnapshot.load(new ByteArrayInputStream("no equals sign".getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(JsonIoException.class);
+        assertThatThrownBy(() -> MetadataSnapshot.load(new ByteArrayInputStream("a.B = bogus".getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(JsonIoException.class);
+        assertThatThrownBy(() -> MetadataSnapshot.load(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
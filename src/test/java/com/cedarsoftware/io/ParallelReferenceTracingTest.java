@@ -0,0 +1,112 @@
+package com.cedarsoftware.io;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.cedarsoftware.util.DeepEquals;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License")
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+class ParallelReferenceTracingTest {
+
+    static class Node {
+        String name;
+        Node next;
+        List<Node> kids = new ArrayList<>();
+        Map<String, Node> byName = new LinkedHashMap<>();
+        Object[] extra;
+
+        Node() {
+        }
+
+        Node(String name) {
+            this.name = name;
+        }
+    }
+
+    // Wide rather than deep: 'next' points back to an earlier node (a chain of at most log2(size) links), so that
+    // writing the graph does not recurse once per node.
+    private static Node buildGraph(int size) {
+        Node root = new Node("root");
+        Node prev = root;
+        for (int i = 0; i < size; i++) {
+            Node node = new Node("n" + i);
+            root.kids.add(node);
+            node.next = root.kids.get(i / 2);           // shared reference
+            if (i % 7 == 0) {
+                root.byName.put(node.name, node);       // shared reference
+            }
+            if (i % 11 == 0) {
+                node.extra = new Object[]{root, prev};  // cycle back to root
+            }
+            prev = node;
+        }
+        return root;
+    }
+
+    private static Set<Object> traceReferenced(Object root, WriteOptions options) {
+        JsonWriter writer = new JsonWriter(new ByteArrayOutputStream(), options);
+        writer.traceReferences(root);
+        Set<Object> referenced = Collections.newSetFromMap(new IdentityHashMap<>());
+        referenced.addAll(writer.getObjsReferenced().keySet());
+        return referenced;
+    }
+
+    @Test
+    void testParallelTraceMatchesSequentialTrace() {
+        Node root = buildGraph(5000);
+        WriteOptions sequential = new WriteOptionsBuilder().build();
+        WriteOptions parallel = new WriteOptionsBuilder().parallelReferenceTracing(true).build();
+
+        Set<Object> expected = traceReferenced(root, sequential);
+        Set<Object> actual = traceReferenced(root, parallel);
+
+        assertThat(expected).isNotEmpty();
+        assertThat(actual).hasSameSizeAs(expected);
+        assertThat(actual.containsAll(expected)).isTrue();
+    }
+
+    @Test
+    void testParallelTraceRoundTrip() {
+        Node root = buildGraph(2000);
+        WriteOptions parallel = new WriteOptionsBuilder().parallelReferenceTracing(true).build();
+
+        String json = TestUtil.toJson(root, parallel);
+        Node copy = TestUtil.toObjects(json, new ReadOptionsBuilder().build(), Node.class);
+
+        assertThat(DeepEquals.deepEquals(root, copy)).isTrue();
+        assertThat(copy.kids.get(0).extra[0]).isSameAs(copy);
+    }
+
+    @Test
+    void testParallelTracingOptionIsCopied() {
+        WriteOptions options = new WriteOptionsBuilder().parallelReferenceTracing(true).build();
+        assertThat(options.isParallelReferenceTracing()).isTrue();
+        assertThat(new WriteOptionsBuilder(options).build().isParallelReferenceTracing()).isTrue();
+        assertThat(new WriteOptionsBuilder().build().isParallelReferenceTracing()).isFalse();
+    }
+}
@@ -0,0 +1,146 @@
+package com.cedarsoftware.io;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.cedarsoftware.io.factory.CollectionFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License")
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+class ParallelResolutionTest {
+    static class Item {
+        String name;
+        long n;
+        Item child;
+    }
+
+    static class Holder {
+        List<Item> items;
+        Item[] array;
+        Map<String, Item> map;
+    }
+
+    static class Counted {
+        long v;
+    }
+
+    // Records the most callers that were ever inside newInstance() at the same time.
+    static class CountingFactory implements JsonReader.ClassFactory {
+        final AtomicInteger inside = new AtomicInteger();
+        final AtomicInteger mostInside = new AtomicInteger();
+
+        public Object newInstance(Class<?> c, JsonObject jObj, Resolver resolver) {
+            mostInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+            Counted counted = new Counted();
+            counted.v = (Long) jObj.get("v");
+            inside.decrementAndGet();
+            return counted;
+        }
+
+        public boolean isObjectFinal() {
+            return true;
+        }
+    }
+
+    private static Item item(int i) {
+        Item item = new Item();
+        item.name = "n" + i;
+        item.n = i;
+        if (i % 2 == 0) {
+            item.child = new Item();
+            item.child.name = "c" + i;
+        }
+        return item;
+    }
+
+    @Test
+    void testParallelMatchesSequential() {
+        int size = Resolver.PARALLEL_THRESHOLD * 4;
+        Holder holder = new Holder();
+        holder.items = new ArrayList<>();
+        holder.array = new Item[size];
+        holder.map = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            holder.items.add(item(i));
+            holder.array[i] = item(i + 1);
+            holder.map.put("k" + i, item(i + 2));
+        }
+        String json = JsonIo.toJson(holder, null);
+        assertThat(json).doesNotContain("@id");
+
+        Holder sequential = TestUtil.toObjects(json, new ReadOptionsBuilder().build(), Holder.class);
+        Holder parallel = TestUtil.toObjects(json, new ReadOptionsBuilder().parallelResolution(true).build(), Holder.class);
+
+        assertThat(parallel.items).hasSize(size);
+        assertThat(parallel.items.get(size - 1).name).isEqualTo("n" + (size - 1));
+        assertThat(parallel.array[1].child.name).isEqualTo("c2");
+        assertThat(parallel.map.keySet()).containsExactlyElementsOf(holder.map.keySet());
+        assertThat(JsonIo.toJson(parallel, null)).isEqualTo(JsonIo.toJson(sequential, null)).isEqualTo(json);
+    }
+
+    @Test
+    void testHandlerThatIsNotThreadSafeIsCalledOneAtATime() {
+        String json = countedJson(Resolver.PARALLEL_THRESHOLD * 4, -1);
+        CountingFactory factory = new CountingFactory();
+        ReadOptions readOptions = new ReadOptionsBuilder().parallelResolution(true).addClassFactory(Counted.class, factory).build();
+        Object[] counted = TestUtil.toObjects(json, readOptions, Object[].class);
+
+        for (int i = 0; i < counted.length; i++) {
+            assertThat(((Counted) counted[i]).v).isEqualTo(i);
+        }
+        assertThat(factory.mostInside.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testThreadSafeHandlers() {
+        assertThat(Resolver.isThreadSafe(new CollectionFactory())).isTrue();
+        assertThat(Resolver.isThreadSafe(new CollectionFactory() { })).isFalse();    // Subclasses may keep state
+        assertThat(Resolver.isThreadSafe(new CountingFactory())).isFalse();
+        assertThat(Resolver.isThreadSafe(new CountingFactory() {
+            public boolean isThreadSafe() {
+                return true;
+            }
+        })).isTrue();
+    }
+
+    @Test
+    void testFailureInParallelChunkIsThrown() {
+        String json = countedJson(Resolver.PARALLEL_THRESHOLD * 4, 3000);
+        ReadOptions readOptions = new ReadOptionsBuilder().parallelResolution(true).addClassFactory(Counted.class, new CountingFactory()).build();
+        assertThatThrownBy(() -> TestUtil.toObjects(json, readOptions, Object[].class)).isInstanceOf(JsonIoException.class);
+    }
+
+    private static String countedJson(int size, int badIndex) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"@type\":\"").append(Counted.class.getName()).append("\",\"v\":");
+            json.append(i == badIndex ? "\"x\"" : String.valueOf(i)).append('}');
+        }
+        return json.append(']').toString();
+    }
+}
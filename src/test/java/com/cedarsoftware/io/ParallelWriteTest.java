@@ -0,0 +1,170 @@
+package com.cedarsoftware.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.cedarsoftware.util.DeepEquals;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License")
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+class ParallelWriteTest {
+
+    static class Item {
+        String name;
+        long count;
+        Item other;
+
+        Item() {
+        }
+
+        Item(String name, long count) {
+            this.name = name;
+            this.count = count;
+        }
+    }
+
+    static class Node {
+        String name;
+        Node next;
+        List<Node> kids = new ArrayList<>();
+        Object[] extra;
+
+        Node() {
+        }
+
+        Node(String name) {
+            this.name = name;
+        }
+    }
+
+    // Records the most callers that were ever inside write() at the same time.
+    static class CountingWriter implements JsonWriter.JsonClassWriter {
+        final AtomicInteger inside = new AtomicInteger();
+        final AtomicInteger mostInside = new AtomicInteger();
+
+        public void write(Object o, boolean showType, Writer output, WriterContext context) throws IOException {
+            mostInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+            output.write("\"count\":" + ((Item) o).count);
+            inside.decrementAndGet();
+        }
+    }
+
+    @Test
+    void testParallelWriteMatchesSequentialWrite() {
+        List<Object> items = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            items.add(new Item("item" + i, i));
+        }
+
+        for (boolean prettyPrint : new boolean[]{false, true}) {
+            WriteOptions sequential = new WriteOptionsBuilder().prettyPrint(prettyPrint).build();
+            WriteOptions parallel = new WriteOptionsBuilder().prettyPrint(prettyPrint).parallelWriteThreshold(1000).build();
+
+            assertThat(TestUtil.toJson(items, parallel)).isEqualTo(TestUtil.toJson(items, sequential));
+            Object[] array = items.toArray();
+            assertThat(TestUtil.toJson(array, parallel)).isEqualTo(TestUtil.toJson(array, sequential));
+        }
+    }
+
+    @Test
+    void testParallelWriteRoundTripWithSharedReferences() {
+        Node root = new Node("root");
+        for (int i = 0; i < 5000; i++) {
+            Node node = new Node("n" + i);
+            root.kids.add(node);
+            node.next = root.kids.get(i / 2);           // shared with an earlier element, often in another chunk
+            if (i % 11 == 0) {
+                node.extra = new Object[]{root, node.next};  // cycle back to root
+            }
+        }
+
+        WriteOptions parallel = new WriteOptionsBuilder().parallelWriteThreshold(1000).build();
+        String json = TestUtil.toJson(root, parallel);
+        Node copy = TestUtil.toObjects(json, new ReadOptionsBuilder().build(), Node.class);
+
+        assertThat(DeepEquals.deepEquals(root, copy)).isTrue();
+        assertThat(copy.kids.get(0).extra[0]).isSameAs(copy);
+        assertThat(copy.kids.get(4000).next).isSameAs(copy.kids.get(2000));
+    }
+
+    @Test
+    void testCustomWriterThatIsNotThreadSafeIsCalledOneAtATime() {
+        CountingWriter writer = new CountingWriter();
+        List<Object> items = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            items.add(new Item("item" + i, i));
+        }
+        WriteOptions sequential = new WriteOptionsBuilder().addCustomWrittenClass(Item.class, writer).build();
+        WriteOptions parallel = new WriteOptionsBuilder().addCustomWrittenClass(Item.class, writer).parallelWriteThreshold(1000).build();
+
+        assertThat(TestUtil.toJson(items, parallel)).isEqualTo(TestUtil.toJson(items, sequential));
+        assertThat(writer.mostInside.get()).isEqualTo(1);
+    }
+
+    static class CountingJsonWriter extends JsonWriter {
+        final AtomicInteger items = new AtomicInteger();
+
+        CountingJsonWriter(OutputStream out, WriteOptions writeOptions) {
+            super(out, writeOptions);
+        }
+
+        @Override
+        public void writeImpl(Object obj, boolean showType) throws IOException {
+            if (obj instanceof Item) {
+                items.incrementAndGet();
+            }
+            super.writeImpl(obj, showType);
+        }
+    }
+
+    @Test
+    void testSubclassIsWrittenSequentially() {
+        List<Object> items = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            items.add(new Item("item" + i, i));
+        }
+        WriteOptions parallel = new WriteOptionsBuilder().parallelWriteThreshold(1000).build();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CountingJsonWriter writer = new CountingJsonWriter(out, parallel);
+        writer.write(items);
+        writer.close();
+
+        // Chunks are written by plain JsonWriters, so a subclass must see every element itself
+        assertThat(writer.items.get()).isEqualTo(20000);
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(TestUtil.toJson(items, parallel));
+    }
+
+    @Test
+    void testParallelWriteThresholdOption() {
+        WriteOptions options = new WriteOptionsBuilder().parallelWriteThreshold(5000).build();
+        assertThat(options.getParallelWriteThreshold()).isEqualTo(5000);
+        assertThat(new WriteOptionsBuilder(options).build().getParallelWriteThreshold()).isEqualTo(5000);
+        assertThat(new WriteOptionsBuilder().build().getParallelWriteThreshold()).isZero();
+        assertThatThrownBy(() -> new WriteOptionsBuilder().parallelWriteThreshold(-1)).isInstanceOf(JsonIoException.class);
+    }
+}
@@ -0,0 +1,103 @@
+package com.cedarsoftware.io;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.cedarsoftware.io.factory.ConvertableFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License")
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+class ReachabilityMetadataTest {
+    static class Line {
+        String sku;
+        Detail[] details;
+    }
+
+    static class Detail {
+        long quantity;
+    }
+
+    static class Base {
+        UUID id;
+    }
+
+    static class Order extends Base {
+        List<Line> lines = new ArrayList<>();
+        Map<String, ? extends Detail> extras;
+    }
+
+    static class OrderFactory implements JsonReader.ClassFactory {
+    }
+
+    @Test
+    void testCollect_followsFieldsAndRegistries() {
+        ReadOptions readOptions = new ReadOptionsBuilder().addClassFactory(Order.class, new OrderFactory()).build();
+        ReachabilityMetadata metadata = ReachabilityMetadata.collect(readOptions, null, Order.class);
+
+        assertThat(metadata.getTypes()).contains(Order.class, Base.class, Line.class, Detail.class, Detail[].class,
+                UUID.class, List.class, Map.class, String.class);
+        assertThat(metadata.getTypes()).doesNotContain(long.class, Object.class);
+        assertThat(metadata.getHandlers()).contains(OrderFactory.class, ConvertableFactory.class);
+    }
+
+    @Test
+    void testCollect_acceptsAnyOptionsImplementation() {
+        ReadOptions defaults = new ReadOptionsBuilder().addClassFactory(Order.class, new OrderFactory()).build();
+        ReadOptions wrapped = (ReadOptions) Proxy.newProxyInstance(ReadOptions.class.getClassLoader(), new Class<?>[]{ReadOptions.class},
+                (proxy, method, args) -> {
+                    try {
+                        return method.invoke(defaults, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        ReachabilityMetadata metadata = ReachabilityMetadata.collect(wrapped, null, Order.class);
+        assertThat(metadata.getHandlers()).contains(OrderFactory.class);
+    }
+
+    @Test
+    void testWriteReflectConfig() {
+        ReachabilityMetadata metadata = ReachabilityMetadata.collect(null, null, Detail.class);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        metadata.writeReflectConfig(out);
+        String json = new String(out.toByteArray(), StandardCharsets.UTF_8);
+
+        Object[] entries = JsonIo.toObjects(json, new ReadOptionsBuilder().returnAsNativeJsonObjects().build(), Object[].class);
+        assertThat(entries.length).isEqualTo(metadata.getTypes().size() + metadata.getHandlers().size());
+
+        Map<?, ?> detail = null;
+        for (Object entry : entries) {
+            Map<?, ?> map = (Map<?, ?>) entry;
+            if (Detail.class.getName().equals(map.get("name"))) {
+                detail = map;
+            }
+        }
+        assertThat(detail).isNotNull();
+        assertThat(detail.get("allDeclaredFields")).isEqualTo(true);
+        assertThat(detail.get("unsafeAllocated")).isEqualTo(true);
+    }
+}
@@ -0,0 +1,103 @@
+package com.cedarsoftware.io;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License")
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+class ReadIntoTest {
+    static class Venue {
+        String name;
+        long sequence;
+    }
+
+    static class Tick {
+        String symbol;
+        long price;
+        List<Long> sizes = new ArrayList<>();
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        Venue venue = new Venue();
+        String untouched = "kept";
+    }
+
+    private static final String TICK1 = "{\"symbol\":\"IBM\",\"price\":15,\"sizes\":[1,2,3],\"attributes\":{\"a\":1},\"venue\":{\"name\":\"X\",\"sequence\":7}}";
+    private static final String TICK2 = "{\"symbol\":\"MSFT\",\"price\":25,\"sizes\":[9],\"attributes\":{\"b\":2},\"venue\":{\"name\":\"Y\",\"sequence\":8}}";
+
+    @Test
+    void testReadIntoReusesNestedInstances() {
+        ReadOptions readOptions = new ReadOptionsBuilder().reuseExistingObjects(true).build();
+        Tick tick = new Tick();
+        List<Long> sizes = tick.sizes;
+        Map<String, Object> attributes = tick.attributes;
+        Venue venue = tick.venue;
+
+        assertThat(JsonIo.readInto(TICK1, readOptions, tick)).isSameAs(tick);
+        assertThat(tick.symbol).isEqualTo("IBM");
+        assertThat(tick.sizes).containsExactly(1L, 2L, 3L);
+        assertThat(tick.venue.name).isEqualTo("X");
+        assertThat(tick.untouched).isEqualTo("kept");
+
+        JsonIo.readInto(TICK2, readOptions, tick);
+        assertThat(tick.symbol).isEqualTo("MSFT");
+        assertThat(tick.price).isEqualTo(25L);
+        assertThat(tick.sizes).containsExactly(9L);
+        assertThat(tick.attributes).containsOnlyKeys("b");
+        assertThat(tick.venue.sequence).isEqualTo(8L);
+
+        assertThat(tick.sizes).isSameAs(sizes);
+        assertThat(tick.attributes).isSameAs(attributes);
+        assertThat(tick.venue).isSameAs(venue);
+    }
+
+    @Test
+    void testReadIntoReplacesNestedInstancesByDefault() {
+        Tick tick = new Tick();
+        List<Long> sizes = tick.sizes;
+        Venue venue = tick.venue;
+
+        JsonIo.readInto(TICK1, null, tick);
+        assertThat(tick.sizes).containsExactly(1L, 2L, 3L);
+        assertThat(tick.sizes).isNotSameAs(sizes);
+        assertThat(tick.venue).isNotSameAs(venue);
+    }
+
+    @Test
+    void testReadIntoCollection() {
+        List<Object> list = new ArrayList<>(Arrays.asList("old"));
+        assertThat(JsonIo.readInto("[1,\"two\"]", null, list)).isSameAs(list);
+        assertThat(list).containsExactly(1L, "two");
+    }
+
+    @Test
+    void testReadIntoMismatch() {
+        assertThatThrownBy(() -> JsonIo.readInto("5", null, new Tick()))
+                .isInstanceOf(JsonIoException.class)
+                .hasMessageContaining("Unable to read JSON primitive into");
+        assertThatThrownBy(() -> JsonIo.readInto("{\"@type\":\"" + Venue.class.getName() + "\"}", null, new Tick()))
+                .isInstanceOf(JsonIoException.class)
+                .hasMessageContaining("Unable to read JSON into an instance of");
+    }
+}
@@ -15,6 +15,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * @author John DeRegnaucourt (jdereg@gmail.com)
@@ -277,4 +278,43 @@ class RefsTest
         assertEquals(zdt1, zdt2);
         assertNotSame(zdt1, zdt2);
     }
+
+    @Test
+    void testDefaultReferenceTracker_denseAndSparseIds() {
+        JsonReader.DefaultReferenceTracker tracker = new JsonReader.DefaultReferenceTracker();
+        JsonObject[] sequential = new JsonObject[1000];
+        for (int i = 1; i < sequential.length; i++) {
+            sequential[i] = new JsonObject();
+            tracker.put(i, sequential[i]);
+        }
+        JsonObject negative = new JsonObject();
+        JsonObject huge = new JsonObject();
+        tracker.put(-7L, negative);
+        tracker.put(Long.valueOf(1L << 40), huge);
+
+        JsonObject chain = new JsonObject();
+        chain.setReferenceId(5L);
+        assertNull(tracker.put(2000L, chain));
+
+        assertEquals(1002, tracker.size());
+        for (int i = 1; i < sequential.length; i++) {
+            assertSame(sequential[i], tracker.get((long) i));
+        }
+        assertSame(negative, tracker.get(Long.valueOf(-7L)));
+        assertSame(huge, tracker.get(1L << 40));
+        assertSame(sequential[5], tracker.get(2000L));
+        assertSame(sequential[5], tracker.get(chain));
+
+        tracker.clear();
+        assertEquals(0, tracker.size());
+        assertThrows(JsonIoException.class, () -> tracker.get(5L));
+    }
+
+    @Test
+    void testSparseIdsInJson() {
+        String json = "[{\"@ref\":-3},{\"@id\":-3,\"@type\":\"java.util.ArrayList\",\"@items\":[{\"@ref\":9000000000}]},{\"@id\":9000000000,\"@type\":\"java.util.ArrayList\",\"@items\":[]}]";
+        Object[] lists = TestUtil.toObjects(json, null);
+        assertSame(lists[0], lists[1]);
+        assertSame(((List<?>) lists[1]).get(0), lists[2]);
+    }
 }
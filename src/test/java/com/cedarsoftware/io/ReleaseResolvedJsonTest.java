@@ -0,0 +1,85 @@
+package com.cedarsoftware.io;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License")
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+class ReleaseResolvedJsonTest {
+    static class Node {
+        String name;
+        Node child;
+    }
+
+    static class CapturingFactory implements JsonReader.ClassFactory {
+        final List<JsonObject> seen = new ArrayList<>();
+
+        public Object newInstance(Class<?> c, JsonObject jObj, Resolver resolver) {
+            seen.add(jObj);
+            return new Node();
+        }
+    }
+
+    @Test
+    void testTraversedObjectsReleaseTheirJson() {
+        String type = Node.class.getName();
+        String json = "{\"@type\":\"" + type + "\",\"name\":\"root\",\"child\":{\"@id\":1,\"name\":\"shared\",\"child\":{\"name\":\"leaf\",\"child\":{\"@ref\":1}}}}";
+        CapturingFactory factory = new CapturingFactory();
+        Node root = TestUtil.toObjects(json, new ReadOptionsBuilder().addClassFactory(Node.class, factory).build(), null);
+
+        assertThat(root.name).isEqualTo("root");
+        assertThat(root.child.name).isEqualTo("shared");
+        assertThat(root.child.child.name).isEqualTo("leaf");
+        assertThat(root.child.child.child).isSameAs(root.child);
+
+        assertThat(factory.seen).hasSize(3);
+        assertThat(factory.seen.get(0)).isEmpty();      // root
+        assertThat(factory.seen.get(1)).isNotEmpty();   // @id 1 may be read again through its @ref
+        assertThat(factory.seen.get(2)).isEmpty();      // leaf
+    }
+
+    @Test
+    void testCallerSuppliedTreeIsKept() {
+        String json = "{\"@type\":\"" + Node.class.getName() + "\",\"name\":\"root\",\"child\":{\"name\":\"mid\",\"child\":{\"name\":\"leaf\"}}}";
+        JsonObject tree = JsonIo.toObjects(json, new ReadOptionsBuilder().returnAsNativeJsonObjects().build(), null);
+
+        Node root = JsonIo.toObjects(tree, new ReadOptionsBuilder().build(), Node.class);
+        assertThat(root.child.child.name).isEqualTo("leaf");
+
+        // The tree belongs to the caller, so resolving it must leave it intact (and resolvable again).
+        JsonObject mid = (JsonObject) tree.get("child");
+        assertThat(tree.get("name")).isEqualTo("root");
+        assertThat(mid.get("name")).isEqualTo("mid");
+        assertThat(((JsonObject) mid.get("child")).get("name")).isEqualTo("leaf");
+
+        Node again = JsonIo.toObjects(tree, new ReadOptionsBuilder().build(), Node.class);
+        assertThat(again.child.child.name).isEqualTo("leaf");
+    }
+
+    @Test
+    void testNativeJsonObjectsAreKept() {
+        String json = "{\"name\":\"root\",\"child\":{\"name\":\"leaf\"}}";
+        JsonObject root = TestUtil.toObjects(json, new ReadOptionsBuilder().returnAsNativeJsonObjects().build(), null);
+        assertThat(root.get("name")).isEqualTo("root");
+        assertThat(((JsonObject) root.get("child")).get("name")).isEqualTo("leaf");
+    }
+}
@@ -0,0 +1,168 @@
+package com.cedarsoftware.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.cedarsoftware.util.DeepEquals;
+import com.cedarsoftware.util.FastByteArrayInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License")
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+class ReusableReaderWriterTest {
+
+    static class Pair {
+        String label;
+        Pair left;
+        Pair right;
+        List<Pair> all = new ArrayList<>();
+    }
+
+    private static Pair buildGraph(String label) {
+        Pair root = new Pair();
+        root.label = label;
+        Pair shared = new Pair();
+        shared.label = "shared-" + label;
+        root.left = shared;
+        root.right = shared;
+        root.all.add(shared);
+        root.all.add(root);
+        return root;
+    }
+
+    @AfterEach
+    void tearDown() {
+        JsonIo.setThreadLocalPooling(false);
+    }
+
+    @Test
+    void testWriterReset_matchesNewWriter() {
+        WriteOptions writeOptions = new WriteOptionsBuilder().build();
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        JsonWriter writer = new JsonWriter(first, writeOptions);
+
+        for (int i = 0; i < 5; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writer.reset(out);
+            Pair graph = buildGraph("g" + i);
+            writer.write(graph);
+            String json = new String(out.toByteArray(), StandardCharsets.UTF_8);
+            assertThat(json).isEqualTo(JsonIo.toJson(graph, writeOptions));
+            assertThat(json).contains("\"@id\":1");
+        }
+        writer.close();
+    }
+
+    @Test
+    void testReaderReset_readsEachInput() {
+        ReadOptions readOptions = new ReadOptionsBuilder().build();
+        JsonReader reader = new JsonReader(new FastByteArrayInputStream(new byte[]{}), readOptions);
+
+        for (int i = 0; i < 5; i++) {
+            Pair graph = buildGraph("r" + i);
+            String json = JsonIo.toJson(graph, null);
+            reader.reset(new FastByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+            Pair copy = reader.readObject(Pair.class);
+            assertThat(DeepEquals.deepEquals(graph, copy)).isTrue();
+            assertThat(copy.left).isSameAs(copy.right);
+            assertThat(copy.all.get(1)).isSameAs(copy);
+        }
+
+        // Reader remains usable after a failed read
+        reader.reset(new FastByteArrayInputStream("{\"label\":".getBytes(StandardCharsets.UTF_8)));
+        assertThatThrownBy(() -> reader.readObject(Pair.class)).isInstanceOf(JsonIoException.class);
+        reader.reset(new FastByteArrayInputStream("{\"label\":\"ok\"}".getBytes(StandardCharsets.UTF_8)));
+        assertThat(reader.readObject(Pair.class).label).isEqualTo("ok");
+    }
+
+    @Test
+    void testUtf8Output_multiByteAndSurrogatePairs() {
+        String text = "ascii é ß 中文 😀 end";
+        String json = JsonIo.toJson(text, null);
+        assertThat(json).isEqualTo("\"" + text + "\"");
+        assertThat((String) JsonIo.toObjects(json, null, String.class)).isEqualTo(text);
+
+        StringBuilder big = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            big.append("😀é");
+        }
+        String bigText = big.toString();
+        assertThat((String) JsonIo.toObjects(JsonIo.toJson(bigText, null), null, String.class)).isEqualTo(bigText);
+    }
+
+    @Test
+    void testUtf8Output_unpairedSurrogate() {
+        String json = JsonIo.toJson("a\uD83Db", null);
+        assertThat(json).isEqualTo("\"a?b\"");
+    }
+
+    @Test
+    void testThreadLocalPooling_sameResults() {
+        WriteOptions writeOptions = new WriteOptionsBuilder().build();
+        ReadOptions readOptions = new ReadOptionsBuilder().build();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            expected.add(JsonIo.toJson(buildGraph("p" + i), writeOptions));
+        }
+
+        JsonIo.setThreadLocalPooling(true);
+        assertThat(JsonIo.isThreadLocalPooling()).isTrue();
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < 3; i++) {
+                String json = JsonIo.toJson(buildGraph("p" + i), writeOptions);
+                assertThat(json).isEqualTo(expected.get(i));
+                Pair copy = JsonIo.toObjects(json, readOptions, Pair.class);
+                assertThat(copy.label).isEqualTo("p" + i);
+                assertThat(copy.left).isSameAs(copy.right);
+            }
+        }
+
+        // Different options instance and null options still work while pooling
+        assertThat(JsonIo.toJson(buildGraph("p0"), null)).isEqualTo(expected.get(0));
+        assertThat(JsonIo.toJson(buildGraph("p0"), new WriteOptionsBuilder().build())).isEqualTo(expected.get(0));
+        assertThat((Pair) JsonIo.toObjects(expected.get(1), null, Pair.class)).isNotNull();
+    }
+
+    @Test
+    void testThreadLocalPooling_reentrantWrite() {
+        WriteOptions inner = new WriteOptionsBuilder().build();
+        WriteOptions outer = new WriteOptionsBuilder()
+                .addCustomWrittenClass(Pair.class, new JsonWriter.JsonClassWriter() {
+                    public void write(Object o, boolean showType, Writer output, WriterContext context) throws IOException {
+                        // Calls JsonIo.toJson() while the pooled writer for this thread is in use
+                        output.write("\"label\":");
+                        output.write(JsonIo.toJson(((Pair) o).label, inner));
+                    }
+                })
+                .build();
+        String expected = JsonIo.toJson(buildGraph("x"), outer);
+
+        JsonIo.setThreadLocalPooling(true);
+        assertThat(JsonIo.toJson(buildGraph("x"), outer)).isEqualTo(expected);
+        assertThat(JsonIo.toJson(buildGraph("x"), outer)).isEqualTo(expected);
+        assertThat(expected).contains("\"label\":\"x\"");
+    }
+}
@@ -0,0 +1,144 @@
+package com.cedarsoftware.io;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License")
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+class StreamingWriterTest {
+
+    static class Row {
+        long id;
+        String name;
+        Row self;
+        List<String> tags = new ArrayList<>();
+
+        Row() {
+        }
+
+        Row(long id) {
+            this.id = id;
+            this.name = "row" + id;
+            this.self = this;
+            tags.add("t" + id);
+        }
+    }
+
+    private static String streamToString(Iterator<?> items, WriteOptions writeOptions) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonIo.toJsonArray(out, items, writeOptions);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testIterator_readsBackAsList() {
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            rows.add(new Row(i));
+        }
+        String json = streamToString(rows.iterator(), null);
+        assertThat(json).startsWith("[").endsWith("]");
+
+        Object[] copy = JsonIo.toObjects(json, null, Object[].class);
+        assertThat(copy).hasSize(100);
+        for (int i = 0; i < 100; i++) {
+            Row row = (Row) copy[i];
+            assertThat(row.id).isEqualTo(i);
+            assertThat(row.name).isEqualTo("row" + i);
+            assertThat(row.self).isSameAs(row);
+            assertThat(row.tags).containsExactly("t" + i);
+        }
+    }
+
+    @Test
+    void testIterator_matchesMaterializedCollectionOfPrimitives() {
+        List<Object> values = Arrays.asList(1L, "two", 3.5d, true, null);
+        WriteOptions writeOptions = new WriteOptionsBuilder().showTypeInfoNever().build();
+        String streamed = streamToString(values.iterator(), writeOptions);
+        assertThat(streamed).isEqualTo("[1,\"two\",3.5,true,null]");
+    }
+
+    @Test
+    void testEmpty() {
+        assertThat(streamToString(Collections.emptyIterator(), null)).isEqualTo("[]");
+    }
+
+    @Test
+    void testStreamAndSpliterator() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonIo.toJsonArray(out, IntStream.range(0, 5).mapToObj(Row::new), null);
+        Object[] fromStream = JsonIo.toObjects(new String(out.toByteArray(), StandardCharsets.UTF_8), null, Object[].class);
+        assertThat(fromStream).hasSize(5);
+        assertThat(((Row) fromStream[4]).id).isEqualTo(4);
+
+        out = new ByteArrayOutputStream();
+        JsonIo.toJsonArray(out, Arrays.asList("a", "b").spliterator(), null);
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8)).isEqualTo("[\"a\",\"b\"]");
+    }
+
+    @Test
+    void testSharedInstanceAcrossElements_writtenPerElement() {
+        Row shared = new Row(7);
+        List<Row> rows = Arrays.asList(shared, shared);
+        String json = streamToString(rows.iterator(), null);
+
+        Object[] copy = JsonIo.toObjects(json, null, Object[].class);
+        assertThat(copy).hasSize(2);
+        assertThat(((Row) copy[0]).id).isEqualTo(7);
+        assertThat(((Row) copy[1]).id).isEqualTo(7);
+        assertThat(((Row) copy[1]).self).isSameAs(copy[1]);
+    }
+
+    @Test
+    void testWriterApi_prettyPrint() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonWriter writer = new JsonWriter(out, new WriteOptionsBuilder().prettyPrint(true).build());
+        writer.writeIterator(Arrays.asList(1L, 2L).iterator());
+        writer.close();
+        String json = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        Object[] copy = JsonIo.toObjects(json, null, Object[].class);
+        assertThat(copy).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void testFailingIterator_wrapsException() {
+        Iterator<Object> failing = new Iterator<Object>() {
+            public boolean hasNext() {
+                return true;
+            }
+
+            public Object next() {
+                throw new IllegalStateException("cursor closed");
+            }
+        };
+        assertThatThrownBy(() -> streamToString(failing, null))
+                .isInstanceOf(JsonIoException.class)
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+    }
+}
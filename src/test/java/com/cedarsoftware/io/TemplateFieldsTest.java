@@ -131,6 +131,24 @@ public class TemplateFieldsTest
         assertNull(gen.a.v);
     }
 
+    public static class NestedGenericHolder
+    {
+        Map<String, List<Point>> byName;
+        Map<String, Map<String, Point>> byTwoNames;
+    }
+
+    @Test
+    public void testNestedGenericMapsWithoutTypes()
+    {
+        String json = "{\"@type\":\"" + NestedGenericHolder.class.getName() + "\"," +
+                "\"byName\":{\"a\":[{\"x\":1,\"y\":2},{\"x\":3,\"y\":4}]}," +
+                "\"byTwoNames\":{\"b\":{\"c\":{\"x\":5,\"y\":6}}}}";
+        NestedGenericHolder holder = TestUtil.toObjects(json, null);
+        assertEquals(new Point(1, 2), holder.byName.get("a").get(0));
+        assertEquals(new Point(3, 4), holder.byName.get("a").get(1));
+        assertEquals(new Point(5, 6), holder.byTwoNames.get("b").get("c"));
+    }
+
     public static class Test1
     {
         protected Test2<String, Object> internalMember = new Test2<>();
@@ -0,0 +1,167 @@
+package com.cedarsoftware.io;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.cedarsoftware.io.reflect.filters.models.Car;
+import com.cedarsoftware.io.reflect.filters.models.Part;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License")
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+class WarmUpTest {
+    private static final String MODELS = "com.cedarsoftware.io.reflect.filters.models";
+
+    static class Widget {
+        String name;
+        int size;
+    }
+
+    static final AtomicBoolean guardedInitialized = new AtomicBoolean();
+    static final AtomicInteger guardedConstructed = new AtomicInteger();
+
+    static class Guarded {
+        static {
+            guardedInitialized.set(true);
+        }
+
+        String name;
+
+        Guarded() {
+            guardedConstructed.incrementAndGet();
+        }
+    }
+
+    static class NeedsName {
+        final String name;
+
+        NeedsName(String name) {
+            this.name = Objects.requireNonNull(name);
+        }
+    }
+
+    @Test
+    void testWriteWarmUp_buildsAccessorsUpFront() {
+        AtomicInteger calls = new AtomicInteger();
+        WriteOptions writeOptions = new WriteOptionsBuilder()
+                .addAccessorFactory("counting", (field, nonStandardGetters, uniqueFieldName) -> {
+                    calls.incrementAndGet();
+                    return null;
+                })
+                .classValueCache(true)
+                .build();
+
+        writeOptions.warmUp(Widget.class, int.class, Widget[].class, List.class, null);
+        int afterWarmUp = calls.get();
+        assertThat(afterWarmUp).isEqualTo(2);
+
+        Widget widget = new Widget();
+        widget.name = "w";
+        widget.size = 4;
+        String json = TestUtil.toJson(widget, writeOptions);
+        assertThat(calls.get()).isEqualTo(afterWarmUp);
+
+        Widget copy = TestUtil.toObjects(json, null, Widget.class);
+        assertThat(copy.name).isEqualTo("w");
+        assertThat(copy.size).isEqualTo(4);
+    }
+
+    @Test
+    void testReadWarmUp_buildsInjectorsUpFront() {
+        ReadOptions readOptions = new ReadOptionsBuilder().classValueCache(true).build();
+        readOptions.warmUp(Widget.class, Part.class, Runnable.class, String[].class);
+        assertThat(readOptions.getDeepInjectorMap(Widget.class)).containsOnlyKeys("name", "size");
+
+        Widget copy = TestUtil.toObjects("{\"name\":\"x\",\"size\":3}", readOptions, Widget.class);
+        assertThat(copy.name).isEqualTo("x");
+        assertThat(copy.size).isEqualTo(3);
+    }
+
+    @Test
+    void testReadWarmUp_runsNoUserCode() {
+        ReadOptions readOptions = new ReadOptionsBuilder().build();
+        readOptions.warmUp(Guarded.class);
+        assertThat(MetaUtils.getCachedConstructor(Guarded.class)).isNotNull();
+        assertThat(guardedInitialized).isFalse();
+        assertThat(guardedConstructed).hasValue(0);
+
+        Guarded copy = TestUtil.toObjects("{\"name\":\"g\"}", readOptions, Guarded.class);
+        assertThat(copy.name).isEqualTo("g");
+        assertThat(guardedConstructed).hasValue(1);
+    }
+
+    @Test
+    void testReadWarmUp_fallsBackWhenResolvedConstructorFails() {
+        ReadOptions readOptions = new ReadOptionsBuilder().build();
+        readOptions.warmUp(NeedsName.class);
+        // Resolved with null arguments, which this constructor rejects, so the first read searches as usual.
+        assertThat(MetaUtils.getCachedConstructor(NeedsName.class).useNullSetting).isTrue();
+
+        NeedsName copy = TestUtil.toObjects("{\"name\":\"n\"}", readOptions, NeedsName.class);
+        assertThat(copy.name).isEqualTo("n");
+        assertThat(MetaUtils.getCachedConstructor(NeedsName.class).useNullSetting).isFalse();
+    }
+
+    @Test
+    void testFindClassesInPackage_directory() {
+        List<Class<?>> classes = MetaUtils.findClassesInPackage(MODELS, WarmUpTest.class.getClassLoader());
+        assertThat(classes).contains(Car.class, Part.class);
+        for (Class<?> c : classes) {
+            assertThat(c.getName()).startsWith(MODELS + ".");
+        }
+    }
+
+    @Test
+    void testFindClassesInPackage_jar() {
+        List<Class<?>> classes = MetaUtils.findClassesInPackage("org.junit.jupiter.api", WarmUpTest.class.getClassLoader());
+        assertThat(classes).contains(Test.class);
+    }
+
+    @Test
+    void testFindClassesInPackage_unknownPackage() {
+        assertThat(MetaUtils.findClassesInPackage("no.such.pkg", WarmUpTest.class.getClassLoader())).isEmpty();
+        assertThatThrownBy(() -> MetaUtils.findClassesInPackage(null, WarmUpTest.class.getClassLoader()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testWarmUpPackages() {
+        WriteOptions writeOptions = new WriteOptionsBuilder().build();
+        ReadOptions readOptions = new ReadOptionsBuilder().build();
+        writeOptions.warmUpPackages(MODELS);
+        readOptions.warmUpPackages(MODELS);
+
+        List<Part> parts = new ArrayList<>();
+        Part part = new Part();
+        part.setName("wheel");
+        parts.add(part);
+        Car car = new Car();
+        car.setMake("make");
+        car.setAccessories(parts);
+
+        Car copy = TestUtil.toObjects(TestUtil.toJson(car, writeOptions), readOptions, Car.class);
+        assertThat(copy.getMake()).isEqualTo("make");
+        assertThat(copy.getAccessories().get(0).getName()).isEqualTo("wheel");
+    }
+}
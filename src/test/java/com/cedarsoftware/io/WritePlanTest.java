@@ -0,0 +1,226 @@
+package com.cedarsoftware.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.cedarsoftware.io.reflect.factories.LambdaAccessorFactory;
+import com.cedarsoftware.io.reflect.filters.models.PropertyBean;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License")
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+class WritePlanTest {
+
+    static class Holder {
+        int count = 5;
+        long big = 12345678901L;
+        String name = "plan";
+        Integer boxed = 7;
+        Object anything = 42L;
+        Number number = 3.5d;
+        List<String> strings = new ArrayList<>();
+        String nothing;
+    }
+
+    @Test
+    void testPlanBindsFinalAndPrimitiveFields() {
+        WriteOptions options = new WriteOptionsBuilder().build();
+        WritePlan plan = ((WriteOptionsBuilder.DefaultWriteOptions) options).getWritePlan(Holder.class);
+
+        assertThat(plan.getFieldWriters()).hasSize(8);
+        for (WritePlan.FieldWriter fieldWriter : plan.getFieldWriters()) {
+            String name = fieldWriter.getAccessor().getUniqueFieldName();
+            assertThat(fieldWriter.getNameToken()).isEqualTo("\"" + name + "\":");
+
+            switch (name) {
+                case "count":
+                    assertThat(fieldWriter.getBoundClass()).isEqualTo(Integer.class);
+                    assertThat(fieldWriter.getBoundWriter()).isNotNull();
+                    assertThat(fieldWriter.isBoundShowType()).isFalse();
+                    break;
+                case "name":
+                case "nothing":
+                    assertThat(fieldWriter.getBoundClass()).isEqualTo(String.class);
+                    assertThat(fieldWriter.getBoundWriter()).isInstanceOf(Writers.JsonStringWriter.class);
+                    break;
+                case "anything":
+                case "number":
+                case "strings":
+                    assertThat(fieldWriter.getBoundClass()).isNull();
+                    assertThat(fieldWriter.getBoundWriter()).isNull();
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        // Plans are cached per class
+        assertThat(((WriteOptionsBuilder.DefaultWriteOptions) options).getWritePlan(Holder.class)).isSameAs(plan);
+    }
+
+    @Test
+    void testPlannedOutput() {
+        Holder holder = new Holder();
+        holder.strings.add("a");
+        String json = TestUtil.toJson(holder, new WriteOptionsBuilder().showTypeInfoNever().build());
+        assertThat(json).isEqualTo("{\"count\":5,\"big\":12345678901,\"name\":\"plan\",\"boxed\":7,\"anything\":42,\"number\":3.5,\"strings\":[\"a\"],\"nothing\":null}");
+
+        json = TestUtil.toJson(holder, new WriteOptionsBuilder().showTypeInfoNever().skipNullFields(true).writeLongsAsStrings(true).build());
+        assertThat(json).isEqualTo("{\"count\":5,\"big\":\"12345678901\",\"name\":\"plan\",\"boxed\":7,\"anything\":\"42\",\"number\":3.5,\"strings\":[\"a\"]}");
+    }
+
+    @Test
+    void testPlannedRoundTrip() {
+        Holder holder = new Holder();
+        holder.strings.add("x");
+        holder.anything = new ArrayList<>();
+        String json = TestUtil.toJson(holder, new WriteOptionsBuilder().build());
+        Holder copy = TestUtil.toObjects(json, new ReadOptionsBuilder().build(), Holder.class);
+
+        assertThat(copy.count).isEqualTo(5);
+        assertThat(copy.big).isEqualTo(12345678901L);
+        assertThat(copy.name).isEqualTo("plan");
+        assertThat(copy.boxed).isEqualTo(7);
+        assertThat(copy.anything).isInstanceOf(ArrayList.class);
+        assertThat(copy.number).isEqualTo(3.5d);
+        assertThat(copy.strings).containsExactly("x");
+        assertThat(copy.nothing).isNull();
+    }
+
+    static class OverridingWriter extends JsonWriter {
+        OverridingWriter(OutputStream out, WriteOptions writeOptions) {
+            super(out, writeOptions);
+        }
+
+        @Override
+        public boolean writeUsingCustomWriter(Object o, boolean showType, Writer output) {
+            if (o instanceof Integer) {
+                try {
+                    output.write("\"int-" + o + "\"");
+                } catch (IOException e) {
+                    throw new JsonIoException(e);
+                }
+                return true;
+            }
+            return super.writeUsingCustomWriter(o, showType, output);
+        }
+    }
+
+    @Test
+    void testSubclassOverridesAreNotBypassedByPlans() {
+        WriteOptions options = new WriteOptionsBuilder().showTypeInfoNever().build();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonWriter writer = new OverridingWriter(out, options);
+        writer.write(new Holder());
+        writer.close();
+
+        String json = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        assertThat(json).contains("\"count\":\"int-5\"");
+        assertThat(json).contains("\"boxed\":\"int-7\"");
+        assertThat(json).contains("\"name\":\"plan\"");
+    }
+
+    @Test
+    void testInlineCacheForPolymorphicFields() {
+        WriteOptions options = new WriteOptionsBuilder().build();
+        WritePlan plan = ((WriteOptionsBuilder.DefaultWriteOptions) options).getWritePlan(Holder.class);
+        WritePlan.FieldWriter anything = null;
+        for (WritePlan.FieldWriter fieldWriter : plan.getFieldWriters()) {
+            if (fieldWriter.getAccessor().getUniqueFieldName().equals("anything")) {
+                anything = fieldWriter;
+            }
+        }
+        assertThat(anything).isNotNull();
+
+        WritePlan.Binding longBinding = anything.bindingFor(options, Long.class);
+        assertThat(longBinding).isNotNull();
+        assertThat(longBinding.isShowType()).isFalse();
+        assertThat(anything.bindingFor(options, Long.class)).isSameAs(longBinding);
+
+        WritePlan.Binding listBinding = anything.bindingFor(options, ArrayList.class);
+        assertThat(listBinding.isShowType()).isTrue();
+        assertThat(anything.bindingFor(options, ArrayList.class)).isSameAs(listBinding);
+
+        // Security-sensitive classes always take the general path
+        assertThat(anything.bindingFor(options, ProcessBuilder.class)).isNull();
+
+        // A bimorphic field keeps both classes cached, however often it alternates
+        for (int i = 0; i < 20; i++) {
+            assertThat(anything.bindingFor(options, Long.class)).isSameAs(longBinding);
+            assertThat(anything.bindingFor(options, ArrayList.class)).isSameAs(listBinding);
+        }
+
+        // Misses only count once the cache is full; after that, a megamorphic field stops binding new classes
+        WritePlan.Binding stringBinding = anything.bindingFor(options, String.class);
+        WritePlan.Binding doubleBinding = anything.bindingFor(options, Double.class);
+        assertThat(anything.bindingFor(options, String.class)).isSameAs(stringBinding);
+        assertThat(anything.bindingFor(options, Double.class)).isSameAs(doubleBinding);
+        assertThat(anything.bindingFor(options, Short.class)).isNotNull();
+        assertThat(anything.bindingFor(options, Short.class)).isNotNull();
+        assertThat(anything.bindingFor(options, Byte.class)).isNotNull();
+        assertThat(anything.bindingFor(options, Byte.class)).isNotNull();
+        assertThat(anything.bindingFor(options, Float.class)).isNull();
+        assertThat(anything.bindingFor(options, Short.class)).isNull();
+        assertThat(anything.bindingFor(options, Double.class)).isSameAs(doubleBinding);
+        assertThat(anything.bindingFor(options, Long.class)).isSameAs(longBinding);
+    }
+
+    @Test
+    void testUnboxedLambdaGetters() {
+        WriteOptionsBuilder builder = new WriteOptionsBuilder()
+                .removeAccessorFactory("get")
+                .removeAccessorFactory("is")
+                .addAccessorFactory("lambda", new LambdaAccessorFactory())
+                .showTypeInfoNever();
+        WriteOptions options = builder.build();
+        WritePlan plan = ((WriteOptionsBuilder.DefaultWriteOptions) options).getWritePlan(PropertyBean.class);
+        for (WritePlan.FieldWriter fieldWriter : plan.getFieldWriters()) {
+            String name = fieldWriter.getAccessor().getUniqueFieldName();
+            boolean primitive = name.equals("count") || name.equals("total") || name.equals("ratio");
+            assertThat(fieldWriter.getUnboxedAccessor() != null).as(name).isEqualTo(primitive);
+        }
+
+        PropertyBean bean = new PropertyBean();
+        bean.setCount(-3);
+        bean.setTotal(Long.MIN_VALUE);
+        bean.setRatio(0.1d);
+        bean.setName("x");
+        String expected = TestUtil.toJson(bean, new WriteOptionsBuilder().showTypeInfoNever().build());
+        assertThat(TestUtil.toJson(bean, options)).isEqualTo(expected);
+
+        bean.setRatio(Double.NaN);
+        assertThat(TestUtil.toJson(bean, options)).contains("\"ratio\":null");
+        assertThat(TestUtil.toJson(bean, new WriteOptionsBuilder(options).allowNanAndInfinity(true).build())).contains("\"ratio\":NaN");
+
+        // Longs written as strings go through the LongWriter, not the unboxed path
+        WriteOptions longsAsStrings = new WriteOptionsBuilder(options).writeLongsAsStrings(true).build();
+        for (WritePlan.FieldWriter fieldWriter : ((WriteOptionsBuilder.DefaultWriteOptions) longsAsStrings).getWritePlan(PropertyBean.class).getFieldWriters()) {
+            if (fieldWriter.getAccessor().getUniqueFieldName().equals("total")) {
+                assertThat(fieldWriter.getUnboxedAccessor()).isNull();
+            }
+        }
+        assertThat(TestUtil.toJson(bean, longsAsStrings)).contains("\"total\":\"" + Long.MIN_VALUE + "\"");
+    }
+}
@@ -0,0 +1,42 @@
+package com.cedarsoftware.io.factory;
+
+import java.time.DayOfWeek;
+
+import com.cedarsoftware.util.convert.Converter;
+import com.cedarsoftware.util.convert.DefaultConverterOptions;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArrayFactoryTest {
+
+    private final Converter converter = new Converter(new DefaultConverterOptions());
+
+    @Test
+    void toArray_primitiveComponentTypes() {
+        Object[] values = {1L, null, "3"};
+
+        assertThat((int[]) ArrayFactory.toArray(int.class, 3, i -> values[i], converter)).containsExactly(1, 0, 3);
+        assertThat((long[]) ArrayFactory.toArray(long.class, 3, i -> values[i], converter)).containsExactly(1L, 0L, 3L);
+        assertThat((double[]) ArrayFactory.toArray(double.class, 3, i -> values[i], converter)).containsExactly(1.0, 0.0, 3.0);
+        assertThat((short[]) ArrayFactory.toArray(short.class, 3, i -> values[i], converter)).containsExactly((short) 1, (short) 0, (short) 3);
+
+        Object[] flags = {true, "false", null};
+        assertThat((boolean[]) ArrayFactory.toArray(boolean.class, 3, i -> flags[i], converter)).containsExactly(true, false, false);
+
+        Object[] chars = {'a', "b"};
+        assertThat((char[]) ArrayFactory.toArray(char.class, 2, i -> chars[i], converter)).containsExactly('a', 'b');
+    }
+
+    @Test
+    void toArray_referenceComponentTypes() {
+        Object[] strings = {"a", null, 7L};
+        assertThat((String[]) ArrayFactory.toArray(String.class, 3, i -> strings[i], converter)).containsExactly("a", null, "7");
+
+        Object[] days = {DayOfWeek.MONDAY, null};
+        assertThat((DayOfWeek[]) ArrayFactory.toArray(DayOfWeek.class, 2, i -> days[i], converter)).containsExactly(DayOfWeek.MONDAY, null);
+
+        Object[] longs = {1L, 2};
+        assertThat((Long[]) ArrayFactory.toArray(Long.class, 2, i -> longs[i], converter)).containsExactly(1L, 2L);
+    }
+}
@@ -0,0 +1,94 @@
+package com.cedarsoftware.io.factory;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import com.cedarsoftware.io.JsonIo;
+import com.cedarsoftware.io.JsonIoException;
+import com.cedarsoftware.io.JsonObject;
+import com.cedarsoftware.io.ReadOptions;
+import com.cedarsoftware.io.ReadOptionsBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecordFactoryTest {
+
+    static class NotARecord {
+        String name;
+    }
+
+    @Test
+    void read_nonRecordClass_throwsJsonIoException() {
+        JsonObject jsonObject = new JsonObject();
+        jsonObject.setJavaType(NotARecord.class);
+        jsonObject.put("name", "value");
+
+        // "Class is not a record" on Java 16+, "only works with java>=16" on earlier versions
+        assertThatThrownBy(() -> new RecordFactory.RecordReader().read(jsonObject, null))
+                .isInstanceOf(JsonIoException.class);
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_16, disabledReason = "records were added in Java 16")
+    void roundTrip_nestedAndGenericComponents() throws Exception {
+        // The tests are compiled for Java 8, so the records are compiled here.
+        ClassLoader loader = compileRecords();
+        Class<?> pointClass = loader.loadClass("records.Point");
+        Class<?> labeledClass = loader.loadClass("records.Labeled");
+        Constructor<?> point = pointClass.getConstructor(int.class, int.class);
+        Constructor<?> labeled = labeledClass.getConstructor(String.class, Object.class, pointClass, List.class, long.class, double.class);
+
+        Object original = labeled.newInstance("route", point.newInstance(1, 2), point.newInstance(3, 4),
+                Arrays.asList(point.newInstance(5, 6), point.newInstance(7, 8)), Long.MAX_VALUE, 0.5d);
+        ReadOptions readOptions = new ReadOptionsBuilder().classLoader(loader).build();
+
+        String json = JsonIo.toJson(original, null);
+        Object copy = JsonIo.toObjects(json, readOptions, labeledClass);
+        assertThat(copy).isEqualTo(original);
+        assertThat(copy.getClass().getMethod("value").invoke(copy)).isInstanceOf(pointClass);
+
+        // A record referenced twice is read once
+        json = JsonIo.toJson(Arrays.asList(original, original), null);
+        List<?> list = JsonIo.toObjects(json, readOptions, List.class);
+        assertThat(list.get(0)).isEqualTo(original);
+        assertThat(list.get(1)).isSameAs(list.get(0));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_16, disabledReason = "records were added in Java 16")
+    void recordReader_registeredByDefault() throws Exception {
+        Class<?> pointClass = compileRecords().loadClass("records.Point");
+
+        assertThat(new ReadOptionsBuilder().build().getCustomReader(pointClass)).isInstanceOf(RecordFactory.RecordReader.class);
+        assertThat(new ReadOptionsBuilder().recordReader(false).build().getCustomReader(pointClass)).isNull();
+        assertThat(new ReadOptionsBuilder().recordReader(false).recordReader(true).build().getCustomReader(pointClass))
+                .isInstanceOf(RecordFactory.RecordReader.class);
+    }
+
+    private static ClassLoader compileRecords() throws IOException {
+        Path dir = Files.createTempDirectory("records");
+        Path src = Files.createDirectories(dir.resolve("records"));
+        Path point = src.resolve("Point.java");
+        Path labeled = src.resolve("Labeled.java");
+        Files.write(point, "package records; public record Point(int x, int y) {}".getBytes(StandardCharsets.UTF_8));
+        Files.write(labeled, ("package records; public record Labeled<T>(String label, T value, Point origin, " +
+                "java.util.List<Point> path, long id, double weight) {}").getBytes(StandardCharsets.UTF_8));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertThat(compiler.run(null, null, null, "-d", dir.toString(), point.toString(), labeled.toString())).isZero();
+        return new URLClassLoader(new URL[]{dir.toUri().toURL()}, RecordFactoryTest.class.getClassLoader());
+    }
+}
@@ -0,0 +1,111 @@
+package com.cedarsoftware.io.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.util.List;
+
+import com.cedarsoftware.io.ReadOptions;
+import com.cedarsoftware.io.ReadOptionsBuilder;
+import com.cedarsoftware.io.TestUtil;
+import com.cedarsoftware.io.WriteOptions;
+import com.cedarsoftware.io.WriteOptionsBuilder;
+import com.cedarsoftware.io.reflect.filters.models.PrivateFinalObject;
+import org.junit.jupiter.api.Test;
+
+import static com.cedarsoftware.util.CollectionUtilities.listOf;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License");
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+class MetadataRegistryTests {
+    static class Holder {
+        private static final String CONSTANT = "c";
+        private String name = "n";
+        private final int count;
+
+        Holder() {
+            count = 0;
+        }
+
+        Holder(int count) {
+            this.count = count;
+        }
+    }
+
+    @Test
+    void getDeclaredFields_isSharedAndMatchesClass() {
+        List<Field> fields = MetadataRegistry.getDeclaredFields(Holder.class);
+        assertThat(fields).hasSize(Holder.class.getDeclaredFields().length);
+        assertThat(fields).isSameAs(MetadataRegistry.getDeclaredFields(Holder.class));
+    }
+
+    @Test
+    void getGetterAndSetter_cachedPerField() throws Throwable {
+        Field name = Holder.class.getDeclaredField("name");
+        MethodHandle getter = MetadataRegistry.getGetter(name);
+        assertThat(getter).isNotNull();
+        assertThat(MetadataRegistry.getGetter(Holder.class.getDeclaredField("name"))).isSameAs(getter);
+
+        Holder holder = new Holder(5);
+        assertThat(getter.invoke(holder)).isEqualTo("n");
+
+        MethodHandle setter = MetadataRegistry.getSetter(name);
+        setter.invoke(holder, "x");
+        assertThat(holder.name).isEqualTo("x");
+
+        // final instance fields can be set once accessible
+        MetadataRegistry.getSetter(Holder.class.getDeclaredField("count")).invoke(holder, 9);
+        assertThat(MetadataRegistry.getGetter(Holder.class.getDeclaredField("count")).invoke(holder)).isEqualTo(9);
+
+        // static final fields cannot be written
+        assertThat(MetadataRegistry.getSetter(Holder.class.getDeclaredField("CONSTANT"))).isNull();
+    }
+
+    @Test
+    void optionsVariants_shareHandles_butKeepTheirOwnFilters() {
+        WriteOptions all = new WriteOptionsBuilder().build();
+        WriteOptions noKey = new WriteOptionsBuilder().addExcludedFields(PrivateFinalObject.class, listOf("key")).build();
+
+        Accessor fromAll = findAccessor(all, "x");
+        Accessor fromNoKey = findAccessor(noKey, "x");
+        assertThat(fromAll).isNotSameAs(fromNoKey);
+        assertThat(fromAll.getMethodHandle()).isSameAs(fromNoKey.getMethodHandle());
+        assertThat(findAccessor(noKey, "key")).isNull();
+
+        ReadOptions readAll = new ReadOptionsBuilder().build();
+        ReadOptions readNoKey = new ReadOptionsBuilder(readAll)
+                .addFieldFilter(field -> field.getDeclaringClass() == PrivateFinalObject.class && field.getName().equals("key"))
+                .build();
+        assertThat(readAll.getDeepInjectorMap(PrivateFinalObject.class)).containsKey("key");
+        assertThat(readNoKey.getDeepInjectorMap(PrivateFinalObject.class)).doesNotContainKey("key");
+
+        PrivateFinalObject source = new PrivateFinalObject(1, 2, "k", true);
+        PrivateFinalObject copy = TestUtil.toObjects(TestUtil.toJson(source, noKey), readAll, PrivateFinalObject.class);
+        assertThat(copy.getTotal()).isEqualTo(3);
+        assertThat(copy.isFlatuated()).isTrue();
+    }
+
+    private static Accessor findAccessor(WriteOptions options, String fieldName) {
+        for (Accessor accessor : options.getAccessorsForClass(PrivateFinalObject.class)) {
+            if (accessor.getFieldOrMethodName().equals(fieldName)) {
+                return accessor;
+            }
+        }
+        return null;
+    }
+}
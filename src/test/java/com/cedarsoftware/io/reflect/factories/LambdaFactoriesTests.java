@@ -0,0 +1,129 @@
+package com.cedarsoftware.io.reflect.factories;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+
+import com.cedarsoftware.io.JsonIoException;
+import com.cedarsoftware.io.ReadOptionsBuilder;
+import com.cedarsoftware.io.TestUtil;
+import com.cedarsoftware.io.WriteOptions;
+import com.cedarsoftware.io.WriteOptionsBuilder;
+import com.cedarsoftware.io.reflect.Accessor;
+import com.cedarsoftware.io.reflect.AccessorFactory;
+import com.cedarsoftware.io.reflect.Injector;
+import com.cedarsoftware.io.reflect.filters.models.PropertyBean;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author John DeRegnaucourt (jdereg@gmail.com)
+ *         <br>
+ *         Copyright (c) Cedar Software LLC
+ *         <br><br>
+ *         Licensed under the Apache License, Version 2.0 (the "License");
+ *         you may not use this file except in compliance with the License.
+ *         You may obtain a copy of the License at
+ *         <br><br>
+ *         <a href="http://www.apache.org/licenses/LICENSE-2.0">License</a>
+ *         <br><br>
+ *         Unless required by applicable law or agreed to in writing, software
+ *         distributed under the License is distributed on an "AS IS" BASIS,
+ *         WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *         See the License for the specific language governing permissions and
+ *         limitations under the License.
+ */
+class LambdaFactoriesTests extends AbstractAccessFactoryTest {
+
+    @Override
+    protected AccessorFactory provideAccessorFactory() {
+        return new LambdaAccessorFactory();
+    }
+
+    private static PropertyBean createBean() {
+        PropertyBean bean = new PropertyBean();
+        bean.setCount(3);
+        bean.setTotal(Long.MAX_VALUE);
+        bean.setRatio(0.25d);
+        bean.setActive(true);
+        bean.setName("x");
+        return bean;
+    }
+
+    @Test
+    void buildAccessor_primitiveGetters_areUnboxed() throws Exception {
+        PropertyBean bean = createBean();
+
+        LambdaAccessorFactory.LambdaAccessor count = (LambdaAccessorFactory.LambdaAccessor) factory.buildAccessor(PropertyBean.class.getDeclaredField("count"), new HashMap<>(), "count");
+        assertThat(count.isUnboxed()).isTrue();
+        assertThat(count.retrieveInt(bean)).isEqualTo(3);
+        assertThat(count.retrieve(bean)).isEqualTo(3);
+        assertThat(count.getFieldOrMethodName()).isEqualTo("getCount");
+
+        LambdaAccessorFactory.LambdaAccessor total = (LambdaAccessorFactory.LambdaAccessor) factory.buildAccessor(PropertyBean.class.getDeclaredField("total"), new HashMap<>(), "total");
+        assertThat(total.retrieveLong(bean)).isEqualTo(Long.MAX_VALUE);
+
+        LambdaAccessorFactory.LambdaAccessor ratio = (LambdaAccessorFactory.LambdaAccessor) factory.buildAccessor(PropertyBean.class.getDeclaredField("ratio"), new HashMap<>(), "ratio");
+        assertThat(ratio.retrieveDouble(bean)).isEqualTo(0.25d);
+    }
+
+    @Test
+    void buildAccessor_objectAndBooleanGetters() throws Exception {
+        PropertyBean bean = createBean();
+
+        Accessor active = factory.buildAccessor(PropertyBean.class.getDeclaredField("active"), new HashMap<>(), "active");
+        assertThat(active.retrieve(bean)).isEqualTo(true);
+        assertThat(active.getFieldOrMethodName()).isEqualTo("isActive");
+
+        Accessor name = factory.buildAccessor(PropertyBean.class.getDeclaredField("name"), new HashMap<>(), "name");
+        assertThat(((LambdaAccessorFactory.LambdaAccessor) name).isUnboxed()).isFalse();
+        assertThat(name.retrieve(bean)).isEqualTo("set:x");
+        assertThat(name.retrieve(null)).isNull();
+    }
+
+    @Test
+    void buildAccessor_nonPublicGetter_returnsNull() throws Exception {
+        Field field = PropertyBean.class.getDeclaredField("hidden");
+        assertThat(factory.buildAccessor(field, new HashMap<>(), "hidden")).isNull();
+    }
+
+    @Test
+    void createInjector_setters() throws Exception {
+        LambdaInjectorFactory injectorFactory = new LambdaInjectorFactory();
+        PropertyBean bean = new PropertyBean();
+
+        Injector count = injectorFactory.createInjector(PropertyBean.class.getDeclaredField("count"), new HashMap<>(), "count");
+        count.inject(bean, 5);
+        assertThat(bean.getCount()).isEqualTo(5);
+
+        // ClassCastException path converts the value to the field type
+        count.inject(bean, 7L);
+        assertThat(bean.getCount()).isEqualTo(7);
+
+        Injector name = injectorFactory.createInjector(PropertyBean.class.getDeclaredField("name"), new HashMap<>(), "name");
+        name.inject(bean, "y");
+        assertThat(bean.getName()).isEqualTo("set:y");
+        assertThat(name.getDisplayName()).isEqualTo("setName");
+
+        assertThatThrownBy(() -> count.inject(null, 1)).isInstanceOf(JsonIoException.class);
+        assertThat(injectorFactory.createInjector(PropertyBean.class.getDeclaredField("hidden"), new HashMap<>(), "hidden")).isNull();
+    }
+
+    @Test
+    void roundTrip_withLambdaFactories() {
+        WriteOptions writeOptions = new WriteOptionsBuilder()
+                .removeAccessorFactory("get")
+                .removeAccessorFactory("is")
+                .addAccessorFactory("lambda", new LambdaAccessorFactory())
+                .build();
+        String json = TestUtil.toJson(createBean(), writeOptions);
+
+        PropertyBean copy = TestUtil.toObjects(json, new ReadOptionsBuilder().addInjectorFactory(new LambdaInjectorFactory()).build(), PropertyBean.class);
+        assertThat(copy.getCount()).isEqualTo(3);
+        assertThat(copy.getTotal()).isEqualTo(Long.MAX_VALUE);
+        assertThat(copy.getRatio()).isEqualTo(0.25d);
+        assertThat(copy.isActive()).isTrue();
+        assertThat(copy.getName()).isEqualTo("set:set:x");
+    }
+}